@@ -0,0 +1,260 @@
+package bench;
+
+import model.Customer;
+import model.DeliveryPerson;
+import model.FoodItem;
+import model.ModelCodec;
+import model.Order;
+import model.OrderLines;
+import model.OrderStatus;
+import model.Promotion;
+import model.Restaurant;
+import util.CompactReader;
+import util.CompactWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Size and speed per order of ModelCodec against Java serialization; the round-trip tests are in
+// ModelCodecTest and CompactCodecTest under jmh/src/test. The model classes
+// aren't Serializable, so the Java side serializes a plain mirror holding the same fields.
+// "record" encodes each order on its own, as the order log does; "stream" encodes them all with
+// one dictionary (one ObjectOutputStream for Java), as a snapshot does.
+// Usage: java -cp jmh/target/benchmarks.jar bench.CodecBenchmark [orders] [rounds]
+public class CodecBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Catalog catalog = new Catalog();
+        Order[] orders = catalog.orders(count);
+
+        OrderMirror[] mirrors = new OrderMirror[orders.length];
+        for (int i = 0; i < orders.length; i++) mirrors[i] = new OrderMirror(orders[i]);
+        for (int warm = 0; warm < 2; warm++) {
+            boolean report = warm == 1;
+            compactRecords(orders, catalog, rounds, report);
+            compactStream(orders, catalog, rounds, report);
+            javaRecords(mirrors, rounds, report);
+            javaStream(mirrors, rounds, report);
+        }
+    }
+
+    private static void compactRecords(Order[] orders, Catalog refs, int rounds, boolean report) {
+        CompactWriter w = new CompactWriter(512);
+        CompactReader r = new CompactReader(null);
+        long bytes = 0, encode = 0, decode = 0, sink = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (Order order : orders) {
+                long t0 = System.nanoTime();
+                w.reset();
+                ModelCodec.writeOrder(w, order);
+                long t1 = System.nanoTime();
+                sink += ModelCodec.readOrder(r.reset(w.toByteBuffer()), refs).getOrderId();
+                long t2 = System.nanoTime();
+                encode += t1 - t0;
+                decode += t2 - t1;
+                bytes += w.size();
+            }
+        }
+        if (report) print("ModelCodec, record", bytes, encode, decode, (long) rounds * orders.length, sink);
+    }
+
+    private static void compactStream(Order[] orders, Catalog refs, int rounds, boolean report) {
+        CompactWriter w = new CompactWriter(1 << 20);
+        long bytes = 0, encode = 0, decode = 0, sink = 0;
+        for (int round = 0; round < rounds; round++) {
+            long t0 = System.nanoTime();
+            w.reset();
+            for (Order order : orders) ModelCodec.writeOrder(w, order);
+            long t1 = System.nanoTime();
+            CompactReader r = new CompactReader(w.toByteBuffer());
+            for (int i = 0; i < orders.length; i++) sink += ModelCodec.readOrder(r, refs).getOrderId();
+            long t2 = System.nanoTime();
+            encode += t1 - t0;
+            decode += t2 - t1;
+            bytes += w.size();
+        }
+        if (report) print("ModelCodec, stream", bytes, encode, decode, (long) rounds * orders.length, sink);
+    }
+
+    private static void javaRecords(OrderMirror[] mirrors, int rounds, boolean report) throws Exception {
+        long bytes = 0, encode = 0, decode = 0, sink = 0;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        for (int round = 0; round < rounds; round++) {
+            for (OrderMirror mirror : mirrors) {
+                long t0 = System.nanoTime();
+                buffer.reset();
+                try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+                    out.writeObject(mirror);
+                }
+                long t1 = System.nanoTime();
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+                    sink += ((OrderMirror) in.readObject()).orderId;
+                }
+                long t2 = System.nanoTime();
+                encode += t1 - t0;
+                decode += t2 - t1;
+                bytes += buffer.size();
+            }
+        }
+        if (report) print("Java serialization, record", bytes, encode, decode, (long) rounds * mirrors.length, sink);
+    }
+
+    private static void javaStream(OrderMirror[] mirrors, int rounds, boolean report) throws Exception {
+        long bytes = 0, encode = 0, decode = 0, sink = 0;
+        for (int round = 0; round < rounds; round++) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+            long t0 = System.nanoTime();
+            try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+                for (OrderMirror mirror : mirrors) out.writeObject(mirror);
+            }
+            long t1 = System.nanoTime();
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+                for (int i = 0; i < mirrors.length; i++) sink += ((OrderMirror) in.readObject()).orderId;
+            }
+            long t2 = System.nanoTime();
+            encode += t1 - t0;
+            decode += t2 - t1;
+            bytes += buffer.size();
+        }
+        if (report) print("Java serialization, stream", bytes, encode, decode, (long) rounds * mirrors.length, sink);
+    }
+
+    private static void print(String label, long bytes, long encodeNanos, long decodeNanos, long n, long sink) {
+        System.out.printf("%-28s %5d bytes, encode %,6d ns, decode %,6d ns per order%s%n",
+                label, bytes / n, encodeNanos / n, decodeNanos / n, sink == 42 ? " " : "");
+    }
+
+    // Sample catalog with a few non-ASCII names; also resolves references while decoding
+    private static final class Catalog implements ModelCodec.References {
+        final Map<Integer, Restaurant> restaurants = new HashMap<>();
+        final Map<String, Promotion> promotions = new HashMap<>();
+        final Map<Integer, Customer> customers = new HashMap<>();
+        final Map<Integer, DeliveryPerson> deliveryPersons = new HashMap<>();
+
+        Catalog() {
+            String[] categories = {"Pizza", "Burger", "Sushi", "Dessert", "Café"};
+            for (int id = 1; id <= 20; id++) {
+                Restaurant r = new Restaurant(id, "Restaurant " + id, id + " MG Road, Bengaluru", "98450" + (10000 + id),
+                                              id % 3 == 0 ? "Japanese" : "Italian", 20 + id, 2_500 + id * 100, 10_000);
+                r.setOpen(id % 7 != 0);
+                for (int f = 1; f <= 15; f++) {
+                    FoodItem item = new FoodItem(f, (f == 3 ? "Crème brûlée 🍮 " : "Dish ") + f, 9_900 + f * 1_000L,
+                                                 categories[f % categories.length], "Freshly made, serves " + (f % 3 + 1), 10 + f);
+                    item.setAvailable(f % 5 != 0);
+                    r.addFoodItem(item);
+                }
+                restaurants.put(id, r);
+            }
+            LocalDateTime start = LocalDateTime.of(2026, 1, 1, 10, 0);
+            Promotion welcome = new Promotion(1, "Welcome Offer", "20% off on first order", "WELCOME20", 2_000, 0,
+                                              10_000, start, start.plusDays(365), 1_000_000);
+            Promotion flat = new Promotion(2, "Flat Discount", "Rs. 50 off", "SAVE50", 0, 5_000, 30_000, start,
+                                           start.plusDays(30), 500, new int[] { 2, 5, 9, 17 });
+            promotions.put(welcome.getPromoCode(), welcome);
+            promotions.put(flat.getPromoCode(), flat);
+            for (int id = 1; id <= 5; id++) deliveryPersons.put(id, new DeliveryPerson(id, "Rider " + id, 9_800_000_000L + id));
+            for (int id = 1; id <= 500; id++) customers.put(id, new Customer(id, "customer" + id, 9_000_000_000L + id));
+        }
+
+        Order[] orders(int count) {
+            Order[] orders = new Order[count];
+            OrderStatus[] statuses = OrderStatus.values();
+            for (int i = 0; i < count; i++) {
+                Customer customer = customers.get(i % customers.size() + 1);
+                customer.getCart().clear();
+                Restaurant r = restaurants.get(i % 20 + 1);
+                for (int l = 0; l <= i % 4; l++) {
+                    customer.getCart().addItem(r.getMenu().get((i + l) % 15), 1 + l % 3);
+                }
+                if (i % 10 == 9) customer.getCart().addItem(restaurants.get((i + 1) % 20 + 1).getMenu().get(0), 1);
+                Order order = new Order(i + 1, customer, "Flat " + (i % 300) + ", Indiranagar", i % 2 == 0 ? "UPI" : "Card",
+                                        i % 5 == 0 ? null : "Ring the bell");
+                if (i % 4 == 0) order.applyPromotion(promotions.get("WELCOME20"), order.getSubtotalPaise() / 5);
+                if (i % 3 == 0) order.setDeliveryPerson(deliveryPersons.get(i % 5 + 1));
+                order.transitionTo(statuses[i % statuses.length]);
+                orders[i] = order;
+            }
+            return orders;
+        }
+
+        @Override
+        public Customer customer(int userId, String username, long contactNo) {
+            return customers.get(userId);
+        }
+
+        @Override
+        public Restaurant restaurant(int id) {
+            return restaurants.get(id);
+        }
+
+        @Override
+        public DeliveryPerson deliveryPerson(int id) {
+            return deliveryPersons.get(id);
+        }
+
+        @Override
+        public Promotion promotion(String promoCode) {
+            return promotions.get(promoCode);
+        }
+    }
+
+    // The fields ModelCodec writes for an order, in a form ObjectOutputStream accepts
+    private static final class OrderMirror implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final int orderId;
+        final long orderTimeMillis;
+        final int customerId;
+        final String customerName;
+        final long customerContact;
+        final String deliveryAddress, paymentMethod, specialInstructions, promoCode;
+        final long subtotal, deliveryFee, tax, discount, estimatedDeliveryMillis;
+        final OrderStatus status;
+        final int deliveryPersonId;
+        final int restaurantId;
+        final int[] restaurantIds, foodIds, quantities;
+        final long[] unitPrices;
+        final String[] names;
+
+        OrderMirror(Order order) {
+            orderId = order.getOrderId();
+            orderTimeMillis = order.getOrderTimeMillis();
+            customerId = order.getCustomer().getUserId();
+            customerName = order.getCustomer().getUsername();
+            customerContact = order.getCustomer().getContactNo();
+            deliveryAddress = order.getDeliveryAddress();
+            paymentMethod = order.getPaymentMethod();
+            specialInstructions = order.getSpecialInstructions();
+            promoCode = order.getPromotion() != null ? order.getPromotion().getPromoCode() : null;
+            subtotal = order.getSubtotalPaise();
+            deliveryFee = order.getDeliveryFeePaise();
+            tax = order.getTaxPaise();
+            discount = order.getDiscountPaise();
+            estimatedDeliveryMillis = order.getOrderTimeMillis() + 30 * 60_000L;
+            status = order.getStatus();
+            deliveryPersonId = order.getDeliveryPerson() != null ? order.getDeliveryPerson().getDeliveryPersonId() : 0;
+            OrderLines lines = order.getLines();
+            restaurantId = lines.getRestaurantId();
+            restaurantIds = lines.spansRestaurants() ? new int[lines.size()] : null;
+            foodIds = new int[lines.size()];
+            quantities = new int[lines.size()];
+            unitPrices = new long[lines.size()];
+            names = new String[lines.size()];
+            for (int i = 0; i < lines.size(); i++) {
+                if (restaurantIds != null) restaurantIds[i] = lines.getRestaurantId(i);
+                foodIds[i] = lines.getFoodId(i);
+                quantities[i] = lines.getQuantity(i);
+                unitPrices[i] = lines.getUnitPricePaise(i);
+                names[i] = lines.getName(i);
+            }
+        }
+    }
+}
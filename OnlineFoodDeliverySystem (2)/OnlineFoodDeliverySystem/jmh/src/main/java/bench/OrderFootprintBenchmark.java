@@ -0,0 +1,94 @@
+package bench;
+
+import model.Cart;
+import model.Customer;
+import model.FoodItem;
+import model.Order;
+import model.OrderLines;
+import model.Restaurant;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+// Retained heap per order for the line items: the old per-order HashMap<FoodItem, Integer> copy
+// of the cart versus OrderLines, then for whole Order objects. Carts hold 1-4 lines from a shared
+// menu, so menu objects are not counted. Numbers are live heap after GC, divided by the order count.
+// Usage: java -Xmx4g -cp jmh/target/benchmarks.jar bench.OrderFootprintBenchmark [orders] [fullOrders]
+public class OrderFootprintBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int fullOrders = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        Random random = new Random(42);
+        FoodItem[] menu = new FoodItem[2_000];
+        Restaurant restaurant = null;
+        for (int i = 0; i < menu.length; i++) {
+            if (i % 20 == 0) restaurant = new Restaurant(i / 20 + 1, "Restaurant " + (i / 20 + 1));
+            menu[i] = new FoodItem(i % 20 + 1, "Dish " + i, (100 + random.nextInt(400)) * 100L);
+            restaurant.addFoodItem(menu[i]);
+        }
+        Customer[] customers = new Customer[256];
+        for (int c = 0; c < customers.length; c++) {
+            customers[c] = new Customer(c + 1, "customer" + (c + 1), 9_000_000_000L + c);
+            Cart cart = customers[c].getCart();
+            int restaurantBase = random.nextInt(menu.length / 20) * 20;
+            int lines = 1 + random.nextInt(4);
+            for (int l = 0; l < lines; l++) {
+                cart.addItem(menu[restaurantBase + random.nextInt(20)], 1 + random.nextInt(3));
+            }
+        }
+
+        long base = usedHeap();
+        Object[] retained = new Object[orders];
+        long arrayBytes = usedHeap() - base;
+
+        for (int i = 0; i < orders; i++) {
+            retained[i] = toMap(customers[i & 255].getCart());
+        }
+        long mapBytes = usedHeap() - base - arrayBytes;
+        report("HashMap<FoodItem, Integer> lines", orders, mapBytes);
+
+        for (int i = 0; i < orders; i++) {
+            retained[i] = OrderLines.of(customers[i & 255].getCart());
+        }
+        long linesBytes = usedHeap() - base - arrayBytes;
+        report("OrderLines", orders, linesBytes);
+
+        retained = null;
+        base = usedHeap();
+        Order[] placed = new Order[fullOrders];
+        arrayBytes = usedHeap() - base;
+        for (int i = 0; i < fullOrders; i++) {
+            placed[i] = new Order(i + 1, customers[i & 255], "221B Baker Street", "UPI", "");
+        }
+        long orderBytes = usedHeap() - base - arrayBytes;
+        report("Order (with OrderLines)", fullOrders, orderBytes);
+        System.out.printf("  projected for %,d orders: %,d MB%n", orders, orderBytes / fullOrders * orders >> 20);
+        if (placed[fullOrders - 1] == null) throw new IllegalStateException();
+    }
+
+    // What Order used to keep per order
+    private static Map<FoodItem, Integer> toMap(Cart cart) {
+        Map<FoodItem, Integer> items = new HashMap<>();
+        for (int i = 0; i < cart.size(); i++) {
+            items.put(cart.getItem(i), cart.getQuantity(i));
+        }
+        return items;
+    }
+
+    private static void report(String label, int count, long bytes) {
+        System.out.printf("%-34s %,12d orders: %,6.1f bytes/order, %,d MB total%n",
+                label, count, bytes / (double) count, bytes >> 20);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import model.Customer;
+import model.Order;
+import model.OrderStatus;
+import model.Restaurant;
+import service.AdminService;
+import service.CustomerService;
+import service.OrderIdGenerator;
+import service.OrderJournal;
+import service.OrderStore;
+import util.OutputSink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Durable order events per second through OrderJournal: each thread places orders and confirms
+// them, and every call returns only once its event is forced to disk. With one thread every
+// event pays a full force; with more, group commit shares each force among the waiting threads.
+// Then times a cold replay of the whole log into an empty store.
+// Usage: java -cp jmh/target/benchmarks.jar bench.OrderLogBenchmark [dir] [ordersPerThread] [threads...]
+public class OrderLogBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Path root = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("order-log-bench");
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int[] threadCounts = {1, 8, 32, 128};
+        if (args.length > 2) {
+            threadCounts = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) threadCounts[i - 2] = Integer.parseInt(args[i]);
+        }
+
+        for (int threads : threadCounts) {
+            Path dir = root.resolve("t" + threads);
+            delete(dir);
+            OrderStore store = new OrderStore();
+            OrderIdGenerator orderIds = new OrderIdGenerator();
+            AdminService admin = new AdminService(store, OutputSink.NULL);
+            CustomerService customers = new CustomerService(store, admin.getRestaurantRegistry(), orderIds, OutputSink.NULL);
+            Restaurant restaurant = admin.findRestaurantById(1);
+            long elapsed;
+            try (OrderJournal journal = OrderJournal.open(dir, store, customers, admin, orderIds)) {
+                Thread[] workers = new Thread[threads];
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    Customer customer = new Customer(t + 1, "customer" + (t + 1), 9_000_000_000L + t);
+                    customer.getCart().addItem(restaurant.findFoodItemById(1), 2);
+                    customer.getCart().addItem(restaurant.findFoodItemById(2), 1);
+                    workers[t] = new Thread(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            Order order = new Order(orderIds.nextOrderId(), customer, "Home", "UPI", "");
+                            store.add(order);
+                            store.updateStatus(order, OrderStatus.CONFIRMED);
+                        }
+                    });
+                    workers[t].start();
+                }
+                for (Thread worker : workers) worker.join();
+                elapsed = System.nanoTime() - start;
+                if (journal.getEventsSinceSnapshot() != 2L * threads * perThread) {
+                    throw new IllegalStateException("logged " + journal.getEventsSinceSnapshot() + " events");
+                }
+            }
+            long events = 2L * threads * perThread;
+            System.out.printf("%4d threads: %,9d durable events in %,6d ms = %,8d events/s%n",
+                    threads, events, elapsed / 1_000_000, events * 1_000_000_000L / elapsed);
+
+            OrderStore restored = new OrderStore();
+            OrderIdGenerator restoredIds = new OrderIdGenerator();
+            AdminService restoredAdmin = new AdminService(restored, OutputSink.NULL);
+            CustomerService restoredCustomers =
+                    new CustomerService(restored, restoredAdmin.getRestaurantRegistry(), restoredIds, OutputSink.NULL);
+            long start = System.nanoTime();
+            try (OrderJournal journal = OrderJournal.open(dir, restored, restoredCustomers, restoredAdmin, restoredIds)) {
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                if (journal.getRestoredOrders() != threads * perThread
+                        || restored.findByStatus(OrderStatus.CONFIRMED).size() != threads * perThread) {
+                    throw new IllegalStateException("replay restored " + journal.getRestoredOrders() + " orders");
+                }
+                System.out.printf("              replayed %,d events in %,d ms, next order ID %d%n",
+                        journal.getReplayedEvents(), ms, restoredIds.getLastIssuedId() + 1);
+            }
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import util.AsyncOutputSink;
+import util.ConsoleOutputSink;
+import util.OutputSink;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+// Several threads printing service-style status lines: straight to an autoflushing PrintStream
+// (what System.out.println does) versus AsyncOutputSink batching onto the same kind of stream,
+// and the NULL sink. Output goes to /dev/null so the numbers are write-call and lock overhead,
+// not terminal rendering. Usage: java -cp jmh/target/benchmarks.jar bench.OutputSinkBenchmark [threads] [linesPerThread]
+public class OutputSinkBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int lines = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        for (int warm = 0; warm < 2; warm++) {
+            try (PrintStream console = devNull()) {
+                long ns = run(new ConsoleOutputSink(console), threads, lines);
+                if (warm == 1) report("console (println per line)", ns, threads, lines);
+            }
+            try (PrintStream console = devNull(); AsyncOutputSink async = new AsyncOutputSink(console)) {
+                long ns = run(async, threads, lines);
+                if (warm == 1) report("async, caller side", ns, threads, lines);
+                long t0 = System.nanoTime();
+                async.flush();
+                if (warm == 1) System.out.printf("%-28s %,d ms to drain the rest%n", "", (System.nanoTime() - t0) / 1_000_000);
+            }
+            long ns = run(OutputSink.NULL, threads, lines);
+            if (warm == 1) report("null", ns, threads, lines);
+        }
+    }
+
+    private static PrintStream devNull() throws IOException {
+        return new PrintStream(new FileOutputStream("/dev/null"), true);
+    }
+
+    private static long run(OutputSink sink, int threads, int lines) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < lines; i++) {
+                    sink.println("Order status updated from 'Pending' to 'Confirmed' for order " + (id * lines + i));
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, long ns, int threads, int lines) {
+        long total = (long) threads * lines;
+        System.out.printf("%-28s %,d lines in %,d ms (%,d ns/line)%n", label, total, ns / 1_000_000, ns / total);
+    }
+}
@@ -0,0 +1,107 @@
+package bench;
+
+import model.Promotion;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Many checkouts racing for the last uses of a capped promo code.
+// Correctness: committed uses must end exactly at maxUses, with no reservations left over.
+// Throughput: reserve/commit pairs per second on a promo whose cap is never reached.
+// Usage: java -cp jmh/target/benchmarks.jar bench.PromotionContentionBenchmark [threads] [rounds]
+public class PromotionContentionBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.printf("%d threads, %d rounds racing for the last uses%n", threads, rounds);
+        int oversold = 0;
+        int legacyOversold = 0;
+        for (int round = 0; round < rounds; round++) {
+            int maxUses = 1 + round % 8;
+            if (raceForLastUses(threads, maxUses) != maxUses) oversold++;
+            if (legacyRace(threads, maxUses) > maxUses) legacyOversold++;
+        }
+        System.out.printf("tryReserve/commit: %d of %d rounds ended with the wrong use count%n", oversold, rounds);
+        System.out.printf("old check-then-increment: %d of %d rounds oversold%n", legacyOversold, rounds);
+
+        long perThread = 200_000;
+        Promotion open = promotion(Integer.MAX_VALUE);
+        long elapsed = run(threads, () -> {
+            for (long i = 0; i < perThread; i++) {
+                if (open.tryReserve()) open.commitReservation();
+            }
+        });
+        long ops = perThread * threads;
+        System.out.printf("uncapped: %,d reserve+commit in %d ms (%,d ops/s), committed=%,d%n",
+                ops, elapsed / 1_000_000, ops * 1_000_000_000L / elapsed, open.getCurrentUses());
+    }
+
+    // Each thread keeps checking out until the code is exhausted; some checkouts fail payment
+    // and give their reservation back. Returns the committed use count.
+    private static int raceForLastUses(int threads, int maxUses) throws InterruptedException {
+        Promotion promo = promotion(maxUses);
+        run(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (promo.tryReserve()) {
+                if (random.nextInt(4) == 0) {
+                    promo.releaseReservation();
+                } else {
+                    promo.commitReservation();
+                    return;
+                }
+            }
+        });
+        if (promo.getReservedUses() != 0) {
+            throw new IllegalStateException("reservations leaked: " + promo.getReservedUses());
+        }
+        return promo.getCurrentUses();
+    }
+
+    // The old applyPromo: isValid() then currentUses++ with no synchronization
+    private static int legacyRace(int threads, int maxUses) throws InterruptedException {
+        int[] currentUses = new int[1];
+        AtomicInteger granted = new AtomicInteger();
+        run(threads, () -> {
+            if (currentUses[0] < maxUses) {
+                Thread.yield();
+                currentUses[0]++;
+                granted.incrementAndGet();
+            }
+        });
+        return granted.get();
+    }
+
+    private static Promotion promotion(int maxUses) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Promotion(1, "Flash Sale", "Flash sale", "FLASH", 5000, 0, 0,
+                             now.minusDays(1), now.plusDays(1), maxUses);
+    }
+
+    // Starts all threads together and returns the wall time until the last one finishes
+    private static long run(int threads, Runnable task) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                task.run();
+            });
+            workers[i].start();
+        }
+        ready.await();
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        return System.nanoTime() - t0;
+    }
+}
@@ -0,0 +1,79 @@
+package bench;
+
+import model.Promotion;
+import service.PromotionRegistry;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+// Best-discount lookup over many loaded promotions: a loop over the Promotion objects using
+// isApplicable/calculateDiscount versus PromotionEngine's pass over its primitive arrays.
+// Usage: java -cp jmh/target/benchmarks.jar bench.PromotionEngineBenchmark [promotions] [restaurants]
+public class PromotionEngineBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int restaurants = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        Random random = new Random(42);
+        PromotionRegistry registry = new PromotionRegistry();
+        LocalDateTime now = LocalDateTime.now();
+        for (int id = 1; id <= count; id++) {
+            boolean percent = random.nextBoolean();
+            // A quarter expired, the rest valid for a while
+            LocalDateTime end = random.nextInt(4) == 0 ? now.minusDays(1) : now.plusDays(1 + random.nextInt(30));
+            // Most promotions are restaurant-specific
+            int[] restaurantIds = random.nextInt(10) == 0 ? null
+                    : new int[] { 1 + random.nextInt(restaurants), 1 + random.nextInt(restaurants) };
+            Promotion p = new Promotion(id, "Promo " + id, "", "CODE" + id,
+                                        percent ? (5 + random.nextInt(30)) * 100 : 0,
+                                        percent ? 0 : (10 + random.nextInt(150)) * 100L,
+                                        random.nextInt(600) * 100L, now.minusDays(2), end, 1_000_000, restaurantIds);
+            registry.add(p);
+        }
+
+        long[] amounts = new long[1024];
+        int[] restaurantIds = new int[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = (100 + random.nextInt(900)) * 100L;
+            restaurantIds[i] = 1 + random.nextInt(restaurants);
+        }
+
+        for (int i = 0; i < amounts.length; i++) {
+            Promotion a = scan(registry, amounts[i], restaurantIds[i]);
+            Promotion b = registry.findBest(amounts[i], restaurantIds[i]);
+            long da = a == null ? 0 : a.calculateDiscount(amounts[i]);
+            long db = b == null ? 0 : b.calculateDiscount(amounts[i]);
+            if (da != db) throw new IllegalStateException("mismatch at " + i + ": " + da + " vs " + db);
+        }
+
+        int scanRounds = 1_000;
+        int engineRounds = 50_000;
+        for (int warm = 0; warm < 2; warm++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < scanRounds; i++) scan(registry, amounts[i & 1023], restaurantIds[i & 1023]);
+            long t1 = System.nanoTime();
+            for (int i = 0; i < engineRounds; i++) registry.findBest(amounts[i & 1023], restaurantIds[i & 1023]);
+            long t2 = System.nanoTime();
+            if (warm == 1) {
+                System.out.printf("%,d promotions: object scan %,d ns/op, engine %,d ns/op%n",
+                        count, (t1 - t0) / scanRounds, (t2 - t1) / engineRounds);
+            }
+        }
+    }
+
+    private static Promotion scan(PromotionRegistry registry, long amount, int restaurantId) {
+        Promotion best = null;
+        long bestDiscount = 0;
+        for (Promotion p : registry) {
+            if (p.isApplicable(amount, restaurantId)) {
+                long discount = p.calculateDiscount(amount);
+                if (discount > bestDiscount) {
+                    best = p;
+                    bestDiscount = discount;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,100 @@
+package bench;
+
+import model.Customer;
+import model.FoodItem;
+import model.Order;
+import model.OrderLines;
+import model.Restaurant;
+import model.TextRenderer;
+import util.Money;
+
+import java.lang.management.ManagementFactory;
+import java.time.format.DateTimeFormatter;
+
+// Time and heap allocation per rendered receipt: the old style (DateTimeFormatter.ofPattern and
+// String.format per call, one String per receipt) versus TextRenderer writing into one reused
+// StringBuilder. Allocation is read from the JVM's per-thread allocation counter.
+// Usage: java -cp jmh/target/benchmarks.jar bench.RenderBenchmark [orders] [rounds]
+public class RenderBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Restaurant restaurant = new Restaurant(1, "Pizza Palace");
+        FoodItem[] menu = new FoodItem[8];
+        for (int i = 0; i < menu.length; i++) {
+            menu[i] = new FoodItem(i + 1, "Dish " + (i + 1), (150 + 25 * i) * 100L);
+            restaurant.addFoodItem(menu[i]);
+        }
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            Customer customer = new Customer(i + 1, "customer" + (i + 1), 9_000_000_000L + i);
+            for (int l = 0; l <= i % 3; l++) {
+                customer.getCart().addItem(menu[(i + l) % menu.length], 1 + l);
+            }
+            orders[i] = new Order(i + 1, customer, "221B Baker Street", "UPI", "");
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        StringBuilder reused = new StringBuilder(1024);
+        long sink = 0;
+        for (int warm = 0; warm < 2; warm++) {
+            long a0 = threads.getThreadAllocatedBytes(threadId);
+            long t0 = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (Order order : orders) sink += legacyDetailedString(order).length();
+            }
+            long t1 = System.nanoTime();
+            long a1 = threads.getThreadAllocatedBytes(threadId);
+            for (int r = 0; r < rounds; r++) {
+                for (Order order : orders) {
+                    reused.setLength(0);
+                    sink += TextRenderer.appendOrder(reused, order).length();
+                }
+            }
+            long t2 = System.nanoTime();
+            long a2 = threads.getThreadAllocatedBytes(threadId);
+            if (warm == 1) {
+                long rendered = (long) count * rounds;
+                System.out.printf("String.format/ofPattern: %,6d ns, %,6d bytes per receipt%n",
+                        (t1 - t0) / rendered, (a1 - a0) / rendered);
+                System.out.printf("TextRenderer, reused:    %,6d ns, %,6d bytes per receipt%n",
+                        (t2 - t1) / rendered, (a2 - a1) / rendered);
+            }
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    // Order.getDetailedString as it was written before TextRenderer
+    private static String legacyDetailedString(Order order) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("==========================================\n");
+        sb.append("Order ID: ").append(order.getOrderId()).append("\n");
+        sb.append("Tracking Number: ").append("ORD" + String.format("%06d", order.getOrderId())
+                + order.getOrderTime().format(DateTimeFormatter.ofPattern("MMdd"))).append("\n");
+        sb.append("Customer: ").append(order.getCustomer().getUsername()).append("\n");
+        sb.append("Contact: ").append(order.getCustomer().getContactNo()).append("\n");
+        sb.append("Delivery Address: ").append(order.getDeliveryAddress()).append("\n");
+        sb.append("Payment Method: ").append(order.getPaymentMethod()).append("\n");
+        sb.append("Special Instructions: ").append("None").append("\n");
+        sb.append("Items:\n");
+        OrderLines lines = order.getLines();
+        for (int i = 0; i < lines.size(); i++) {
+            sb.append("   - ").append(lines.getName(i)).append(" x ").append(lines.getQuantity(i))
+              .append(" = Rs. ").append(String.format("%.2f", Money.toRupees(lines.getLineTotalPaise(i)))).append("\n");
+        }
+        sb.append("Subtotal: Rs. ").append(String.format("%.2f", Money.toRupees(order.getSubtotalPaise()))).append("\n");
+        sb.append("Delivery Fee: Rs. ").append(String.format("%.2f", Money.toRupees(order.getDeliveryFeePaise()))).append("\n");
+        sb.append("Tax (10%): Rs. ").append(String.format("%.2f", Money.toRupees(order.getTaxPaise()))).append("\n");
+        sb.append("Total Amount: Rs. ").append(String.format("%.2f", Money.toRupees(order.getTotalPaise()))).append("\n");
+        sb.append("Status: ").append(order.getStatusWithEmoji()).append("\n");
+        sb.append("Order Time: ").append(order.getOrderTime().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"))).append("\n");
+        sb.append("Estimated Delivery: ")
+          .append(order.getEstimatedDeliveryTime().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"))).append("\n");
+        sb.append("==========================================");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package bench;
+
+import model.Customer;
+import model.Order;
+import model.OrderStatus;
+import model.Restaurant;
+import service.AdminService;
+import service.CustomerService;
+import service.OrderIdGenerator;
+import service.OrderJournal;
+import service.OrderStore;
+import util.OutputSink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Cold start with a large catalog and order history: rebuilding the catalog call by call and
+// replaying the whole order log, versus loading a StateSnapshot and replaying only the log
+// written after it. Orders are placed from several threads so group commit keeps setup short.
+// Usage: java -cp jmh/target/benchmarks.jar bench.SnapshotBenchmark [dir] [restaurants] [itemsPerRestaurant] [orders] [tailOrders]
+public class SnapshotBenchmark {
+    private static final int THREADS = 32;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = (args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("snapshot-bench")).resolve("orders");
+        int restaurantCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int itemsPerRestaurant = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        int orderCount = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+        int tailOrders = args.length > 4 ? Integer.parseInt(args[4]) : 1_000;
+        delete(dir);
+
+        Services live = new Services(false);
+        long catalogNanos = buildCatalog(live.admin, restaurantCount, itemsPerRestaurant);
+        System.out.printf("catalog: %,d restaurants, %,d items, built call by call in %,d ms%n",
+                restaurantCount, (long) restaurantCount * itemsPerRestaurant, catalogNanos / 1_000_000);
+        OrderJournal liveJournal = live.open(dir);
+        try {
+            placeOrders(live, orderCount);
+        } finally {
+            liveJournal.close();
+        }
+
+        // Without a snapshot: the catalog is rebuilt and every event is replayed
+        Services logOnly = new Services(false);
+        long start = System.nanoTime();
+        buildCatalog(logOnly.admin, restaurantCount, itemsPerRestaurant);
+        try (OrderJournal journal = logOnly.open(dir)) {
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("start from log only:  %,6d ms (%,d orders, %,d events replayed)%n",
+                    elapsed / 1_000_000, journal.getRestoredOrders(), journal.getReplayedEvents());
+            start = System.nanoTime();
+            journal.snapshot();
+            System.out.printf("snapshot written in   %,6d ms, %,d bytes%n",
+                    (System.nanoTime() - start) / 1_000_000, Files.size(dir.resolve("state.snapshot")));
+            placeOrders(logOnly, tailOrders);
+        }
+
+        Services fromSnapshot = new Services(false);
+        start = System.nanoTime();
+        try (OrderJournal journal = fromSnapshot.open(dir)) {
+            long elapsed = System.nanoTime() - start;
+            int expected = orderCount + tailOrders;
+            if (journal.getRestoredOrders() != expected || fromSnapshot.admin.getRestaurants().size() != restaurantCount) {
+                throw new IllegalStateException("restored " + journal.getRestoredOrders() + " of " + expected + " orders");
+            }
+            System.out.printf("start from snapshot:  %,6d ms (%,d orders, %,d events replayed)%n",
+                    elapsed / 1_000_000, journal.getRestoredOrders(), journal.getReplayedEvents());
+        }
+    }
+
+    private static long buildCatalog(AdminService admin, int restaurants, int items) {
+        long start = System.nanoTime();
+        int foodId = 1;
+        for (int r = 1; r <= restaurants; r++) {
+            admin.addRestaurant(r, "Restaurant " + r, r + " Market Road", "98765" + r, CUISINES[r % CUISINES.length],
+                                20 + r % 30, 25.0, 100.0);
+            for (int i = 0; i < items; i++, foodId++) {
+                admin.addFoodItemToRestaurant(r, foodId, DISHES[foodId % DISHES.length] + " " + foodId,
+                                              99.0 + foodId % 400, CUISINES[r % CUISINES.length],
+                                              "House special number " + i, 10 + i % 20);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Each thread orders from its own restaurant; every other order is then confirmed
+    private static void placeOrders(Services services, int count) throws InterruptedException {
+        Thread[] workers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            Restaurant restaurant = services.admin.getRestaurants().get(t % services.admin.getRestaurants().size());
+            Customer customer = new Customer(t + 1, "customer" + (t + 1), 9_000_000_000L + t);
+            customer.getCart().addItem(restaurant.getMenu().get(0), 2);
+            int share = count / THREADS + (t < count % THREADS ? 1 : 0);
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < share; i++) {
+                    Order order = new Order(services.orderIds.nextOrderId(), customer, "Home", "UPI", "");
+                    services.store.add(order);
+                    if (i % 2 == 0) services.store.updateStatus(order, OrderStatus.CONFIRMED);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+    }
+
+    private static final String[] CUISINES = {"Italian", "American", "Japanese", "Indian", "Chinese", "Mexican"};
+    private static final String[] DISHES = {"Pizza", "Burger", "Roll", "Curry", "Noodles", "Taco", "Salad"};
+
+    private static final class Services {
+        final OrderStore store = new OrderStore();
+        final OrderIdGenerator orderIds = new OrderIdGenerator();
+        final AdminService admin;
+        final CustomerService customers;
+
+        Services(boolean sampleData) {
+            admin = new AdminService(store, OutputSink.NULL, sampleData);
+            customers = new CustomerService(store, admin.getRestaurantRegistry(), orderIds, OutputSink.NULL);
+            customers.setPromotions(admin.getPromotionRegistry());
+        }
+
+        OrderJournal open(Path dir) throws IOException {
+            return OrderJournal.open(dir, store, customers, admin, orderIds);
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package bench;
+
+import model.Cart;
+import model.Customer;
+import model.FoodItem;
+import model.Order;
+import model.OrderStatus;
+import model.Restaurant;
+import service.AdminService;
+import service.CustomerService;
+import service.OrderIdGenerator;
+import service.OrderJournal;
+import service.OrderService;
+import service.OrderStore;
+import util.OutputSink;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Scripted load on the services in place of the interactive menu: each worker is a customer
+// picking operations from a weighted mix, back to back, for a fixed time. Checkouts feed a queue
+// of active orders that status updates walk through to Delivered. After the warmup, every
+// operation's latency goes into a per-worker histogram; they are merged at the end into
+// throughput and percentiles per operation. Workers are closed-loop, so a stall delays the
+// operations behind it instead of showing up in their latency.
+//
+// mix is a comma-separated list of operation=weight, e.g. browse=30,search=25,cart=25,checkout=8,status=10,analytics=2.
+// virtual runs one virtual thread per worker when the JVM has them (Java 21+), platform one pooled thread each.
+// With a journal directory, orders are logged there (it is emptied first) as in the application.
+// Usage: java -cp jmh/target/benchmarks.jar bench.WorkloadDriver [workers] [seconds] [warmupSeconds] [mix] [platform|virtual]
+//                                                [restaurants] [itemsPerRestaurant] [journalDir]
+public class WorkloadDriver {
+    private static final String DEFAULT_MIX = "browse=30,search=25,cart=25,checkout=8,status=10,analytics=2";
+    private static final int PRELOADED_ORDERS = 10_000;
+    private static final int MAX_CART_LINES = 16;
+
+    private enum Operation { BROWSE, SEARCH, CART, CHECKOUT, STATUS, ANALYTICS }
+
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int warmupSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int[] weights = parseMix(args.length > 3 ? args[3] : DEFAULT_MIX);
+        boolean virtual = args.length > 4 && args[4].equalsIgnoreCase("virtual");
+        int restaurantCount = args.length > 5 ? Integer.parseInt(args[5]) : 200;
+        int itemsPerRestaurant = args.length > 6 ? Integer.parseInt(args[6]) : 50;
+        Path journalDir = args.length > 7 ? Path.of(args[7]).resolve("orders") : null;
+
+        Services services = new Services();
+        buildCatalog(services.admin, restaurantCount, itemsPerRestaurant);
+        for (int c = 1; c <= workers; c++) {
+            services.customers.addCustomer(c, "customer" + c, 9_000_000_000L + c);
+        }
+        OrderJournal journal = null;
+        if (journalDir != null) {
+            delete(journalDir);
+            journal = OrderJournal.open(journalDir, services.store, services.customers, services.admin,
+                                        services.orderIds);
+        }
+        preloadOrders(services, workers + 1);
+
+        ExecutorService executor = virtual ? newVirtualThreadExecutor() : null;
+        if (executor == null) {
+            virtual = false;
+            executor = Executors.newFixedThreadPool(workers);
+        }
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        Worker[] all = new Worker[workers];
+        for (int w = 0; w < workers; w++) {
+            all[w] = new Worker(services, w + 1, weights, measureFrom, end);
+            executor.execute(all[w]);
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmupSeconds + seconds + 60L, TimeUnit.SECONDS);
+        if (journal != null) journal.close();
+
+        System.out.printf("%d %s workers, %d s after %d s warmup, %,d restaurants x %,d items, %s%n",
+                workers, virtual ? "virtual" : "platform",
+                seconds, warmupSeconds, restaurantCount, itemsPerRestaurant,
+                journal != null ? "journal in " + journalDir : "no journal");
+        System.out.printf("%-10s %12s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us");
+        long total = 0;
+        for (Operation op : Operation.values()) {
+            Histogram merged = new Histogram();
+            for (Worker worker : all) merged.add(worker.latencies[op.ordinal()]);
+            if (merged.count == 0) continue;
+            total += merged.count;
+            System.out.printf("%-10s %,12d %,10.0f %10.1f %10.1f %10.1f %10.1f%n",
+                    op.name().toLowerCase(), merged.count, merged.count / (double) seconds,
+                    merged.percentile(0.50) / 1e3, merged.percentile(0.99) / 1e3,
+                    merged.percentile(0.999) / 1e3, merged.max / 1e3);
+        }
+        System.out.printf("%-10s %,12d %,10.0f%n", "total", total, total / (double) seconds);
+    }
+
+    private static final class Worker implements Runnable {
+        final Histogram[] latencies = new Histogram[Operation.values().length];
+        private final Services services;
+        private final int customerId;
+        private final Customer customer;
+        private final int[] weights;
+        private final long measureFrom;
+        private final long end;
+        private final Random random;
+        private Restaurant restaurant; // the one the cart is filled from
+
+        Worker(Services services, int customerId, int[] weights, long measureFrom, long end) {
+            this.services = services;
+            this.customerId = customerId;
+            this.customer = services.customers.findCustomerById(customerId);
+            this.weights = weights;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.random = new Random(customerId);
+            for (int i = 0; i < latencies.length; i++) latencies[i] = new Histogram();
+        }
+
+        @Override
+        public void run() {
+            List<Restaurant> restaurants = services.admin.getRestaurants();
+            Cart cart = customer.getCart();
+            while (System.nanoTime() < end) {
+                Operation op = pick();
+                Order order = null;
+                // Preparation that isn't part of the operation
+                if (cart.isEmpty() || cart.size() >= MAX_CART_LINES) {
+                    cart.clear();
+                    restaurant = restaurants.get(random.nextInt(restaurants.size()));
+                }
+                if (op == Operation.CHECKOUT && cart.isEmpty()) {
+                    cart.addItem(randomItem(), 1);
+                } else if (op == Operation.STATUS) {
+                    order = services.active.poll();
+                    if (order == null) continue;
+                }
+
+                long start = System.nanoTime();
+                switch (op) {
+                    case BROWSE:
+                        String cuisine = CUISINES[random.nextInt(CUISINES.length)];
+                        switch (random.nextInt(3)) {
+                            case 0: services.customers.getTopRestaurants(cuisine); break;
+                            case 1: services.customers.getTopDishes(cuisine); break;
+                            default: services.customers.getFoodItemsByCategory(cuisine); break;
+                        }
+                        break;
+                    case SEARCH:
+                        services.customers.searchFoodItems(QUERIES[random.nextInt(QUERIES.length)]);
+                        break;
+                    case CART:
+                        services.customers.addFoodToCart(customerId, restaurant.getId(), randomItem().getId(),
+                                                         1 + random.nextInt(3));
+                        break;
+                    case CHECKOUT:
+                        Order placed = services.customers.placeOrder(customerId, customerId + " Park Street", "UPI", "");
+                        if (placed != null) services.active.add(placed);
+                        break;
+                    case STATUS:
+                        OrderStatus next = OrderStatus.values()[order.getStatus().ordinal() + 1];
+                        services.orders.updateOrderStatus(order.getOrderId(), next);
+                        if (next != OrderStatus.DELIVERED) services.active.add(order);
+                        break;
+                    case ANALYTICS:
+                        switch (random.nextInt(3)) {
+                            case 0: services.admin.getSystemReport(); break;
+                            case 1: services.orders.getOrderReport(); break;
+                            default:
+                                LocalDateTime now = LocalDateTime.now();
+                                services.orders.getOrdersByDateRange(now.minusHours(1), now);
+                                break;
+                        }
+                        break;
+                }
+                long finished = System.nanoTime();
+                if (start >= measureFrom && start < end) latencies[op.ordinal()].record(finished - start);
+            }
+        }
+
+        private Operation pick() {
+            int r = random.nextInt(weights[weights.length - 1]);
+            int i = 0;
+            while (r >= weights[i]) i++;
+            return Operation.values()[i];
+        }
+
+        private FoodItem randomItem() {
+            List<FoodItem> menu = restaurant.getMenu();
+            return menu.get(random.nextInt(menu.size()));
+        }
+    }
+
+    // Log-linear latency histogram in nanoseconds: exact below 128, then 64 buckets per power of
+    // two, so a percentile is at most 1/64 above the true value. Not thread-safe; one per worker.
+    static final class Histogram {
+        private static final int SUB_BITS = 7;
+        private static final int HALF = 1 << (SUB_BITS - 1);
+
+        private final long[] counts = new long[(64 - SUB_BITS + 2) * HALF];
+        long count;
+        long max;
+
+        void record(long nanos) {
+            counts[index(Math.max(nanos, 0))]++;
+            count++;
+            if (nanos > max) max = nanos;
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        // Highest value of the bucket holding the given fraction of recorded values
+        long percentile(double fraction) {
+            long target = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) return Math.min(highestInBucket(i), max);
+            }
+            return max;
+        }
+
+        private static int index(long value) {
+            int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BITS);
+            return shift * HALF + (int) (value >>> shift);
+        }
+
+        private static long highestInBucket(int index) {
+            if (index < 2 * HALF) return index;
+            int shift = index / HALF - 1;
+            long sub = index - (long) shift * HALF;
+            return ((sub + 1) << shift) - 1;
+        }
+    }
+
+    // Cumulative weights in Operation order from "name=weight,..."; operations not named get 0
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("expected operation=weight: " + part);
+            weights[Operation.valueOf(kv[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(kv[1].trim());
+        }
+        for (int i = 1; i < weights.length; i++) weights[i] += weights[i - 1];
+        if (weights[weights.length - 1] <= 0) throw new IllegalArgumentException("empty mix: " + mix);
+        return weights;
+    }
+
+    // Looked up reflectively so the driver still builds for Java 17; null without virtual threads
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads need Java 21 or later, using platform threads");
+            return null;
+        }
+    }
+
+    private static void buildCatalog(AdminService admin, int restaurants, int items) {
+        int foodId = 1;
+        for (int r = 1; r <= restaurants; r++) {
+            admin.addRestaurant(r, "Restaurant " + r, r + " Market Road", "98765" + r, CUISINES[r % CUISINES.length],
+                                20 + r % 30, 25.0, 100.0);
+            for (int i = 0; i < items; i++, foodId++) {
+                admin.addFoodItemToRestaurant(r, foodId, DISHES[foodId % DISHES.length] + " " + foodId,
+                                              99.0 + foodId % 400, CUISINES[r % CUISINES.length],
+                                              "House special number " + i, 10 + i % 20);
+            }
+        }
+    }
+
+    // Pending orders for status updates to start on, from a customer of their own
+    private static void preloadOrders(Services services, int customerId) {
+        services.customers.addCustomer(customerId, "customer" + customerId, 9_000_000_000L + customerId);
+        Customer customer = services.customers.findCustomerById(customerId);
+        Restaurant restaurant = services.admin.getRestaurants().get(0);
+        customer.getCart().addItem(restaurant.getMenu().get(0), 2);
+        for (int i = 0; i < PRELOADED_ORDERS; i++) {
+            Order order = new Order(services.orderIds.nextOrderId(), customer, "Home", "UPI", "");
+            services.store.add(order);
+            services.active.add(order);
+        }
+    }
+
+    private static final String[] CUISINES = {"Italian", "American", "Japanese", "Indian", "Chinese", "Mexican"};
+    private static final String[] DISHES = {"Pizza", "Burger", "Roll", "Curry", "Noodles", "Taco", "Salad"};
+    private static final String[] QUERIES = {"pizza", "Curry", "nood", "burger house", "taco", "sushi"};
+
+    private static final class Services {
+        final OrderStore store = new OrderStore();
+        final OrderIdGenerator orderIds = new OrderIdGenerator();
+        final AdminService admin = new AdminService(store, OutputSink.NULL, false);
+        final CustomerService customers = new CustomerService(store, admin.getRestaurantRegistry(), orderIds,
+                                                              OutputSink.NULL);
+        final OrderService orders = new OrderService(store, orderIds, OutputSink.NULL);
+        final Queue<Order> active = new ConcurrentLinkedQueue<>();
+
+        Services() {
+            customers.setPromotions(admin.getPromotionRegistry());
+            customers.setSearchIndex(admin.getSearchIndex());
+            customers.setLeaderboards(admin.getLeaderboards());
+            customers.setReviewIndex(admin.getReviewIndex());
+        }
+    }
+
+    private static void delete(Path dir) throws Exception {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
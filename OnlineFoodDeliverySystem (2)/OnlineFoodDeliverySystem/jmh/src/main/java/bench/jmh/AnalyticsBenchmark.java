@@ -0,0 +1,48 @@
+package bench.jmh;
+
+import model.Order;
+import service.OrderReport;
+import service.SystemReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Reports over an order history of each size. The date range is the last day, about 1/90 of
+// the history; orders by customer is a scan of the whole history.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    @Benchmark
+    public SystemReport getSystemReport(OrderHistoryState state) {
+        return state.admin.getSystemReport();
+    }
+
+    @Benchmark
+    public OrderReport getOrderReport(OrderHistoryState state) {
+        return state.orderService.getOrderReport();
+    }
+
+    @Benchmark
+    public List<Order> getOrdersByDateRange(OrderHistoryState state) {
+        LocalDateTime now = LocalDateTime.now();
+        return state.orderService.getOrdersByDateRange(now.minusDays(1), now);
+    }
+
+    @Benchmark
+    public List<Order> getOrdersByCustomer(OrderHistoryState state) {
+        return state.orderService.getOrdersByCustomer(1 + ThreadLocalRandom.current().nextInt(OrderHistoryState.CUSTOMERS));
+    }
+}
@@ -0,0 +1,61 @@
+package bench.jmh;
+
+import model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.FoodSearchIndex;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Browsing a catalog of each size: full-text search and adding items to a cart
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+    private static final int MAX_CART_LINES = 16;
+    // Dish names, a cuisine (matching every item of some restaurants), a two-term query and a miss
+    private static final String[] QUERIES = {"pizza", "Curry", "nood", "Italian", "taco house", "sushi"};
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        private static final AtomicInteger IDS = new AtomicInteger();
+
+        int customerId;
+        Customer customer;
+        int query;
+
+        @Setup(Level.Trial)
+        public void setUp(CatalogState state) {
+            customerId = IDS.incrementAndGet();
+            state.customers.addCustomer(customerId, "customer" + customerId, 9_000_000_000L + customerId);
+            customer = state.customers.findCustomerById(customerId);
+        }
+    }
+
+    @Benchmark
+    public List<FoodSearchIndex.Hit> searchFoodItems(CatalogState state, Shopper shopper) {
+        return state.customers.searchFoodItems(QUERIES[shopper.query++ % QUERIES.length]);
+    }
+
+    // A random item of the whole catalog; the cart is emptied now and then so it stays small
+    @Benchmark
+    public boolean addFoodToCart(CatalogState state, Shopper shopper) {
+        if (shopper.customer.getCart().size() >= MAX_CART_LINES) shopper.customer.getCart().clear();
+        int foodId = 1 + ThreadLocalRandom.current().nextInt(state.catalogSize);
+        return state.customers.addFoodToCart(shopper.customerId, CatalogState.restaurantOf(foodId), foodId, 1);
+    }
+}
@@ -0,0 +1,62 @@
+package bench.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.AdminService;
+import service.CustomerService;
+import service.OrderIdGenerator;
+import service.OrderStore;
+import util.OutputSink;
+
+// Services over a catalog of catalogSize food items, ITEMS_PER_RESTAURANT to a restaurant, added
+// through AdminService so the search index and registries are built as in the application.
+// Food IDs run from 1 across the whole catalog. Output goes nowhere.
+@State(Scope.Benchmark)
+public class CatalogState {
+    static final int ITEMS_PER_RESTAURANT = 50;
+    static final String[] CUISINES = {"Italian", "American", "Japanese", "Indian", "Chinese", "Mexican"};
+    static final String[] DISHES = {"Pizza", "Burger", "Roll", "Curry", "Noodles", "Taco", "Salad"};
+
+    @Param({"1000", "100000", "10000000"})
+    public int catalogSize;
+
+    OrderStore store;
+    OrderIdGenerator orderIds;
+    AdminService admin;
+    CustomerService customers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new OrderStore();
+        orderIds = new OrderIdGenerator();
+        admin = new AdminService(store, OutputSink.NULL, false);
+        customers = new CustomerService(store, admin.getRestaurantRegistry(), orderIds, OutputSink.NULL);
+        customers.setPromotions(admin.getPromotionRegistry());
+        customers.setSearchIndex(admin.getSearchIndex());
+        customers.setLeaderboards(admin.getLeaderboards());
+        customers.setReviewIndex(admin.getReviewIndex());
+        addCatalog(admin, catalogSize);
+    }
+
+    static void addCatalog(AdminService admin, int items) {
+        int restaurants = (items + ITEMS_PER_RESTAURANT - 1) / ITEMS_PER_RESTAURANT;
+        for (int r = 1; r <= restaurants; r++) {
+            String cuisine = CUISINES[r % CUISINES.length];
+            admin.addRestaurant(r, "Restaurant " + r, r + " Market Road", "98765" + r, cuisine,
+                                20 + r % 30, 25.0, 100.0);
+            for (int i = 0; i < ITEMS_PER_RESTAURANT; i++) {
+                int foodId = (r - 1) * ITEMS_PER_RESTAURANT + i + 1;
+                if (foodId > items) break;
+                admin.addFoodItemToRestaurant(r, foodId, DISHES[foodId % DISHES.length] + " " + foodId,
+                                              99.0 + foodId % 400, cuisine, "House special number " + i, 10 + i % 20);
+            }
+        }
+    }
+
+    static int restaurantOf(int foodId) {
+        return (foodId - 1) / ITEMS_PER_RESTAURANT + 1;
+    }
+}
@@ -0,0 +1,74 @@
+package bench.jmh;
+
+import model.Customer;
+import model.FoodItem;
+import model.Order;
+import model.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Order placement, lookup and lifecycle against an order history of each size. Placed orders
+// add to the history, and updateOrderStatus places new orders once the history's pending ones
+// are used up, so long runs on the smallest history measure a somewhat larger one.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBenchmark {
+    private static final OrderStatus[] NEXT = {OrderStatus.CONFIRMED, OrderStatus.PREPARING,
+                                               OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED};
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        Customer customer;
+        FoodItem[] items;
+        Random random = new Random();
+        Order current; // order being walked through its lifecycle
+        int step;
+
+        @Setup(Level.Trial)
+        public void setUp(OrderHistoryState state) {
+            customer = state.newCustomer();
+            items = state.restaurants[random.nextInt(state.restaurants.length)].getMenu().toArray(new FoodItem[0]);
+        }
+    }
+
+    // A one or two line cart checked out with the best promotion, if any applies
+    @Benchmark
+    public Order placeOrder(OrderHistoryState state, Shopper shopper) {
+        shopper.customer.getCart().addItem(shopper.items[shopper.random.nextInt(shopper.items.length)], 2);
+        if (shopper.random.nextBoolean()) {
+            shopper.customer.getCart().addItem(shopper.items[shopper.random.nextInt(shopper.items.length)], 1);
+        }
+        return state.customers.placeOrder(shopper.customer.getUserId(), "42 Park Street", "UPI", "");
+    }
+
+    @Benchmark
+    public Order findOrderById(OrderHistoryState state) {
+        return state.orderService.findOrderById(1 + ThreadLocalRandom.current().nextInt(state.orderHistory));
+    }
+
+    // One step of an order's lifecycle: Confirmed, Preparing, Out for Delivery, Delivered
+    @Benchmark
+    public boolean updateOrderStatus(OrderHistoryState state, Shopper shopper) {
+        if (shopper.current == null || shopper.step == NEXT.length) {
+            shopper.current = state.nextPendingOrder(shopper.customer, shopper.random);
+            shopper.step = 0;
+        }
+        return state.orderService.updateOrderStatus(shopper.current.getOrderId(), NEXT[shopper.step++]);
+    }
+}
@@ -0,0 +1,113 @@
+package bench.jmh;
+
+import model.Cart;
+import model.Customer;
+import model.Order;
+import model.OrderLines;
+import model.OrderStatus;
+import model.Restaurant;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.AdminService;
+import service.CustomerService;
+import service.OrderIdGenerator;
+import service.OrderService;
+import service.OrderStore;
+import util.OutputSink;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Services holding orderHistory orders, spread evenly over the last HISTORY_DAYS days, from
+// CUSTOMERS customers ordering off a CATALOG_SIZE item catalog. Orders older than a day are
+// delivered, the rest still pending. Customers placing orders during a benchmark get IDs after
+// the history's customers, so their carts are their own.
+@State(Scope.Benchmark)
+public class OrderHistoryState {
+    static final int CATALOG_SIZE = 1_000;
+    static final int CUSTOMERS = 1_000;
+    static final int HISTORY_DAYS = 90;
+
+    @Param({"1000", "100000", "10000000"})
+    public int orderHistory;
+
+    OrderStore store;
+    OrderIdGenerator orderIds;
+    AdminService admin;
+    CustomerService customers;
+    OrderService orderService;
+    Restaurant[] restaurants;
+
+    private final AtomicInteger nextCustomerId = new AtomicInteger(CUSTOMERS);
+    private final AtomicInteger pendingCursor = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new OrderStore();
+        orderIds = new OrderIdGenerator();
+        admin = new AdminService(store, OutputSink.NULL, false);
+        customers = new CustomerService(store, admin.getRestaurantRegistry(), orderIds, OutputSink.NULL);
+        customers.setPromotions(admin.getPromotionRegistry());
+        customers.setSearchIndex(admin.getSearchIndex());
+        customers.setLeaderboards(admin.getLeaderboards());
+        customers.setReviewIndex(admin.getReviewIndex());
+        orderService = new OrderService(store, orderIds, OutputSink.NULL);
+        CatalogState.addCatalog(admin, CATALOG_SIZE);
+        restaurants = admin.getRestaurants().toArray(new Restaurant[0]);
+
+        Random random = new Random(42);
+        Customer[] history = new Customer[CUSTOMERS];
+        for (int c = 0; c < CUSTOMERS; c++) {
+            customers.addCustomer(c + 1, "customer" + (c + 1), 9_000_000_000L + c);
+            history[c] = customers.findCustomerById(c + 1);
+            fillCart(history[c].getCart(), random);
+        }
+
+        long now = System.currentTimeMillis();
+        long span = TimeUnit.DAYS.toMillis(HISTORY_DAYS);
+        long dayAgo = now - TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < orderHistory; i++) {
+            Customer customer = history[random.nextInt(CUSTOMERS)];
+            Cart cart = customer.getCart();
+            long placed = now - span + span * i / orderHistory;
+            long subtotal = cart.getSubtotalPaise();
+            Order order = Order.restore(orderIds.nextOrderId(), customer, OrderLines.of(cart), customer.getUsername() + " Home",
+                                        "UPI", "", placed, subtotal, 2_500, subtotal * 5 / 100);
+            store.add(order);
+            if (placed < dayAgo) store.updateStatus(order, OrderStatus.DELIVERED);
+        }
+    }
+
+    // A customer of its own for a benchmark thread
+    Customer newCustomer() {
+        int id = nextCustomerId.incrementAndGet();
+        customers.addCustomer(id, "customer" + id, 9_000_000_000L + id);
+        return customers.findCustomerById(id);
+    }
+
+    // 1-3 lines from one restaurant
+    void fillCart(Cart cart, Random random) {
+        Restaurant restaurant = restaurants[random.nextInt(restaurants.length)];
+        int lines = 1 + random.nextInt(3);
+        for (int l = 0; l < lines; l++) {
+            cart.addItem(restaurant.getMenu().get(random.nextInt(restaurant.getMenu().size())), 1 + random.nextInt(3));
+        }
+    }
+
+    // The next order still pending, oldest first; once the history has none left a new one is placed
+    Order nextPendingOrder(Customer customer, Random random) {
+        for (int id = pendingCursor.incrementAndGet(); id <= orderHistory; id = pendingCursor.incrementAndGet()) {
+            Order order = store.findById(id);
+            if (order.getStatus() == OrderStatus.PENDING) return order;
+        }
+        fillCart(customer.getCart(), random);
+        Order order = new Order(orderIds.nextOrderId(), customer, customer.getUsername() + " Home", "UPI", "");
+        customer.getCart().clear();
+        store.add(order);
+        return order;
+    }
+}
@@ -0,0 +1,119 @@
+package bench.jmh;
+
+import model.FoodItem;
+import model.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.FoodSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// FoodSearchIndex against a linear scan of every menu with the same matching rules: each query
+// term must occur inside a word of the item's name, category or description. Setup fails if the
+// two disagree on the number of matches for any query.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final int ITEMS_PER_RESTAURANT = 100;
+    private static final int RESULT_LIMIT = 50;
+    private static final String[] ADJECTIVES = {
+        "Spicy", "Classic", "Crispy", "Smoky", "Cheesy", "Grilled", "Tandoori", "Garlic", "Honey", "Masala",
+        "Butter", "Peri", "Loaded", "Stuffed", "Roasted", "Sweet", "Tangy", "Herbed", "Paneer", "Mushroom"
+    };
+    private static final String[] DISHES = {
+        "Pizza", "Burger", "Biryani", "Noodles", "Wrap", "Sandwich", "Dosa", "Curry", "Pasta", "Salad",
+        "Roll", "Sushi", "Tacos", "Momos", "Kebab", "Fries", "Soup", "Rice", "Paratha", "Sundae"
+    };
+    private static final String[] WORDS = {
+        "fresh", "tomato", "mozzarella", "onion", "chicken", "lettuce", "mayo", "cheese", "pepper", "basil",
+        "mint", "chutney", "yogurt", "lemon", "coriander", "cream", "potato", "egg", "corn", "olive"
+    };
+    private static final String[] QUERIES = {"pizza", "spicy chicken", "tandoori", "moz", "butter paneer curry", "xyzzy"};
+
+    @Param({"10000", "1000000"})
+    public int items;
+
+    @Param({"pizza", "spicy chicken", "tandoori", "moz", "butter paneer curry", "xyzzy"})
+    public String query;
+
+    private List<Restaurant> restaurants;
+    private FoodSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        restaurants = new ArrayList<>();
+        index = new FoodSearchIndex();
+        Random random = new Random(42);
+        Restaurant current = null;
+        for (int id = 1; id <= items; id++) {
+            if ((id - 1) % ITEMS_PER_RESTAURANT == 0) {
+                current = new Restaurant(restaurants.size() + 1, "Restaurant " + (restaurants.size() + 1));
+                restaurants.add(current);
+            }
+            String dish = DISHES[random.nextInt(DISHES.length)];
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + dish;
+            String description = WORDS[random.nextInt(WORDS.length)] + ", " + WORDS[random.nextInt(WORDS.length)]
+                    + " and " + WORDS[random.nextInt(WORDS.length)];
+            FoodItem item = new FoodItem(id, name, (100 + random.nextInt(400)) * 100L, dish, description, 15);
+            current.addFoodItem(item);
+            index.index(current, item);
+        }
+        for (String q : QUERIES) {
+            int indexed = index.search(q, items).size();
+            int scanned = scan(restaurants, q);
+            if (indexed != scanned) {
+                throw new IllegalStateException("'" + q + "': index found " + indexed + ", scan found " + scanned);
+            }
+        }
+    }
+
+    @Benchmark
+    public int index() {
+        return index.search(query, RESULT_LIMIT).size();
+    }
+
+    @Benchmark
+    public int scan() {
+        return scan(restaurants, query);
+    }
+
+    private static int scan(List<Restaurant> restaurants, String query) {
+        String[] terms = query.toLowerCase().split("[^\\p{L}\\p{Nd}]+");
+        int found = 0;
+        for (Restaurant r : restaurants) {
+            if (!r.isOpen()) continue;
+            for (FoodItem item : r.getAvailableFoodItems()) {
+                String name = item.getName().toLowerCase();
+                String category = item.getCategory().toLowerCase();
+                String description = item.getDescription().toLowerCase();
+                boolean all = true;
+                for (String term : terms) {
+                    if (term.isEmpty()) continue;
+                    if (!name.contains(term) && !category.contains(term) && !description.contains(term)) {
+                        all = false;
+                        break;
+                    }
+                }
+                if (all) found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,316 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import util.CompactReader;
+import util.CompactWriter;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelCodecTest {
+    private final Catalog catalog = new Catalog();
+
+    @Test
+    void foodItemRoundTrip() {
+        FoodItem item = new FoodItem(7, "Crème brûlée 🍮", 24_950, "Dessert", null, 12);
+        item.setAvailable(false);
+        FoodItem copy = ModelCodec.readFoodItem(reader(w -> ModelCodec.writeFoodItem(w, item)));
+        assertFoodItem(item, copy);
+    }
+
+    @Test
+    void restaurantRoundTripWithMenu() {
+        for (Restaurant expected : catalog.restaurants.values()) {
+            Restaurant actual = ModelCodec.readRestaurant(reader(w -> ModelCodec.writeRestaurant(w, expected)));
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getAddress(), actual.getAddress());
+            assertEquals(expected.getPhoneNumber(), actual.getPhoneNumber());
+            assertEquals(expected.getCuisineType(), actual.getCuisineType());
+            assertEquals(expected.isOpen(), actual.isOpen());
+            assertEquals(expected.getDeliveryTime(), actual.getDeliveryTime());
+            assertEquals(expected.getDeliveryFeePaise(), actual.getDeliveryFeePaise());
+            assertEquals(expected.getMinimumOrderPaise(), actual.getMinimumOrderPaise());
+            assertEquals(expected.getMenu().size(), actual.getMenu().size());
+            assertEquals(expected.getAvailableFoodItems().size(), actual.getAvailableFoodItems().size());
+            for (FoodItem item : expected.getMenu()) {
+                FoodItem copy = actual.findFoodItemById(item.getId());
+                assertFoodItem(item, copy);
+                assertSame(actual, copy.getRestaurant());
+            }
+        }
+    }
+
+    @Test
+    void deliveryPersonRoundTrip() {
+        DeliveryPerson expected = new DeliveryPerson(42, "Rider Ravi", 9_876_543_210L);
+        DeliveryPerson actual = ModelCodec.readDeliveryPerson(reader(w -> ModelCodec.writeDeliveryPerson(w, expected)));
+        assertEquals(expected.getDeliveryPersonId(), actual.getDeliveryPersonId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getContactNo(), actual.getContactNo());
+    }
+
+    @Test
+    void customerIsResolvedThroughReferences() {
+        Customer expected = catalog.customers.get(3);
+        assertSame(expected, ModelCodec.readCustomer(reader(w -> ModelCodec.writeCustomer(w, expected)), catalog));
+    }
+
+    @Test
+    void promotionRoundTrip() {
+        for (Promotion expected : catalog.promotions.values()) {
+            Promotion actual = ModelCodec.readPromotion(reader(w -> ModelCodec.writePromotion(w, expected)));
+            assertEquals(expected.getPromotionId(), actual.getPromotionId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getPromoCode(), actual.getPromoCode());
+            assertEquals(expected.getDiscountBasisPoints(), actual.getDiscountBasisPoints());
+            assertEquals(expected.getDiscountAmountPaise(), actual.getDiscountAmountPaise());
+            assertEquals(expected.getMinimumOrderPaise(), actual.getMinimumOrderPaise());
+            assertEquals(expected.getStartMillis(), actual.getStartMillis());
+            assertEquals(expected.getEndMillis(), actual.getEndMillis());
+            assertEquals(expected.isActive(), actual.isActive());
+            assertEquals(expected.getMaxUses(), actual.getMaxUses());
+            assertArrayEquals(expected.getApplicableRestaurantIds(), actual.getApplicableRestaurantIds());
+            // Uses follow from the orders, they are not part of the promotion's record
+            assertEquals(0, actual.getCurrentUses());
+        }
+    }
+
+    @Test
+    void orderRoundTripInEveryState() {
+        Order[] orders = catalog.orders(200);
+        CompactWriter w = new CompactWriter(256);
+        for (Order order : orders) ModelCodec.writeOrder(w, order);
+        CompactReader r = new CompactReader(w.toByteBuffer());
+        for (Order expected : orders) {
+            Order actual = ModelCodec.readOrder(r, catalog);
+            assertEquals(expected.getOrderId(), actual.getOrderId());
+            assertSame(expected.getCustomer(), actual.getCustomer());
+            assertEquals(expected.getOrderTimeMillis(), actual.getOrderTimeMillis());
+            assertEquals(expected.getTrackingNumber(), actual.getTrackingNumber());
+            assertEquals(expected.getDeliveryAddress(), actual.getDeliveryAddress());
+            assertEquals(expected.getPaymentMethod(), actual.getPaymentMethod());
+            assertEquals(expected.getSpecialInstructions(), actual.getSpecialInstructions());
+            assertEquals(expected.getSubtotalPaise(), actual.getSubtotalPaise());
+            assertEquals(expected.getDeliveryFeePaise(), actual.getDeliveryFeePaise());
+            assertEquals(expected.getTaxPaise(), actual.getTaxPaise());
+            assertEquals(expected.getDiscountPaise(), actual.getDiscountPaise());
+            assertEquals(expected.getTotalPaise(), actual.getTotalPaise());
+            assertSame(expected.getPromotion(), actual.getPromotion());
+            assertEquals(expected.getStatus(), actual.getStatus());
+            assertSame(expected.getDeliveryPerson(), actual.getDeliveryPerson());
+            assertEquals(expected.getFormattedDeliveryTime(), actual.getFormattedDeliveryTime());
+            OrderLines e = expected.getLines(), a = actual.getLines();
+            assertEquals(e.size(), a.size());
+            assertEquals(e.getRestaurantId(), a.getRestaurantId());
+            assertEquals(e.spansRestaurants(), a.spansRestaurants());
+            for (int i = 0; i < e.size(); i++) {
+                assertEquals(e.getRestaurantId(i), a.getRestaurantId(i));
+                assertEquals(e.getFoodId(i), a.getFoodId(i));
+                assertEquals(e.getQuantity(i), a.getQuantity(i));
+                assertEquals(e.getUnitPricePaise(i), a.getUnitPricePaise(i));
+                assertEquals(e.getName(i), a.getName(i));
+            }
+        }
+        assertFalse(r.hasRemaining());
+    }
+
+    @Test
+    void orderKeepsItsDiscountWhenThePromotionIsGone() {
+        Order expected = catalog.orders(1)[0];
+        assertTrue(expected.getPromotion() != null && expected.getDiscountPaise() > 0);
+        ByteBuffer record = bytes(w -> ModelCodec.writeOrder(w, expected));
+        catalog.promotions.clear();
+        Order actual = ModelCodec.readOrder(new CompactReader(record), catalog);
+        assertNull(actual.getPromotion());
+        assertEquals(expected.getDiscountPaise(), actual.getDiscountPaise());
+        assertEquals(expected.getTotalPaise(), actual.getTotalPaise());
+    }
+
+    @Test
+    void reviewRoundTripForRestaurantsAndFoodItems() {
+        for (Review expected : catalog.reviews) {
+            Review actual = ModelCodec.readReview(reader(w -> ModelCodec.writeReview(w, expected)), catalog);
+            assertEquals(expected.getReviewId(), actual.getReviewId());
+            assertSame(expected.getCustomer(), actual.getCustomer());
+            assertSame(expected.getRestaurant(), actual.getRestaurant());
+            assertSame(expected.getFoodItem(), actual.getFoodItem());
+            assertEquals(expected.getRating(), actual.getRating());
+            assertEquals(expected.getComment(), actual.getComment());
+            // Dates are kept to the millisecond
+            LocalDateTime date = expected.getReviewDate();
+            assertEquals(date.withNano(date.getNano() / 1_000_000 * 1_000_000), actual.getReviewDate());
+            assertEquals(expected.isVerified(), actual.isVerified());
+        }
+    }
+
+    @Test
+    void reviewOfARemovedRestaurantHasNoTarget() {
+        Review expected = catalog.reviews[0];
+        ByteBuffer record = bytes(w -> ModelCodec.writeReview(w, expected));
+        catalog.restaurants.clear();
+        Review actual = ModelCodec.readReview(new CompactReader(record), catalog);
+        assertNull(actual.getRestaurant());
+        assertEquals(expected.getComment(), actual.getComment());
+    }
+
+    @Test
+    void truncatedOrderRecordThrows() {
+        Order order = catalog.orders(10)[9];
+        ByteBuffer record = bytes(w -> ModelCodec.writeOrder(w, order));
+        for (int length = 0; length < record.limit(); length++) {
+            ByteBuffer cut = record.slice(0, length);
+            assertThrows(BufferUnderflowException.class, () -> ModelCodec.readOrder(new CompactReader(cut), catalog),
+                         "cut at " + length);
+        }
+    }
+
+    @Test
+    void corruptOrderStatusThrows() {
+        Order order = catalog.orders(1)[0];
+        CompactWriter w = new CompactWriter(256);
+        ModelCodec.writeOrder(w, order);
+        // The status byte follows the promo code; find it by writing the prefix on its own
+        CompactWriter prefix = new CompactWriter(256);
+        prefix.writeVarInt(order.getOrderId());
+        prefix.writeSignedVarLong(order.getOrderTimeMillis());
+        ModelCodec.writeCustomer(prefix, order.getCustomer());
+        prefix.writeString(order.getDeliveryAddress());
+        prefix.writeString(order.getPaymentMethod());
+        prefix.writeString(order.getSpecialInstructions());
+        prefix.writeVarLong(order.getSubtotalPaise());
+        prefix.writeVarLong(order.getDeliveryFeePaise());
+        prefix.writeVarLong(order.getTaxPaise());
+        prefix.writeVarLong(order.getDiscountPaise());
+        prefix.writeString(order.getPromotion().getPromoCode());
+        byte[] bytes = new byte[w.size()];
+        w.toByteBuffer().get(bytes);
+        bytes[prefix.size()] = (byte) OrderStatus.values().length;
+        assertThrows(IllegalStateException.class,
+                () -> ModelCodec.readOrder(new CompactReader(ByteBuffer.wrap(bytes)), catalog));
+    }
+
+    private static void assertFoodItem(FoodItem expected, FoodItem actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getPricePaise(), actual.getPricePaise());
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.isAvailable(), actual.isAvailable());
+        assertEquals(expected.getPreparationTime(), actual.getPreparationTime());
+    }
+
+    private interface Encoder {
+        void write(CompactWriter w);
+    }
+
+    private static ByteBuffer bytes(Encoder encoder) {
+        CompactWriter w = new CompactWriter(64);
+        encoder.write(w);
+        return w.toByteBuffer();
+    }
+
+    // Reads from a direct copy, the way snapshots and log records are read from a mapping
+    private static CompactReader reader(Encoder encoder) {
+        ByteBuffer heap = bytes(encoder);
+        return new CompactReader(ByteBuffer.allocateDirect(heap.remaining()).put(heap).flip());
+    }
+
+    // Sample catalog with a few non-ASCII names; also resolves references while decoding
+    private static final class Catalog implements ModelCodec.References {
+        final Map<Integer, Restaurant> restaurants = new HashMap<>();
+        final Map<String, Promotion> promotions = new HashMap<>();
+        final Map<Integer, Customer> customers = new HashMap<>();
+        final Map<Integer, DeliveryPerson> deliveryPersons = new HashMap<>();
+        final Review[] reviews;
+
+        Catalog() {
+            String[] categories = {"Pizza", "Burger", "Sushi", "Dessert", "Café"};
+            for (int id = 1; id <= 20; id++) {
+                Restaurant r = new Restaurant(id, "Restaurant " + id, id + " MG Road, Bengaluru", "98450" + (10000 + id),
+                                              id % 3 == 0 ? "Japanese" : "Italian", 20 + id, 2_500 + id * 100, 10_000);
+                r.setOpen(id % 7 != 0);
+                for (int f = 1; f <= 15; f++) {
+                    FoodItem item = new FoodItem(f, (f == 3 ? "Crème brûlée 🍮 " : "Dish ") + f, 9_900 + f * 1_000L,
+                                                 categories[f % categories.length], "Freshly made, serves " + (f % 3 + 1), 10 + f);
+                    item.setAvailable(f % 5 != 0);
+                    r.addFoodItem(item);
+                }
+                restaurants.put(id, r);
+            }
+            LocalDateTime start = LocalDateTime.of(2026, 1, 1, 10, 0);
+            Promotion welcome = new Promotion(1, "Welcome Offer", "20% off on first order", "WELCOME20", 2_000, 0,
+                                              10_000, start, start.plusDays(365), 1_000_000);
+            Promotion flat = new Promotion(2, "Flat Discount", "Rs. 50 off", "SAVE50", 0, 5_000, 30_000, start,
+                                           start.minusDays(30), 500, new int[] { 2, 5, 9, 17 });
+            flat.setActive(false);
+            promotions.put(welcome.getPromoCode(), welcome);
+            promotions.put(flat.getPromoCode(), flat);
+            for (int id = 1; id <= 5; id++) deliveryPersons.put(id, new DeliveryPerson(id, "Rider " + id, 9_800_000_000L + id));
+            for (int id = 1; id <= 500; id++) customers.put(id, new Customer(id, "customer" + id, 9_000_000_000L + id));
+            reviews = new Review[40];
+            for (int i = 0; i < reviews.length; i++) {
+                Restaurant r = restaurants.get(i % 20 + 1);
+                Customer c = customers.get(i + 1);
+                reviews[i] = i % 2 == 0
+                        ? new Review(i + 1, c, r, 1 + i % 5, "Great food, order #" + i)
+                        : new Review(i + 1, c, r.findFoodItemById(i % 15 + 1), 2.5 + i % 3, "Tasty ✓ " + i);
+                reviews[i].setVerified(i % 3 == 0);
+            }
+        }
+
+        // Orders in every status, some spanning two restaurants, some with a promotion or delivery person
+        Order[] orders(int count) {
+            Order[] orders = new Order[count];
+            OrderStatus[] statuses = OrderStatus.values();
+            for (int i = 0; i < count; i++) {
+                Customer customer = customers.get(i % customers.size() + 1);
+                customer.getCart().clear();
+                Restaurant r = restaurants.get(i % 20 + 1);
+                for (int l = 0; l <= i % 4; l++) {
+                    customer.getCart().addItem(r.getMenu().get((i + l) % 15), 1 + l % 3);
+                }
+                if (i % 10 == 9) customer.getCart().addItem(restaurants.get((i + 1) % 20 + 1).getMenu().get(0), 1);
+                Order order = new Order(i + 1, customer, "Flat " + (i % 300) + ", Indiranagar", i % 2 == 0 ? "UPI" : "Card",
+                                        i % 5 == 0 ? null : "Ring the bell");
+                if (i % 4 == 0) order.applyPromotion(promotions.get("WELCOME20"), order.getSubtotalPaise() / 5);
+                if (i % 3 == 0) order.setDeliveryPerson(deliveryPersons.get(i % 5 + 1));
+                order.transitionTo(statuses[i % statuses.length]);
+                orders[i] = order;
+            }
+            return orders;
+        }
+
+        @Override
+        public Customer customer(int userId, String username, long contactNo) {
+            return customers.get(userId);
+        }
+
+        @Override
+        public Restaurant restaurant(int id) {
+            return restaurants.get(id);
+        }
+
+        @Override
+        public DeliveryPerson deliveryPerson(int id) {
+            return deliveryPersons.get(id);
+        }
+
+        @Override
+        public Promotion promotion(String promoCode) {
+            return promotions.get(promoCode);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatusTest {
+
+    @Test
+    void terminalStatusesAcceptNoTransition() {
+        for (OrderStatus next : OrderStatus.values()) {
+            assertFalse(OrderStatus.DELIVERED.canTransitionTo(next), "DELIVERED -> " + next);
+            assertFalse(OrderStatus.CANCELLED.canTransitionTo(next), "CANCELLED -> " + next);
+        }
+    }
+
+    @Test
+    void statusNeverMovesBackOrStaysPut() {
+        OrderStatus[] lifecycle = {OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING,
+                                   OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED};
+        for (int from = 0; from < lifecycle.length; from++) {
+            for (int to = 0; to < lifecycle.length; to++) {
+                boolean allowed = lifecycle[from].canTransitionTo(lifecycle[to]);
+                assertEquals(to > from && from < lifecycle.length - 1, allowed, lifecycle[from] + " -> " + lifecycle[to]);
+            }
+        }
+    }
+
+    @Test
+    void onlyPendingAndConfirmedOrdersCanBeCancelled() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CANCELLED));
+        assertTrue(OrderStatus.CONFIRMED.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.PREPARING.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.OUT_FOR_DELIVERY.canTransitionTo(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void rejectedTransitionLeavesTheOrderAlone() {
+        Order order = new Order(1, new Customer(1, "asha", 9_876_543_210L));
+        assertSame(OrderStatus.PENDING, order.transitionTo(OrderStatus.PREPARING));
+        assertNull(order.transitionTo(OrderStatus.CONFIRMED));
+        assertNull(order.transitionTo(OrderStatus.CANCELLED));
+        assertSame(OrderStatus.PREPARING, order.getStatus());
+    }
+
+    // Cancel and deliver racing on the same order: exactly one of them wins, every time
+    @Test
+    void racingCancelAndDeliverHaveOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                Order order = new Order(i + 1, new Customer(1, "asha", 9_876_543_210L));
+                CountDownLatch start = new CountDownLatch(1);
+                Future<OrderStatus> cancel = pool.submit(() -> {
+                    start.await();
+                    return order.transitionTo(OrderStatus.CANCELLED);
+                });
+                Future<OrderStatus> deliver = pool.submit(() -> {
+                    start.await();
+                    return order.transitionTo(OrderStatus.DELIVERED);
+                });
+                start.countDown();
+                boolean cancelled = cancel.get() != null;
+                boolean delivered = deliver.get() != null;
+                assertTrue(cancelled ^ delivered);
+                assertSame(cancelled ? OrderStatus.CANCELLED : OrderStatus.DELIVERED, order.getStatus());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
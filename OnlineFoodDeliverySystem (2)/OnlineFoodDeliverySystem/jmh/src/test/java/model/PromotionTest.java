@@ -0,0 +1,82 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromotionTest {
+
+    private static Promotion promotion(int maxUses) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Promotion(1, "Launch", "Flat off", "LAUNCH", 0, 5_000, 0,
+                             now.minusDays(1), now.plusDays(1), maxUses);
+    }
+
+    @Test
+    void reservationsCountAgainstTheLimitUntilReleased() {
+        Promotion promo = promotion(2);
+        assertTrue(promo.tryReserve());
+        assertTrue(promo.tryReserve());
+        assertFalse(promo.tryReserve());
+        assertFalse(promo.isValid());
+
+        promo.releaseReservation();
+        assertTrue(promo.isValid());
+        promo.commitReservation();
+        assertTrue(promo.tryReserve());
+        promo.commitReservation();
+        assertEquals(2, promo.getCurrentUses());
+        assertFalse(promo.tryReserve());
+    }
+
+    // Many checkouts racing for the last uses: never more reservations than maxUses
+    @Test
+    void concurrentReservationsStopAtTheLimit() throws Exception {
+        int maxUses = 100;
+        int threads = 8;
+        Promotion promo = promotion(maxUses);
+        AtomicInteger won = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (!promo.tryReserve()) continue;
+                        won.incrementAndGet();
+                        // give every other one back, so the limit is fought over repeatedly
+                        if (i % 2 == 0) {
+                            promo.releaseReservation();
+                            won.decrementAndGet();
+                        } else {
+                            promo.commitReservation();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(won.get() <= maxUses);
+        assertEquals(won.get(), promo.getCurrentUses());
+        // nothing is left reserved: the remaining uses can all still be taken, and no more
+        while (promo.tryReserve()) promo.commitReservation();
+        assertEquals(maxUses, promo.getCurrentUses());
+    }
+}
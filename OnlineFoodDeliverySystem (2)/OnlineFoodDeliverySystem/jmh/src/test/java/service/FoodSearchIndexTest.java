@@ -0,0 +1,95 @@
+package service;
+
+import model.FoodItem;
+import model.Restaurant;
+import org.junit.jupiter.api.Test;
+import util.OutputSink;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FoodSearchIndexTest {
+
+    private static int[] ids(List<FoodSearchIndex.Hit> hits) {
+        return hits.stream().mapToInt(h -> h.getItem().getId()).toArray();
+    }
+
+    @Test
+    void termsMatchInsideWords() {
+        Restaurant r = new Restaurant(1, "Diner");
+        FoodSearchIndex index = new FoodSearchIndex();
+        index.index(r, new FoodItem(1, "Cheeseburger", 19_900, "Burgers", "double patty", 10));
+        index.index(r, new FoodItem(2, "Margherita Pizza", 29_900, "Pizza", "tomato and mozzarella", 15));
+
+        assertEquals(1, ids(index.search("burger", 10)).length);
+        assertEquals(1, ids(index.search("ESEBUR", 10))[0]);
+        assertEquals(2, ids(index.search("zza", 10))[0]);
+        assertEquals(2, ids(index.search("mozza tomato", 10))[0]);
+        assertEquals(0, index.search("burger mozzarella", 10).size());
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        Restaurant r = new Restaurant(1, "Diner");
+        FoodSearchIndex index = new FoodSearchIndex();
+        index.index(r, new FoodItem(1, "Fries", 9_900, "Sides", "goes well with a burger", 5));
+        index.index(r, new FoodItem(2, "Cheeseburger", 19_900, "Mains", "double patty", 10));
+
+        int[] hits = ids(index.search("burger", 10));
+        assertEquals(2, hits.length);
+        assertEquals(2, hits[0]);
+        assertEquals(1, hits[1]);
+    }
+
+    @Test
+    void closedRestaurantsAndUnavailableItemsAreSkipped() {
+        Restaurant open = new Restaurant(1, "Open");
+        Restaurant closed = new Restaurant(2, "Closed");
+        closed.setOpen(false);
+        FoodItem soldOut = new FoodItem(3, "Veg Burger", 14_900, "Burgers", "", 10);
+        soldOut.setAvailable(false);
+        FoodSearchIndex index = new FoodSearchIndex();
+        index.index(open, new FoodItem(1, "Chicken Burger", 17_900, "Burgers", "", 10));
+        index.index(closed, new FoodItem(2, "Fish Burger", 18_900, "Burgers", "", 10));
+        index.index(open, soldOut);
+
+        assertEquals(1, ids(index.search("burger", 10))[0]);
+        assertEquals(1, index.search("burger", 10).size());
+    }
+
+    @Test
+    void emptyPostingListsArePruned() {
+        Restaurant r = new Restaurant(1, "Diner");
+        FoodSearchIndex index = new FoodSearchIndex();
+        index.index(r, new FoodItem(1, "Soup", 9_900, "Starters", "", 5));
+        int base = index.postingListCount();
+
+        FoodItem item = new FoodItem(2, "Cheeseburger", 19_900, "Burgers", "", 10);
+        index.index(r, item);
+        assertTrue(index.postingListCount() > base);
+        item.setName("Veggie Wrap");
+        index.index(r, item);
+        assertEquals(0, index.search("cheese", 10).size());
+        assertEquals(2, ids(index.search("wrap", 10))[0]);
+
+        index.remove(r, 2);
+        assertEquals(0, index.search("wrap", 10).size());
+        assertEquals(base, index.postingListCount());
+    }
+
+    @Test
+    void editsToRegisteredItemsAreReindexed() {
+        AdminService admin = new AdminService(new OrderStore(), OutputSink.NULL, false);
+        admin.addRestaurant(1, "Diner");
+        admin.addFoodItemToRestaurant(1, 1, "Cheeseburger", 199);
+        FoodItem item = admin.findRestaurantById(1).findFoodItemById(1);
+
+        item.setName("Veggie Wrap");
+        item.setDescription("grilled paneer");
+        FoodSearchIndex index = admin.getSearchIndex();
+        assertEquals(0, index.search("cheese", 10).size());
+        assertEquals(1, ids(index.search("wrap paneer", 10))[0]);
+    }
+}
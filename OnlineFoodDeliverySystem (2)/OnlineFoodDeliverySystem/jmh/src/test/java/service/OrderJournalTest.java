@@ -0,0 +1,157 @@
+package service;
+
+import model.FoodItem;
+import model.Order;
+import model.Promotion;
+import model.Restaurant;
+import model.Review;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.OutputSink;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderJournalTest {
+    @TempDir
+    Path dir;
+
+    // The services as MainApp wires them, with sample data unless there is a snapshot to load
+    private static final class App implements AutoCloseable {
+        final OrderStore store = new OrderStore();
+        final OrderIdGenerator orderIds = new OrderIdGenerator();
+        final AdminService admin;
+        final CustomerService customers;
+        final OrderJournal journal;
+
+        App(Path dir) throws IOException {
+            this(dir, !OrderJournal.hasSnapshot(dir));
+        }
+
+        App(Path dir, boolean withSampleData) throws IOException {
+            admin = new AdminService(store, OutputSink.NULL, withSampleData);
+            customers = new CustomerService(store, admin.getRestaurantRegistry(), orderIds, OutputSink.NULL);
+            customers.setPromotions(admin.getPromotionRegistry());
+            customers.setSearchIndex(admin.getSearchIndex());
+            customers.setLeaderboards(admin.getLeaderboards());
+            customers.setReviewIndex(admin.getReviewIndex());
+            journal = OrderJournal.open(dir, store, customers, admin, orderIds);
+        }
+
+        @Override
+        public void close() {
+            journal.close();
+        }
+    }
+
+    private static void addReviews(App app) {
+        app.customers.addCustomer(1, "asha", 9_876_543_210L);
+        app.customers.addReview(1, 1, 4.0, "good");
+        app.customers.addReview(1, 1, 5.0, "great");
+        app.customers.addFoodItemReview(1, 1, 1, 3.0, "fine");
+    }
+
+    private static void assertReviewsRestored(App app, int expectedReviews) {
+        Restaurant restaurant = app.admin.findRestaurantById(1);
+        assertEquals(expectedReviews, app.customers.getReviews().size());
+        assertEquals(2, restaurant.getReviewCount());
+        assertEquals(4.5, restaurant.getRating());
+        assertEquals(1, restaurant.findFoodItemById(1).getReviewCount());
+        assertEquals(3.0, restaurant.findFoodItemById(1).getRating());
+    }
+
+    @Test
+    void reviewsAndRatingsAreReplayedFromTheLog() throws IOException {
+        try (App app = new App(dir)) {
+            addReviews(app);
+        }
+        try (App app = new App(dir)) {
+            assertReviewsRestored(app, 3);
+            Review next = app.customers.addFoodItemReview(1, 1, 2, 4.0, "new");
+            assertEquals(4, next.getReviewId());
+        }
+    }
+
+    @Test
+    void reviewsAreKeptInSnapshots() throws IOException {
+        try (App app = new App(dir)) {
+            addReviews(app);
+            app.journal.snapshot();
+        }
+        try (App app = new App(dir)) {
+            assertEquals(0, app.journal.getReplayedEvents());
+            assertReviewsRestored(app, 3);
+            // only in the log after the snapshot
+            app.customers.addFoodItemReview(1, 1, 2, 4.0, "after");
+        }
+        try (App app = new App(dir)) {
+            assertEquals(4, app.customers.getReviews().size());
+            assertEquals(1, app.admin.findRestaurantById(1).findFoodItemById(2).getReviewCount());
+        }
+    }
+
+    @Test
+    void catalogChangesAreReplayedFromTheLog() throws IOException {
+        int orderId;
+        try (App app = new App(dir)) {
+            app.admin.addRestaurant(10, "Taco Town", "1 Elm St, City", "9876543220", "Mexican", 30, 20.0, 100.0);
+            app.admin.addFoodItemToRestaurant(10, 1, "Taco", 120.0, "Mains", "Crunchy", 10);
+            app.admin.addFoodItemToRestaurant(10, 2, "Burrito", 150.0);
+            app.admin.updateFoodItem(10, 1, "Fish Taco", 130.0, "Mains", "Grilled fish");
+            app.admin.removeFoodItemFromRestaurant(10, 2);
+            app.admin.updateRestaurant(10, "Taco Palace", "2 Elm St, City", "9876543221", "Tex-Mex");
+            app.admin.addDeliveryPerson(10, "Ravi", 9_876_543_230L);
+            app.admin.addPromotion("TACO10", "Taco Tuesday", "10% off", 10.0, 0.0, 100.0, 30, 5);
+            app.customers.addCustomer(7, "meera", 9_876_543_240L);
+
+            app.customers.addFoodToCart(7, 10, 1, 1);
+            Order order = app.customers.placeOrder(7, "3 Elm St, City", "Cash", "", "TACO10");
+            orderId = order.getOrderId();
+            OrderService orders = new OrderService(app.store, app.orderIds, OutputSink.NULL);
+            orders.assignDeliveryPerson(orderId, app.admin.findDeliveryPersonById(10));
+            app.admin.toggleFoodItemAvailability(10, 1);
+        }
+        try (App app = new App(dir)) {
+            Restaurant restaurant = app.admin.findRestaurantById(10);
+            assertEquals("Taco Palace", restaurant.getName());
+            assertEquals("Tex-Mex", restaurant.getCuisineType());
+            FoodItem taco = restaurant.findFoodItemById(1);
+            assertEquals("Fish Taco", taco.getName());
+            assertEquals(13_000, taco.getPricePaise());
+            assertEquals("Grilled fish", taco.getDescription());
+            assertFalse(taco.isAvailable());
+            assertNull(restaurant.findFoodItemById(2));
+            // Search only shows available items
+            app.admin.toggleFoodItemAvailability(10, 1);
+            assertEquals(1, app.customers.searchFoodItems("fish taco").size());
+            assertEquals(0, app.customers.searchFoodItems("burrito").size());
+            assertNotNull(app.customers.findCustomerById(7));
+
+            Order order = app.store.findById(orderId);
+            Promotion promotion = app.admin.findPromotionByCode("TACO10");
+            assertSame(promotion, order.getPromotion());
+            assertEquals(1, promotion.getCurrentUses());
+            assertSame(app.admin.findDeliveryPersonById(10), order.getDeliveryPerson());
+        }
+    }
+
+    @Test
+    void aLogReferringToAnUnknownDeliveryPersonFailsToOpen() throws IOException {
+        try (App app = new App(dir)) {
+            app.customers.addCustomer(7, "meera", 9_876_543_240L);
+            app.customers.addFoodToCart(7, 1, 1, 2);
+            Order order = app.customers.placeOrder(7, "3 Elm St, City", "Cash", "");
+            OrderService orders = new OrderService(app.store, app.orderIds, OutputSink.NULL);
+            orders.assignDeliveryPerson(order.getOrderId(), app.admin.findDeliveryPersonById(1));
+        }
+        // Without the sample data the delivery person the log assigns is unknown
+        assertThrows(IllegalStateException.class, () -> new App(dir, false));
+    }
+}
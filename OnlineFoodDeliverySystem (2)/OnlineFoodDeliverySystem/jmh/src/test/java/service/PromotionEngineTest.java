@@ -0,0 +1,48 @@
+package service;
+
+import model.Promotion;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromotionEngineTest {
+    private static final LocalDateTime START = LocalDateTime.now().minusDays(1);
+    private static final LocalDateTime END = START.plusDays(30);
+
+    private static Promotion percent(int id, int basisPoints, int... restaurantIds) {
+        return new Promotion(id, "P" + id, "", "CODE" + id, basisPoints, 0, 0, START, END, 100,
+                             restaurantIds.length == 0 ? null : restaurantIds);
+    }
+
+    @Test
+    void picksTheLargestDiscountTheRestaurantAccepts() {
+        PromotionEngine engine = new PromotionEngine();
+        Promotion everywhere = percent(1, 1_000);
+        Promotion local = percent(2, 2_000, 7);
+        engine.add(everywhere);
+        engine.add(local);
+
+        assertSame(local, engine.findBest(50_000, 7));
+        assertSame(everywhere, engine.findBest(50_000, 8));
+        assertSame(everywhere, engine.findBest(50_000, -1));
+    }
+
+    @Test
+    void sparseRestaurantIdsStayCheap() {
+        PromotionEngine engine = new PromotionEngine();
+        Promotion far = percent(1, 1_500, 1_000_000_000, 3);
+        engine.add(far);
+
+        assertArrayEquals(new int[] { 3, 1_000_000_000 }, far.getApplicableRestaurantIds());
+        assertTrue(far.appliesToRestaurant(1_000_000_000));
+        assertFalse(far.appliesToRestaurant(999_999_999));
+        assertSame(far, engine.findBest(50_000, 1_000_000_000));
+        assertNull(engine.findBest(50_000, 4));
+    }
+}
@@ -0,0 +1,63 @@
+package service;
+
+import model.Customer;
+import model.FoodItem;
+import model.Restaurant;
+import model.Review;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewIndexTest {
+
+    @Test
+    void pagesRunNewestFirstWithoutGapsOrRepeats() {
+        Customer customer = new Customer(1, "asha", 9_876_543_210L);
+        Restaurant r = new Restaurant(1, "Diner");
+        Restaurant other = new Restaurant(2, "Cafe");
+        ReviewIndex index = new ReviewIndex();
+        for (int id = 1; id <= 7; id++) {
+            index.add(new Review(id, customer, r, 4.0, "visit " + id));
+            index.add(new Review(100 + id, customer, other, 3.0, "elsewhere"));
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        int cursor = ReviewIndex.FIRST_PAGE;
+        int pages = 0;
+        do {
+            ReviewIndex.Page page = index.restaurantReviews(1, cursor, 3);
+            assertEquals(7, page.getTotal());
+            for (Review review : page.getReviews()) seen.add(review.getReviewId());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor >= 0);
+        assertEquals(3, pages);
+        assertEquals(List.of(7, 6, 5, 4, 3, 2, 1), seen);
+    }
+
+    // A cursor taken before more reviews arrive still continues where it left off
+    @Test
+    void newReviewsDoNotShiftAnOpenCursor() {
+        Customer customer = new Customer(1, "asha", 9_876_543_210L);
+        Restaurant r = new Restaurant(1, "Diner");
+        FoodItem item = new FoodItem(5, "Dosa", 9_900);
+        r.addFoodItem(item);
+        ReviewIndex index = new ReviewIndex();
+        for (int id = 1; id <= 4; id++) index.add(new Review(id, customer, item, 5.0, ""));
+
+        ReviewIndex.Page first = index.foodItemReviews(1, 5, ReviewIndex.FIRST_PAGE, 2);
+        assertTrue(first.hasMore());
+        index.add(new Review(5, customer, item, 1.0, "late"));
+        ReviewIndex.Page second = index.foodItemReviews(1, 5, first.getNextCursor(), 2);
+        assertEquals(2, second.getReviews().get(0).getReviewId());
+        assertEquals(1, second.getReviews().get(1).getReviewId());
+        assertFalse(second.hasMore());
+        assertEquals(5, index.countForFoodItem(1, 5));
+        assertEquals(0, index.restaurantReviews(9, ReviewIndex.FIRST_PAGE, 2).getReviews().size());
+    }
+}
@@ -0,0 +1,92 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppendLogTest {
+
+    @Test
+    void readsBeyondTheWatermarkAreRejected() {
+        AppendLog<String> log = new AppendLog<>();
+        assertEquals(0, log.append("a"));
+        assertEquals(1, log.append("b"));
+        assertEquals(2, log.size());
+        assertEquals("b", log.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(2));
+        assertThrows(NullPointerException.class, () -> log.append(null));
+    }
+
+    @Test
+    void snapshotDoesNotSeeLaterAppends() {
+        AppendLog<Integer> log = new AppendLog<>();
+        log.append(1);
+        List<Integer> snapshot = log.snapshot();
+        log.append(2);
+        assertEquals(List.of(1), snapshot);
+        assertEquals(2, log.size());
+    }
+
+    // Readers racing the writers must only ever see filled slots below size(), and size() never goes back
+    @Test
+    void everySlotBelowTheWatermarkIsVisible() throws Exception {
+        AppendLog<Integer> log = new AppendLog<>();
+        int writers = 6;
+        int perWriter = 50_000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    int last = 0;
+                    while (writing.get()) {
+                        int size = log.size();
+                        assertTrue(size >= last, "watermark moved back");
+                        for (int i = last; i < size; i++) assertNotNull(log.get(i), "hole at " + i);
+                        last = size;
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int base = w * perWriter;
+                done.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) log.append(base + i);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : done) f.get();
+            writing.set(false);
+            for (Future<?> f : readers) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(writers * perWriter, log.size());
+        BitSet seen = new BitSet(writers * perWriter);
+        for (int value : log) {
+            assertFalse(seen.get(value), "duplicate " + value);
+            seen.set(value);
+        }
+        assertEquals(writers * perWriter, seen.cardinality());
+    }
+}
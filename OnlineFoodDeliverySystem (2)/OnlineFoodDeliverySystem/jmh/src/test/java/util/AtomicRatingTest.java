@@ -0,0 +1,68 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AtomicRatingTest {
+    private static final long MAX_COUNT = (1L << 28) - 1;
+
+    @Test
+    void averageIsExactToATenth() {
+        AtomicRating rating = new AtomicRating();
+        rating.add(4.0);
+        rating.add(4.5);
+        rating.add(3.0);
+        assertEquals(3, rating.count());
+        assertEquals(3.8333, rating.average(), 0.0001);
+    }
+
+    @Test
+    void fullCounterIsRefusedWithoutChangingIt() {
+        AtomicRating rating = new AtomicRating((MAX_COUNT - 1) << 36);
+        rating.add(5.0);
+        long full = rating.snapshot();
+        assertEquals(MAX_COUNT, AtomicRating.count(full));
+
+        assertThrows(IllegalStateException.class, () -> rating.add(1.0));
+        assertEquals(full, rating.snapshot());
+    }
+
+    @Test
+    void outOfRangeRatingsAreRejected() {
+        AtomicRating rating = new AtomicRating();
+        assertThrows(IllegalArgumentException.class, () -> rating.add(10.1));
+        assertThrows(IllegalArgumentException.class, () -> rating.add(-0.1));
+        assertEquals(0, rating.count());
+    }
+
+    @Test
+    void concurrentAddsAreAllCounted() throws Exception {
+        AtomicRating rating = new AtomicRating();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                double stars = 1 + t % 5;
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) rating.add(stars);
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(threads * perThread, rating.count());
+        // the threads rate 1, 2, 3, 4, 5, 1, 2 and 3 stars
+        assertEquals(21 / 8.0, rating.average(), 1e-9);
+    }
+}
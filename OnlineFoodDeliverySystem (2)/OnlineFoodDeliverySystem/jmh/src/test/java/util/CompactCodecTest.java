@@ -0,0 +1,172 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactCodecTest {
+
+    @Test
+    void primitivesRoundTrip() {
+        long[] longs = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, 1L << 35, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        int[] ints = {0, 1, 127, 128, 300, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        CompactWriter w = new CompactWriter(4);
+        w.writeByte(0x7F);
+        w.writeBoolean(true);
+        w.writeInt(-123_456);
+        w.writeDouble(4.25);
+        for (int v : ints) w.writeVarInt(v);
+        for (long v : longs) w.writeVarLong(v);
+        for (long v : longs) w.writeSignedVarLong(v);
+
+        CompactReader r = new CompactReader(w.toByteBuffer());
+        assertEquals(0x7F, r.readByte());
+        assertEquals(true, r.readBoolean());
+        assertEquals(-123_456, r.readInt());
+        assertEquals(4.25, r.readDouble());
+        for (int v : ints) assertEquals(v, r.readVarInt());
+        for (long v : longs) assertEquals(v, r.readVarLong());
+        for (long v : longs) assertEquals(v, r.readSignedVarLong());
+        assertFalse(r.hasRemaining());
+    }
+
+    @Test
+    void smallValuesTakeOneByte() {
+        CompactWriter w = new CompactWriter(16);
+        w.writeVarInt(127);
+        w.writeSignedVarLong(-64);
+        assertEquals(2, w.size());
+    }
+
+    @Test
+    void stringsRoundTripFromHeapAndDirectBuffers() {
+        String[] strings = {null, "", "Pizza", "Crème brûlée", "Tasty ✓", "🍮 dessert", "lone \uD800 surrogate",
+                            "x".repeat(1_000)};
+        CompactWriter w = new CompactWriter(8);
+        for (String s : strings) w.writeString(s);
+        ByteBuffer heap = w.toByteBuffer();
+        ByteBuffer direct = ByteBuffer.allocateDirect(heap.remaining()).put(heap.duplicate()).flip();
+        for (ByteBuffer buffer : new ByteBuffer[] {heap, direct}) {
+            CompactReader r = new CompactReader(buffer);
+            for (String s : strings) {
+                // An unpaired surrogate is written as '?', as String.getBytes does
+                assertEquals(s == null ? null : s.replace('\uD800', '?'), r.readString());
+            }
+            assertFalse(r.hasRemaining());
+        }
+    }
+
+    @Test
+    void repeatedStringIsWrittenOnceAndReadBackAsOneInstance() {
+        CompactWriter w = new CompactWriter(64);
+        w.writeString("Italian");
+        int once = w.size();
+        w.writeString("Italian");
+        assertEquals(1, w.size() - once);
+
+        CompactReader r = new CompactReader(w.toByteBuffer());
+        assertSame(r.readString(), r.readString());
+    }
+
+    @Test
+    void longStringsStayOutOfTheDictionary() {
+        String atCap = "a".repeat(CompactWriter.MAX_DICTIONARY_CHARS);
+        String overCap = "b".repeat(CompactWriter.MAX_DICTIONARY_CHARS + 1);
+        CompactWriter w = new CompactWriter(64);
+        w.writeString(atCap);
+        int mark = w.size();
+        w.writeString(atCap);
+        assertEquals(1, w.size() - mark);
+        w.writeString(overCap);
+        mark = w.size();
+        w.writeString(overCap);
+        assertEquals(1 + 1 + overCap.length(), w.size() - mark);
+
+        CompactReader r = new CompactReader(w.toByteBuffer());
+        assertSame(r.readString(), r.readString());
+        String first = r.readString();
+        String second = r.readString();
+        assertEquals(overCap, second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void dictionaryStopsGrowingAtItsCap() {
+        CompactWriter w = new CompactWriter(1 << 20);
+        for (int i = 0; i < CompactWriter.MAX_DICTIONARY_SIZE; i++) w.writeString(Integer.toString(i));
+        w.writeString("past the cap");
+        int mark = w.size();
+        w.writeString("past the cap");
+        assertEquals(1 + 1 + "past the cap".length(), w.size() - mark);
+        w.writeString("0");
+        w.writeString(Integer.toString(CompactWriter.MAX_DICTIONARY_SIZE - 1));
+
+        CompactReader r = new CompactReader(w.toByteBuffer());
+        for (int i = 0; i < CompactWriter.MAX_DICTIONARY_SIZE; i++) assertEquals(Integer.toString(i), r.readString());
+        assertEquals("past the cap", r.readString());
+        assertEquals("past the cap", r.readString());
+        assertEquals("0", r.readString());
+        assertEquals(Integer.toString(CompactWriter.MAX_DICTIONARY_SIZE - 1), r.readString());
+        assertFalse(r.hasRemaining());
+    }
+
+    @Test
+    void resetStartsANewDictionary() {
+        CompactWriter w = new CompactWriter(64);
+        w.writeString("Sushi");
+        w.reset();
+        w.writeString("Sushi");
+        CompactReader r = new CompactReader(w.toByteBuffer());
+        assertEquals("Sushi", r.readString());
+        assertFalse(r.hasRemaining());
+
+        // A reader reset onto a record that refers to an entry of the previous one rejects it
+        CompactWriter two = new CompactWriter(64);
+        two.writeString("Sushi");
+        two.writeString("Sushi");
+        ByteBuffer record = two.toByteBuffer();
+        r.reset(record.duplicate());
+        r.readString();
+        assertEquals("Sushi", r.readString());
+        r.reset(record.slice(record.limit() - 1, 1));
+        assertThrows(IllegalStateException.class, r::readString);
+    }
+
+    @Test
+    void truncatedInputThrows() {
+        CompactWriter w = new CompactWriter(64);
+        w.writeVarLong(Long.MAX_VALUE);
+        w.writeString("Noodles");
+        ByteBuffer whole = w.toByteBuffer();
+        for (int length = 0; length < whole.limit(); length++) {
+            CompactReader r = new CompactReader(whole.slice(0, length));
+            assertThrows(BufferUnderflowException.class, () -> {
+                r.readVarLong();
+                r.readString();
+            }, "cut at " + length);
+        }
+    }
+
+    @Test
+    void corruptInputThrows() {
+        // Varint with a continuation bit on every byte
+        byte[] endless = new byte[11];
+        java.util.Arrays.fill(endless, (byte) 0x80);
+        assertThrows(IllegalStateException.class, () -> new CompactReader(ByteBuffer.wrap(endless)).readVarInt());
+        assertThrows(IllegalStateException.class, () -> new CompactReader(ByteBuffer.wrap(endless)).readVarLong());
+        // Dictionary reference to an entry that was never written
+        assertThrows(IllegalStateException.class, () -> new CompactReader(ByteBuffer.wrap(new byte[] {5})).readString());
+        // Literal longer than the input
+        assertThrows(BufferUnderflowException.class,
+                () -> new CompactReader(ByteBuffer.wrap(new byte[] {1, 100, 'a'})).readString());
+        assertNull(new CompactReader(ByteBuffer.wrap(new byte[] {0})).readString());
+    }
+}
@@ -0,0 +1,426 @@
+package main;
+
+import model.Cart;
+import model.Customer;
+import model.DeliveryPerson;
+import model.FoodItem;
+import model.Order;
+import model.OrderLines;
+import model.OrderStatus;
+import model.Promotion;
+import model.Restaurant;
+import model.Review;
+import model.TextRenderer;
+import service.FoodSearchIndex;
+import service.MenuSection;
+import service.OrderReport;
+import service.ReviewIndex;
+import service.SystemReport;
+import util.Money;
+import util.OutputSink;
+
+import java.util.List;
+import java.util.Map;
+
+// Console rendering of the listings and reports the admin, customer and order services return.
+final class ConsoleReports {
+    private ConsoleReports() {
+    }
+
+    static void restaurants(OutputSink out, List<Restaurant> restaurants) {
+        if (restaurants.isEmpty()) {
+            out.println("No restaurants found!");
+            return;
+        }
+        
+        out.println("Restaurants and Menus:");
+        out.println("=" + "=".repeat(50));
+        
+        for (Restaurant r : restaurants) {
+            out.println("Restaurant ID: " + r.getId());
+            out.println("Name: " + r.getName());
+            out.println("Address: " + r.getAddress());
+            out.println("Phone: " + r.getPhoneNumber());
+            out.println("Cuisine: " + r.getCuisineType());
+            out.println("Rating: " + r.getRatingDisplay());
+            out.println("Status: " + (r.isOpen() ? "Open" : "Closed"));
+            out.println("Delivery Time: " + r.getDeliveryTime() + " minutes");
+            out.println("Delivery Fee: Rs. " + Money.format(r.getDeliveryFeePaise()));
+            out.println("Min Order: Rs. " + Money.format(r.getMinimumOrderPaise()));
+            out.println("Menu:");
+            
+            if (r.getMenu().isEmpty()) {
+                out.println("   No items available");
+            } else {
+                for (FoodItem item : r.getMenu()) {
+                    out.println("   - " + item.getName() + " - Rs. " + Money.format(item.getPricePaise()));
+                    out.println("     Category: " + item.getCategory() + " | Rating: " + item.getRatingDisplay());
+                    out.println("     Available: " + (item.isAvailable() ? "Yes" : "No") + " | Prep Time: " + item.getPreparationTime() + "min");
+                    out.println("     Description: " + item.getDescription());
+                    out.println();
+                }
+            }
+            out.println("-".repeat(50));
+        }
+    }
+
+    static void deliveryPersons(OutputSink out, List<DeliveryPerson> deliveryPersons) {
+        if (deliveryPersons.isEmpty()) {
+            out.println("No delivery persons found!");
+            return;
+        }
+        
+        out.println("Delivery Persons:");
+        out.println("=" + "=".repeat(30));
+        for (DeliveryPerson dp : deliveryPersons) {
+            out.println("ID: " + dp.getDeliveryPersonId() + " | Name: " + dp.getName() + " | Contact: " + dp.getContactNo());
+        }
+    }
+
+    // validPromotions comes from AdminService.getValidPromotions; empty means none are configured or valid
+    static void promotions(OutputSink out, List<Promotion> validPromotions, boolean anyConfigured) {
+        if (!anyConfigured) {
+            out.println("No promotions found!");
+            return;
+        }
+        
+        out.println("Active Promotions:");
+        out.println("=" + "=".repeat(40));
+        StringBuilder sb = new StringBuilder(1024);
+        for (Promotion p : validPromotions) {
+            TextRenderer.appendPromotion(sb, p).append("----------------------------------------\n");
+        }
+        out.print(sb);
+    }
+
+    static void allOrders(OutputSink out, List<Order> newestFirst) {
+        if (newestFirst.isEmpty()) {
+            out.println("No orders found!");
+            return;
+        }
+        
+        out.println("All Orders:");
+        out.println("=" + "=".repeat(60));
+        orderSummaries(out, newestFirst);
+    }
+
+    static void ordersByStatus(OutputSink out, OrderStatus status, List<Order> listed) {
+        if (listed.isEmpty()) {
+            out.println("No orders found with status: " + status.getDisplayName());
+            return;
+        }
+        
+        out.println("Orders with Status: " + status.getDisplayName());
+        out.println("=" + "=".repeat(50));
+        orderSummaries(out, listed);
+    }
+
+    // Full details of one order, or a not-found message for null
+    static void orderTracking(OutputSink out, Order order) {
+        if (order == null) {
+            out.println("Order not found!");
+            return;
+        }
+        
+        out.println("Order Tracking:");
+        out.println("=" + "=".repeat(40));
+        out.println("Order ID: " + order.getOrderId());
+        out.println("Tracking Number: " + order.getTrackingNumber());
+        out.println("Customer: " + order.getCustomer().getUsername());
+        out.println("Contact: " + order.getCustomer().getContactNo());
+        out.println("Delivery Address: " + order.getDeliveryAddress());
+        out.println("Status: " + order.getStatusWithEmoji());
+        out.println("Order Time: " + order.getFormattedOrderTime());
+        out.println("Estimated Delivery: " + order.getFormattedDeliveryTime());
+        
+        if (order.getDeliveryPerson() != null) {
+            out.println("Delivery Person: " + order.getDeliveryPerson().getName());
+            out.println("Delivery Contact: " + order.getDeliveryPerson().getContactNo());
+        }
+        
+        out.println("Items:");
+        OrderLines lines = order.getLines();
+        for (int i = 0; i < lines.size(); i++) {
+            out.println("   - " + lines.getName(i) + " x " + lines.getQuantity(i) + 
+                             " = Rs. " + Money.format(lines.getLineTotalPaise(i)));
+        }
+        
+        out.println("Subtotal: Rs. " + Money.format(order.getSubtotalPaise()));
+        out.println("Delivery Fee: Rs. " + Money.format(order.getDeliveryFeePaise()));
+        out.println("Tax: Rs. " + Money.format(order.getTaxPaise()));
+        if (order.getPromotion() != null) {
+            out.println("Discount: Rs. " + Money.format(order.getDiscountPaise()));
+        }
+        out.println("Total: Rs. " + Money.format(order.getTotalPaise()));
+    }
+
+    static void systemReport(OutputSink out, SystemReport report) {
+        out.println("System Analytics:");
+        out.println("=" + "=".repeat(30));
+        out.println("Total Restaurants: " + report.getRestaurants());
+        out.println("Total Food Items: " + report.getFoodItems());
+        out.println("Total Delivery Persons: " + report.getDeliveryPersons());
+        out.println("Total Orders: " + report.getOrders());
+        out.println("Active Promotions: " + report.getActivePromotions());
+        out.println("Total Reviews: " + report.getReviews());
+        
+        out.println("\nOrder Status Breakdown:");
+        statusCounts(out, report.getStatusCounts());
+        
+        out.println("\nTotal Revenue: Rs. " + Money.format(report.getDeliveredRevenuePaise()));
+    }
+
+    static void orderReport(OutputSink out, OrderReport report) {
+        if (report.getTotalOrders() == 0) {
+            out.println("No orders found for analytics!");
+            return;
+        }
+        
+        out.println("Order Analytics:");
+        out.println("=" + "=".repeat(40));
+        out.println("Total Orders: " + report.getTotalOrders());
+        
+        out.println("\nOrder Status Breakdown:");
+        statusCounts(out, report.getStatusCounts());
+        
+        long delivered = report.getDeliveredRevenuePaise();
+        long pending = report.getPendingRevenuePaise();
+        out.println("\nRevenue Analysis:");
+        out.println("   Delivered Orders Revenue: Rs. " + Money.format(delivered));
+        out.println("   Pending Orders Value: Rs. " + Money.format(pending));
+        out.println("   Total Revenue: Rs. " + Money.format(delivered + pending));
+        out.println("   Average Order Value: Rs. " + Money.format(report.getAverageOrderValuePaise()));
+        
+        out.println("\nToday's Orders: " + report.getOrdersToday());
+    }
+
+    // Customer portal
+
+    static void customers(OutputSink out, List<Customer> customers) {
+        if (customers.isEmpty()) {
+            out.println("❌ No customers found!");
+            return;
+        }
+        
+        out.println("👥 Registered Customers:");
+        out.println("=" + "=".repeat(40));
+        for (Customer c : customers) {
+            out.println("ID: " + c.getUserId() + " | Name: " + c.getUsername() + " | Contact: " + c.getContactNo());
+        }
+    }
+
+    static void openRestaurants(OutputSink out, List<Restaurant> open) {
+        if (open.isEmpty()) {
+            out.println("❌ No restaurants available!");
+            return;
+        }
+        
+        out.println("🍽️ Available Restaurants:");
+        out.println("=" + "=".repeat(50));
+        
+        for (Restaurant r : open) {
+            out.println("🏪 Restaurant ID: " + r.getId());
+            out.println("📛 Name: " + r.getName());
+            out.println("🍴 Cuisine: " + r.getCuisineType());
+            out.println("⭐ Rating: " + r.getRatingDisplay());
+            out.println("🚚 Delivery Time: " + r.getDeliveryTime() + " minutes");
+            out.println("💰 Delivery Fee: Rs. " + Money.format(r.getDeliveryFeePaise()));
+            out.println("💵 Min Order: Rs. " + Money.format(r.getMinimumOrderPaise()));
+            out.println();
+        }
+    }
+
+    static void availableMenus(OutputSink out, List<MenuSection> menus) {
+        if (menus.isEmpty()) {
+            out.println("❌ No restaurants available!");
+            return;
+        }
+        
+        out.println("🍽️ Available Food Items:");
+        out.println("=" + "=".repeat(60));
+        
+        for (MenuSection section : menus) {
+            Restaurant r = section.getRestaurant();
+            out.println("🏪 " + r.getName() + " (" + r.getCuisineType() + ")");
+            out.println("⭐ Rating: " + r.getRatingDisplay());
+            out.println("📋 Menu:");
+            
+            for (FoodItem item : section.getItems()) {
+                out.println("   • " + item.getName() + " - Rs. " + Money.format(item.getPricePaise()));
+                out.println("     Category: " + item.getCategory() + " | Rating: " + item.getRatingDisplay());
+                out.println("     Prep Time: " + item.getPreparationTime() + "min | Available: ✅");
+                out.println("     Description: " + item.getDescription());
+                out.println();
+            }
+            out.println("-".repeat(60));
+        }
+    }
+
+    static void categoryMenus(OutputSink out, String category, List<MenuSection> menus) {
+        out.println("🍽️ Food Items in Category: " + category);
+        out.println("=" + "=".repeat(50));
+        
+        for (MenuSection section : menus) {
+            out.println("🏪 " + section.getRestaurant().getName());
+            for (FoodItem item : section.getItems()) {
+                out.println("   • " + item.getName() + " - Rs. " + Money.format(item.getPricePaise()));
+                out.println("     Rating: " + item.getRatingDisplay() + " | Prep Time: " + item.getPreparationTime() + "min");
+            }
+            out.println();
+        }
+        
+        if (menus.isEmpty()) {
+            out.println("❌ No items found in this category!");
+        }
+    }
+
+    static void searchResults(OutputSink out, String searchTerm, List<FoodSearchIndex.Hit> hits) {
+        out.println("🔍 Search Results for: " + searchTerm);
+        out.println("=" + "=".repeat(50));
+        
+        for (FoodSearchIndex.Hit hit : hits) {
+            FoodItem item = hit.getItem();
+            out.println("🏪 " + hit.getRestaurant().getName());
+            out.println("   • " + item.getName() + " - Rs. " + Money.format(item.getPricePaise()));
+            out.println("     Category: " + item.getCategory() + " | Rating: " + item.getRatingDisplay());
+            out.println("     Description: " + item.getDescription());
+            out.println();
+        }
+        
+        if (hits.isEmpty()) {
+            out.println("❌ No items found matching your search!");
+        }
+    }
+
+    // filter is the cuisine asked for; blank means all restaurants
+    static void topRestaurants(OutputSink out, String filter, List<Restaurant> top, int minReviews) {
+        out.println("🏆 Top Rated Restaurants" + leaderboardSuffix(filter) + ":");
+        out.println("=" + "=".repeat(50));
+        if (top.isEmpty()) {
+            out.println("❌ No restaurants with at least " + minReviews + " reviews yet!");
+            return;
+        }
+        int rank = 1;
+        for (Restaurant r : top) {
+            out.println(rank++ + ". " + r.getName() + " (" + r.getCuisineType() + ") - ⭐ " + r.getRatingDisplay());
+        }
+    }
+
+    // filter is the category asked for; blank means all dishes
+    static void topDishes(OutputSink out, String filter, List<FoodItem> top, int minReviews) {
+        out.println("🏆 Top Rated Dishes" + leaderboardSuffix(filter) + ":");
+        out.println("=" + "=".repeat(50));
+        if (top.isEmpty()) {
+            out.println("❌ No dishes with at least " + minReviews + " reviews yet!");
+            return;
+        }
+        int rank = 1;
+        for (FoodItem item : top) {
+            String restaurantName = item.getRestaurant() != null ? item.getRestaurant().getName() : "";
+            out.println(rank++ + ". " + item.getName() + " @ " + restaurantName + " - ⭐ " + item.getRatingDisplay());
+        }
+    }
+
+    private static String leaderboardSuffix(String filter) {
+        return filter == null || filter.isBlank() ? "" : " (" + filter.trim() + ")";
+    }
+
+    // cart is null when the customer does not exist
+    static void cart(OutputSink out, Cart cart) {
+        if (cart == null) {
+            out.println("❌ Customer not found!");
+            return;
+        }
+        
+        if (cart.isEmpty()) {
+            out.println("🛒 Your cart is empty!");
+            return;
+        }
+        
+        out.println("🛒 Your Cart:");
+        out.println("=" + "=".repeat(40));
+        out.println(cart);
+    }
+
+    static void availablePromotions(OutputSink out, List<Promotion> available) {
+        if (available.isEmpty()) {
+            out.println("❌ No promotions available!");
+            return;
+        }
+        
+        out.println("🎉 Available Promotions:");
+        out.println("=" + "=".repeat(40));
+        for (Promotion p : available) {
+            out.println("🎫 " + p.getName());
+            out.println("   Code: " + p.getPromoCode());
+            out.println("   Discount: " + p.getDiscountDisplay());
+            out.println("   Min Order: Rs. " + Money.format(p.getMinimumOrderPaise()));
+            out.println("   Valid Until: " + p.getFormattedEndDate());
+            out.println();
+        }
+    }
+
+    static void customerOrders(OutputSink out, List<Order> customerOrders) {
+        if (customerOrders.isEmpty()) {
+            out.println("❌ No orders found for this customer!");
+            return;
+        }
+        
+        out.println("📦 Your Orders:");
+        out.println("=" + "=".repeat(50));
+        StringBuilder sb = new StringBuilder(Math.min(customerOrders.size(), 256) * 640);
+        for (Order order : customerOrders) {
+            TextRenderer.appendOrder(sb, order).append("\n\n");
+        }
+        out.print(sb);
+    }
+
+    // One page of reviews, headed on the first page only; restaurant is null if it no longer exists
+    static void restaurantReviews(OutputSink out, Restaurant restaurant, ReviewIndex.Page page, boolean firstPage) {
+        if (page.getReviews().isEmpty()) {
+            out.println("❌ No reviews found for this restaurant!");
+            return;
+        }
+        if (firstPage) {
+            reviewHeading(out, restaurant != null ? restaurant.getName() : "Unknown Restaurant", page);
+        }
+        reviewListing(out, page);
+    }
+
+    static void foodItemReviews(OutputSink out, FoodItem item, ReviewIndex.Page page, boolean firstPage) {
+        if (page.getReviews().isEmpty()) {
+            out.println("❌ No reviews found for this food item!");
+            return;
+        }
+        if (firstPage) {
+            reviewHeading(out, item != null ? item.getName() : "Unknown Food Item", page);
+        }
+        reviewListing(out, page);
+    }
+
+    private static void reviewHeading(OutputSink out, String subject, ReviewIndex.Page page) {
+        out.println("⭐ Reviews for " + subject + " (" + page.getTotal() + "):");
+        out.println("=" + "=".repeat(50));
+    }
+
+    private static void reviewListing(OutputSink out, ReviewIndex.Page page) {
+        StringBuilder sb = new StringBuilder(page.getReviews().size() * 160);
+        for (Review review : page.getReviews()) {
+            TextRenderer.appendReviewListing(sb, review);
+        }
+        out.print(sb);
+    }
+
+    private static void statusCounts(OutputSink out, Map<OrderStatus, Long> counts) {
+        counts.forEach((status, count) -> out.println("   " + status.getDisplayName() + ": " + count + " orders"));
+    }
+
+    // Renders the whole listing into one buffer and prints it once
+    private static void orderSummaries(OutputSink out, List<Order> listed) {
+        StringBuilder sb = new StringBuilder(Math.min(listed.size(), 1024) * 160);
+        for (Order order : listed) {
+            TextRenderer.appendOrderSummary(sb, order).append('\n');
+        }
+        out.print(sb);
+    }
+}
@@ -2,32 +2,68 @@ package main;
 
 import model.*;
 import service.*;
+import util.AsyncOutputSink;
+import util.OutputSink;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class MainApp {
+    // Console output is batched and written by a background thread
+    private static final AsyncOutputSink out = new AsyncOutputSink(System.out);
+    // Order log events between snapshots; a snapshot is also taken on exit
+    private static final long SNAPSHOT_EVERY_EVENTS = 10_000;
+
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
-        List<Order> orders = new ArrayList<>();
+        Scanner sc = new Scanner(flushingBeforeRead(System.in, out));
+        OrderStore orders = new OrderStore();
+        OrderIdGenerator orderIds = new OrderIdGenerator();
+
+        // Orders and the catalog survive restarts, in ~/.fooddelivery unless -Dfooddelivery.data=<dir>
+        // says otherwise; not under the working directory, which may be a source checkout
+        Path dataDir = System.getProperty("fooddelivery.data") != null
+                ? Paths.get(System.getProperty("fooddelivery.data"))
+                : Paths.get(System.getProperty("user.home"), ".fooddelivery");
+        Path journalDir = dataDir.resolve("orders");
 
-        // Service layers
-        AdminService admin = new AdminService(orders);
-        CustomerService customer = new CustomerService(orders, admin.getRestaurants());
-        OrderService orderService = new OrderService(orders);
+        // Service layers; a saved catalog replaces the sample data
+        AdminService admin = new AdminService(orders, out, !OrderJournal.hasSnapshot(journalDir));
+        CustomerService customer = new CustomerService(orders, admin.getRestaurantRegistry(), orderIds, out);
+        OrderService orderService = new OrderService(orders, orderIds, out);
 
         // Connect promotions between admin and customer services
-        customer.setPromotions(admin.getPromotions());
+        customer.setPromotions(admin.getPromotionRegistry());
+        customer.setSearchIndex(admin.getSearchIndex());
+        customer.setLeaderboards(admin.getLeaderboards());
+        customer.setReviewIndex(admin.getReviewIndex());
 
-        System.out.println("🍽️ Welcome to Advanced Food Delivery System! 🍽️");
-        System.out.println("=" + "=".repeat(50));
+        OrderJournal journal = null;
+        try {
+            journal = OrderJournal.open(journalDir, orders, customer, admin, orderIds);
+            if (journal.getRestoredOrders() > 0) {
+                out.println("📂 Restored " + journal.getRestoredOrders() + " orders from " + dataDir);
+            }
+        } catch (IOException | RuntimeException e) {
+            out.println("⚠️ Could not open the order log, orders will not be saved: " + e.getMessage());
+        }
+
+        out.println("🍽️ Welcome to Advanced Food Delivery System! 🍽️");
+        out.println("=" + "=".repeat(50));
 
         while (true) {
+            if (journal != null && journal.getEventsSinceSnapshot() >= SNAPSHOT_EVERY_EVENTS) {
+                snapshot(journal);
+            }
             try {
-                System.out.println("\n🏠 Main Menu:");
-                System.out.println("1. 👨‍💼 Admin Panel");
-                System.out.println("2. 👤 Customer Portal");
-                System.out.println("3. 📊 System Analytics");
-                System.out.println("4. ❌ Exit");
-                System.out.print("Choose an option: ");
+                out.println("\n🏠 Main Menu:");
+                out.println("1. 👨‍💼 Admin Panel");
+                out.println("2. 👤 Customer Portal");
+                out.println("3. 📊 System Analytics");
+                out.println("4. ❌ Exit");
+                out.print("Choose an option: ");
                 int choice = sc.nextInt();
                 sc.nextLine();
 
@@ -38,53 +74,84 @@ public class MainApp {
                 } else if (choice == 3) {
                     systemAnalytics(admin, orderService);
                 } else if (choice == 4) {
-                    System.out.println("👋 Thank you for using Advanced Food Delivery System!");
-                    System.out.println("Have a great day! 🍕🍔🍜");
+                    out.println("👋 Thank you for using Advanced Food Delivery System!");
+                    out.println("Have a great day! 🍕🍔🍜");
                     break;
                 } else {
-                    System.out.println("⚠️ Invalid option! Please choose 1-4.");
+                    out.println("⚠️ Invalid option! Please choose 1-4.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("⚠️ Please enter numbers only!");
+                out.println("⚠️ Please enter numbers only!");
                 sc.nextLine(); // clear invalid input
             }
         }
         sc.close();
+        if (journal != null) {
+            snapshot(journal);
+            journal.close();
+        }
+        out.close();
+    }
+
+    // Only between commands, so the catalog isn't being edited while it is written
+    private static void snapshot(OrderJournal journal) {
+        try {
+            journal.snapshot();
+        } catch (IOException | RuntimeException e) {
+            out.println("⚠️ Could not save a snapshot: " + e.getMessage());
+        }
+    }
+
+    // Prompts and results must be on screen before the app waits for the user's next input
+    private static InputStream flushingBeforeRead(InputStream in, OutputSink sink) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                sink.flush();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                sink.flush();
+                return super.read(b, off, len);
+            }
+        };
     }
 
     // ✅ ADMIN MENU
     private static void adminMenu(Scanner sc, AdminService admin, OrderService orderService) {
         while (true) {
             try {
-                System.out.println("\n👨‍💼 Admin Panel:");
-                System.out.println("=" + "=".repeat(40));
-                System.out.println("🏪 Restaurant Management:");
-                System.out.println("1. Add Restaurant (Basic)");
-                System.out.println("2. Add Restaurant (Full Details)");
-                System.out.println("3. Update Restaurant Details");
-                System.out.println("4. View Restaurants and Menus");
-                System.out.println("\n🍽️ Food Item Management:");
-                System.out.println("5. Add Food Item (Basic)");
-                System.out.println("6. Add Food Item (Full Details)");
-                System.out.println("7. Update Food Item");
-                System.out.println("8. Remove Food Item");
-                System.out.println("9. Toggle Food Item Availability");
-                System.out.println("\n📦 Order Management:");
-                System.out.println("10. View All Orders");
-                System.out.println("11. View Orders by Status");
-                System.out.println("12. Update Order Status");
-                System.out.println("13. Assign Delivery Person");
-                System.out.println("\n🚚 Delivery Management:");
-                System.out.println("14. Add Delivery Person");
-                System.out.println("15. View Delivery Persons");
-                System.out.println("\n🎉 Promotion Management:");
-                System.out.println("16. Add Promotion");
-                System.out.println("17. View Promotions");
-                System.out.println("\n📊 Analytics:");
-                System.out.println("18. View System Analytics");
-                System.out.println("19. View Order Analytics");
-                System.out.println("\n20. 🔙 Back to Main Menu");
-                System.out.print("Choose an option: ");
+                out.println("\n👨‍💼 Admin Panel:");
+                out.println("=" + "=".repeat(40));
+                out.println("🏪 Restaurant Management:");
+                out.println("1. Add Restaurant (Basic)");
+                out.println("2. Add Restaurant (Full Details)");
+                out.println("3. Update Restaurant Details");
+                out.println("4. View Restaurants and Menus");
+                out.println("\n🍽️ Food Item Management:");
+                out.println("5. Add Food Item (Basic)");
+                out.println("6. Add Food Item (Full Details)");
+                out.println("7. Update Food Item");
+                out.println("8. Remove Food Item");
+                out.println("9. Toggle Food Item Availability");
+                out.println("\n📦 Order Management:");
+                out.println("10. View All Orders");
+                out.println("11. View Orders by Status");
+                out.println("12. Update Order Status");
+                out.println("13. Assign Delivery Person");
+                out.println("\n🚚 Delivery Management:");
+                out.println("14. Add Delivery Person");
+                out.println("15. View Delivery Persons");
+                out.println("\n🎉 Promotion Management:");
+                out.println("16. Add Promotion");
+                out.println("17. View Promotions");
+                out.println("\n📊 Analytics:");
+                out.println("18. View System Analytics");
+                out.println("19. View Order Analytics");
+                out.println("\n20. 🔙 Back to Main Menu");
+                out.print("Choose an option: ");
                 int opt = sc.nextInt();
                 sc.nextLine();
 
@@ -99,7 +166,7 @@ public class MainApp {
                         updateRestaurant(sc, admin);
                         break;
                     case 4:
-                        admin.viewRestaurants();
+                        ConsoleReports.restaurants(out, admin.getRestaurants());
                         break;
                     case 5:
                         addFoodItemBasic(sc, admin);
@@ -117,7 +184,7 @@ public class MainApp {
                         toggleFoodItemAvailability(sc, admin);
                         break;
                     case 10:
-                        orderService.viewAllOrders();
+                        ConsoleReports.allOrders(out, orderService.getOrdersNewestFirst());
                         break;
                     case 11:
                         viewOrdersByStatus(sc, orderService);
@@ -132,27 +199,27 @@ public class MainApp {
                         addDeliveryPerson(sc, admin);
                         break;
                     case 15:
-                        admin.viewDeliveryPersons();
+                        ConsoleReports.deliveryPersons(out, admin.getDeliveryPersons());
                         break;
                     case 16:
                         addPromotion(sc, admin);
                         break;
                     case 17:
-                        admin.viewPromotions();
+                        ConsoleReports.promotions(out, admin.getValidPromotions(), !admin.getPromotions().isEmpty());
                         break;
                     case 18:
-                        admin.viewAnalytics();
+                        ConsoleReports.systemReport(out, admin.getSystemReport());
                         break;
                     case 19:
-                        orderService.viewOrderAnalytics();
+                        ConsoleReports.orderReport(out, orderService.getOrderReport());
                         break;
                     case 20:
                         return;
                     default:
-                        System.out.println("⚠️ Invalid option! Please choose 1-20.");
+                        out.println("⚠️ Invalid option! Please choose 1-20.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("⚠️ Please enter valid numbers!");
+                out.println("⚠️ Please enter valid numbers!");
                 sc.nextLine();
             }
         }
@@ -162,155 +229,194 @@ public class MainApp {
     private static void customerMenu(Scanner sc, CustomerService cust, OrderService orderService) {
         while (true) {
             try {
-                System.out.println("\n👤 Customer Portal:");
-                System.out.println("=" + "=".repeat(40));
-                System.out.println("1. Register Customer");
-                System.out.println("2. View Restaurants");
-                System.out.println("3. View All Food Items");
-                System.out.println("4. Browse Food by Category");
-                System.out.println("5. Search Food Items");
-                System.out.println("6. Add Food to Cart");
-                System.out.println("7. Remove Item from Cart");
-                System.out.println("8. View Cart");
-                System.out.println("9. Clear Cart");
-                System.out.println("10. View Promotions");
-                System.out.println("11. Place Order (with address/payment)");
-                System.out.println("12. View My Orders");
-                System.out.println("13. Track an Order");
-                System.out.println("14. Cancel Order");
-                System.out.println("15. Add Restaurant Review");
-                System.out.println("16. Add Food Item Review");
-                System.out.println("17. View Reviews for Restaurant");
-                System.out.println("18. 🔙 Back to Main Menu");
-                System.out.print("Choose an option: ");
+                out.println("\n👤 Customer Portal:");
+                out.println("=" + "=".repeat(40));
+                out.println("1. Register Customer");
+                out.println("2. View Restaurants");
+                out.println("3. View All Food Items");
+                out.println("4. Browse Food by Category");
+                out.println("5. Search Food Items");
+                out.println("6. Add Food to Cart");
+                out.println("7. Remove Item from Cart");
+                out.println("8. View Cart");
+                out.println("9. Clear Cart");
+                out.println("10. View Promotions");
+                out.println("11. Place Order (with address/payment)");
+                out.println("12. View My Orders");
+                out.println("13. Track an Order");
+                out.println("14. Cancel Order");
+                out.println("15. Add Restaurant Review");
+                out.println("16. Add Food Item Review");
+                out.println("17. View Reviews for Restaurant");
+                out.println("18. View Reviews for Food Item");
+                out.println("19. Top Rated Restaurants");
+                out.println("20. Top Rated Dishes");
+                out.println("21. 🔙 Back to Main Menu");
+                out.print("Choose an option: ");
                 int opt = sc.nextInt();
                 sc.nextLine();
 
                 switch (opt) {
                     case 1: // register
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int id = sc.nextInt();
                         sc.nextLine();
-                        System.out.print("Enter Name: ");
+                        out.print("Enter Name: ");
                         String name = sc.nextLine();
-                        System.out.print("Enter Contact: ");
+                        out.print("Enter Contact: ");
                         long contact = sc.nextLong();
                         cust.addCustomer(id, name, contact);
                         break;
                     case 2:
-                        cust.viewRestaurants();
+                        ConsoleReports.openRestaurants(out, cust.getOpenRestaurants());
                         break;
                     case 3:
-                        cust.viewFoodItems();
+                        ConsoleReports.availableMenus(out, cust.getAvailableMenus());
                         break;
                     case 4:
-                        System.out.print("Enter Category (e.g., Pizza, Burger, Sushi): ");
+                        out.print("Enter Category (e.g., Pizza, Burger, Sushi): ");
                         String category = sc.nextLine();
-                        cust.viewFoodItemsByCategory(category);
+                        ConsoleReports.categoryMenus(out, category, cust.getFoodItemsByCategory(category));
                         break;
                     case 5:
-                        System.out.print("Enter search term: ");
+                        out.print("Enter search term: ");
                         String term = sc.nextLine();
-                        cust.searchFoodItems(term);
+                        ConsoleReports.searchResults(out, term, cust.searchFoodItems(term));
                         break;
                     case 6: // add to cart
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int addCid = sc.nextInt();
-                        System.out.print("Enter Restaurant ID: ");
+                        out.print("Enter Restaurant ID: ");
                         int addRid = sc.nextInt();
-                        System.out.print("Enter Food ID: ");
+                        out.print("Enter Food ID: ");
                         int addFid = sc.nextInt();
-                        System.out.print("Enter Quantity: ");
+                        out.print("Enter Quantity: ");
                         int qty = sc.nextInt();
                         cust.addFoodToCart(addCid, addRid, addFid, qty);
                         break;
                     case 7: // remove from cart
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int rmCid = sc.nextInt();
-                        System.out.print("Enter Restaurant ID: ");
+                        out.print("Enter Restaurant ID: ");
                         int rmRid = sc.nextInt();
-                        System.out.print("Enter Food ID: ");
+                        out.print("Enter Food ID: ");
                         int rmFid = sc.nextInt();
                         cust.removeFromCart(rmCid, rmRid, rmFid);
                         break;
                     case 8:
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int vCid = sc.nextInt();
-                        cust.viewCart(vCid);
+                        ConsoleReports.cart(out, cust.getCart(vCid));
                         break;
                     case 9:
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int clrCid = sc.nextInt();
                         cust.clearCart(clrCid);
                         break;
                     case 10:
-                        cust.viewPromotions();
+                        ConsoleReports.availablePromotions(out, cust.getAvailablePromotions());
                         break;
                     case 11: // place order
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int pCid = sc.nextInt();
                         sc.nextLine();
-                        System.out.print("Enter Delivery Address: ");
+                        out.print("Enter Delivery Address: ");
                         String address = sc.nextLine();
-                        System.out.print("Enter Payment Method (COD/UPI/Card): ");
+                        out.print("Enter Payment Method (COD/UPI/Card): ");
                         String pm = sc.nextLine();
-                        System.out.print("Any special instructions? (leave blank if none): ");
+                        out.print("Any special instructions? (leave blank if none): ");
                         String instr = sc.nextLine();
-                        cust.placeOrder(pCid, address, pm, instr);
+                        out.print("Promo code (leave blank to apply the best offer): ");
+                        String promoCode = sc.nextLine();
+                        cust.placeOrder(pCid, address, pm, instr, promoCode);
                         break;
                     case 12:
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int listCid = sc.nextInt();
-                        cust.viewOrders(listCid);
+                        ConsoleReports.customerOrders(out, cust.getOrders(listCid));
                         break;
                     case 13:
-                        System.out.print("Enter Order ID: ");
+                        out.print("Enter Order ID: ");
                         int trkId = sc.nextInt();
-                        orderService.trackOrder(trkId);
+                        ConsoleReports.orderTracking(out, orderService.findOrderById(trkId));
                         break;
                     case 14:
-                        System.out.print("Enter Order ID: ");
+                        out.print("Enter Order ID: ");
                         int cancelId = sc.nextInt();
                         orderService.cancelOrder(cancelId);
                         break;
                     case 15: // restaurant review
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int revCid = sc.nextInt();
-                        System.out.print("Enter Restaurant ID: ");
+                        out.print("Enter Restaurant ID: ");
                         int revRid = sc.nextInt();
-                        System.out.print("Enter Rating (1.0 - 5.0): ");
+                        out.print("Enter Rating (1.0 - 5.0): ");
                         double rRating = sc.nextDouble();
                         sc.nextLine();
-                        System.out.print("Enter Comment: ");
+                        out.print("Enter Comment: ");
                         String rComment = sc.nextLine();
                         cust.addReview(revCid, revRid, rRating, rComment);
                         break;
                     case 16: // food item review
-                        System.out.print("Enter Customer ID: ");
+                        out.print("Enter Customer ID: ");
                         int frCid = sc.nextInt();
-                        System.out.print("Enter Restaurant ID: ");
+                        out.print("Enter Restaurant ID: ");
                         int frRid = sc.nextInt();
-                        System.out.print("Enter Food ID: ");
+                        out.print("Enter Food ID: ");
                         int frFid = sc.nextInt();
-                        System.out.print("Enter Rating (1.0 - 5.0): ");
+                        out.print("Enter Rating (1.0 - 5.0): ");
                         double fRating = sc.nextDouble();
                         sc.nextLine();
-                        System.out.print("Enter Comment: ");
+                        out.print("Enter Comment: ");
                         String fComment = sc.nextLine();
                         cust.addFoodItemReview(frCid, frRid, frFid, fRating, fComment);
                         break;
                     case 17:
-                        System.out.print("Enter Restaurant ID: ");
+                        out.print("Enter Restaurant ID: ");
                         int vrRid = sc.nextInt();
-                        cust.viewReviews(vrRid);
+                        sc.nextLine();
+                        Restaurant vrRestaurant = cust.findRestaurantById(vrRid);
+                        ReviewIndex.Page vrPage = cust.getRestaurantReviews(vrRid, ReviewIndex.FIRST_PAGE);
+                        ConsoleReports.restaurantReviews(out, vrRestaurant, vrPage, true);
+                        while (vrPage.hasMore() && askForMore(sc)) {
+                            vrPage = cust.getRestaurantReviews(vrRid, vrPage.getNextCursor());
+                            ConsoleReports.restaurantReviews(out, vrRestaurant, vrPage, false);
+                        }
                         break;
                     case 18:
+                        out.print("Enter Restaurant ID: ");
+                        int vfRid = sc.nextInt();
+                        out.print("Enter Food ID: ");
+                        int vfFid = sc.nextInt();
+                        sc.nextLine();
+                        Restaurant vfRestaurant = cust.findRestaurantById(vfRid);
+                        FoodItem vfItem = vfRestaurant != null ? vfRestaurant.findFoodItemById(vfFid) : null;
+                        ReviewIndex.Page vfPage = cust.getFoodItemReviews(vfRid, vfFid, ReviewIndex.FIRST_PAGE);
+                        ConsoleReports.foodItemReviews(out, vfItem, vfPage, true);
+                        while (vfPage.hasMore() && askForMore(sc)) {
+                            vfPage = cust.getFoodItemReviews(vfRid, vfFid, vfPage.getNextCursor());
+                            ConsoleReports.foodItemReviews(out, vfItem, vfPage, false);
+                        }
+                        break;
+                    case 19:
+                        out.print("Enter Cuisine (leave blank for all): ");
+                        String cuisine = sc.nextLine();
+                        ConsoleReports.topRestaurants(out, cuisine, cust.getTopRestaurants(cuisine),
+                                                      cust.getLeaderboardMinReviews());
+                        break;
+                    case 20:
+                        out.print("Enter Category (leave blank for all): ");
+                        String dishCategory = sc.nextLine();
+                        ConsoleReports.topDishes(out, dishCategory, cust.getTopDishes(dishCategory),
+                                                 cust.getLeaderboardMinReviews());
+                        break;
+                    case 21:
                         return;
                     default:
-                        System.out.println("⚠️ Invalid option! Please choose 1-18.");
+                        out.println("⚠️ Invalid option! Please choose 1-21.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("⚠️ Please enter valid numbers!");
+                out.println("⚠️ Please enter valid numbers!");
                 sc.nextLine();
             }
         }
@@ -318,174 +424,185 @@ public class MainApp {
 
     // ===== Admin helpers =====
     private static void addRestaurantBasic(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int id = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter Restaurant Name: ");
+        out.print("Enter Restaurant Name: ");
         String name = sc.nextLine();
         admin.addRestaurant(id, name);
     }
 
     private static void addRestaurantFull(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int id = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter Name: ");
+        out.print("Enter Name: ");
         String name = sc.nextLine();
-        System.out.print("Enter Address: ");
+        out.print("Enter Address: ");
         String address = sc.nextLine();
-        System.out.print("Enter Phone: ");
+        out.print("Enter Phone: ");
         String phone = sc.nextLine();
-        System.out.print("Enter Cuisine Type: ");
+        out.print("Enter Cuisine Type: ");
         String cuisine = sc.nextLine();
-        System.out.print("Enter Delivery Time (min): ");
+        out.print("Enter Delivery Time (min): ");
         int dtime = sc.nextInt();
-        System.out.print("Enter Delivery Fee: ");
+        out.print("Enter Delivery Fee: ");
         double dfee = sc.nextDouble();
-        System.out.print("Enter Minimum Order Amount: ");
+        out.print("Enter Minimum Order Amount: ");
         double min = sc.nextDouble();
         admin.addRestaurant(id, name, address, phone, cuisine, dtime, dfee, min);
     }
 
     private static void updateRestaurant(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int id = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter New Name: ");
+        out.print("Enter New Name: ");
         String name = sc.nextLine();
-        System.out.print("Enter New Address: ");
+        out.print("Enter New Address: ");
         String address = sc.nextLine();
-        System.out.print("Enter New Phone: ");
+        out.print("Enter New Phone: ");
         String phone = sc.nextLine();
-        System.out.print("Enter New Cuisine: ");
+        out.print("Enter New Cuisine: ");
         String cuisine = sc.nextLine();
         admin.updateRestaurant(id, name, address, phone, cuisine);
     }
 
     private static void addFoodItemBasic(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int rid = sc.nextInt();
-        System.out.print("Enter Food ID: ");
+        out.print("Enter Food ID: ");
         int fid = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter Food Name: ");
+        out.print("Enter Food Name: ");
         String fname = sc.nextLine();
-        System.out.print("Enter Price: ");
+        out.print("Enter Price: ");
         double price = sc.nextDouble();
         admin.addFoodItemToRestaurant(rid, fid, fname, price);
     }
 
     private static void addFoodItemFull(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int rid = sc.nextInt();
-        System.out.print("Enter Food ID: ");
+        out.print("Enter Food ID: ");
         int fid = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter Food Name: ");
+        out.print("Enter Food Name: ");
         String fname = sc.nextLine();
-        System.out.print("Enter Category: ");
+        out.print("Enter Category: ");
         String cat = sc.nextLine();
-        System.out.print("Enter Description: ");
+        out.print("Enter Description: ");
         String desc = sc.nextLine();
-        System.out.print("Enter Price: ");
+        out.print("Enter Price: ");
         double price = sc.nextDouble();
-        System.out.print("Enter Prep Time (min): ");
+        out.print("Enter Prep Time (min): ");
         int prep = sc.nextInt();
         admin.addFoodItemToRestaurant(rid, fid, fname, price, cat, desc, prep);
     }
 
     private static void updateFoodItem(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int rid = sc.nextInt();
-        System.out.print("Enter Food ID: ");
+        out.print("Enter Food ID: ");
         int fid = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter New Name: ");
+        out.print("Enter New Name: ");
         String n = sc.nextLine();
-        System.out.print("Enter New Price: ");
+        out.print("Enter New Price: ");
         double p = sc.nextDouble();
         sc.nextLine();
-        System.out.print("Enter New Category: ");
+        out.print("Enter New Category: ");
         String c = sc.nextLine();
-        System.out.print("Enter New Description: ");
+        out.print("Enter New Description: ");
         String d = sc.nextLine();
         admin.updateFoodItem(rid, fid, n, p, c, d);
     }
 
     private static void removeFoodItem(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int rid = sc.nextInt();
-        System.out.print("Enter Food ID to remove: ");
+        out.print("Enter Food ID to remove: ");
         int fid = sc.nextInt();
         admin.removeFoodItemFromRestaurant(rid, fid);
     }
 
     private static void toggleFoodItemAvailability(Scanner sc, AdminService admin) {
-        System.out.print("Enter Restaurant ID: ");
+        out.print("Enter Restaurant ID: ");
         int rid = sc.nextInt();
-        System.out.print("Enter Food ID: ");
+        out.print("Enter Food ID: ");
         int fid = sc.nextInt();
         admin.toggleFoodItemAvailability(rid, fid);
     }
 
     private static void viewOrdersByStatus(Scanner sc, OrderService orderService) {
-        System.out.print("Enter Status (Pending/Confirmed/Preparing/Out for Delivery/Delivered/Cancelled): ");
+        out.print("Enter Status (Pending/Confirmed/Preparing/Out for Delivery/Delivered/Cancelled): ");
         String status = sc.nextLine();
-        orderService.viewOrdersByStatus(status);
+        OrderStatus orderStatus = OrderStatus.fromDisplayName(status);
+        if (orderStatus == null) {
+            out.println("Invalid status: " + status);
+            return;
+        }
+        ConsoleReports.ordersByStatus(out, orderStatus, orderService.getOrdersByStatus(orderStatus));
     }
 
     private static void updateOrderStatus(Scanner sc, OrderService orderService) {
-        System.out.print("Enter Order ID: ");
+        out.print("Enter Order ID: ");
         int oid = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter New Status (Confirmed/Preparing/Out for Delivery/Delivered/Cancelled): ");
+        out.print("Enter New Status (Confirmed/Preparing/Out for Delivery/Delivered/Cancelled): ");
         String status = sc.nextLine();
         orderService.updateOrderStatus(oid, status);
     }
 
     private static void assignDeliveryPerson(Scanner sc, AdminService admin, OrderService orderService) {
-        System.out.print("Enter Order ID: ");
+        out.print("Enter Order ID: ");
         int oid = sc.nextInt();
-        System.out.print("Enter Delivery Person ID: ");
+        out.print("Enter Delivery Person ID: ");
         int did = sc.nextInt();
         DeliveryPerson dp = admin.findDeliveryPersonById(did);
         orderService.assignDeliveryPerson(oid, dp);
     }
 
     private static void addDeliveryPerson(Scanner sc, AdminService admin) {
-        System.out.print("Enter Delivery Person ID: ");
+        out.print("Enter Delivery Person ID: ");
         int id = sc.nextInt();
         sc.nextLine();
-        System.out.print("Enter Name: ");
+        out.print("Enter Name: ");
         String name = sc.nextLine();
-        System.out.print("Enter Contact: ");
+        out.print("Enter Contact: ");
         long contact = sc.nextLong();
         admin.addDeliveryPerson(id, name, contact);
     }
 
     private static void addPromotion(Scanner sc, AdminService admin) {
-        System.out.print("Enter Promo Code: ");
+        out.print("Enter Promo Code: ");
         String code = sc.nextLine();
-        System.out.print("Enter Name: ");
+        out.print("Enter Name: ");
         String name = sc.nextLine();
-        System.out.print("Enter Description: ");
+        out.print("Enter Description: ");
         String desc = sc.nextLine();
-        System.out.print("Enter Discount Percentage (0 if flat): ");
+        out.print("Enter Discount Percentage (0 if flat): ");
         double pct = sc.nextDouble();
-        System.out.print("Enter Flat Discount Amount (0 if percent): ");
+        out.print("Enter Flat Discount Amount (0 if percent): ");
         double flat = sc.nextDouble();
-        System.out.print("Enter Minimum Order Amount: ");
+        out.print("Enter Minimum Order Amount: ");
         double min = sc.nextDouble();
-        System.out.print("Valid for how many days from now?: ");
+        out.print("Valid for how many days from now?: ");
         int days = sc.nextInt();
-        System.out.print("Max Uses: ");
+        out.print("Max Uses: ");
         int max = sc.nextInt();
         admin.addPromotion(code, name, desc, pct, flat, min, days, max);
     }
 
     private static void systemAnalytics(AdminService admin, OrderService orderService) {
-        admin.viewAnalytics();
-        System.out.println();
-        orderService.viewOrderAnalytics();
+        ConsoleReports.systemReport(out, admin.getSystemReport());
+        out.println();
+        ConsoleReports.orderReport(out, orderService.getOrderReport());
+    }
+
+    // ===== Customer helpers =====
+    private static boolean askForMore(Scanner sc) {
+        out.print("Show older reviews? (y/n): ");
+        return sc.nextLine().trim().equalsIgnoreCase("y");
     }
 }
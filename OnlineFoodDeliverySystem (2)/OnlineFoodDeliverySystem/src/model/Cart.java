@@ -1,35 +1,118 @@
 package model;
 
-import java.util.HashMap;
-import java.util.Map;
+import util.Money;
 
+import java.util.Arrays;
+
+// One line per food item in parallel arrays, with the subtotal kept up to date on every change.
+// Carts hold a handful of lines, so lookups scan the int food IDs rather than hashing.
+// The unit price is fixed when an item is first added, so the subtotal never needs recomputing.
+// Prices and the subtotal are in paise.
 public class Cart {
-    private Map<FoodItem, Integer> items = new HashMap<>();
+    private static final int INITIAL_CAPACITY = 4;
+
+    private FoodItem[] items = new FoodItem[INITIAL_CAPACITY];
+    private int[] foodIds = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private long[] unitPrices = new long[INITIAL_CAPACITY];
+    private int size;
+    private long subtotal;
 
     public void addItem(FoodItem foodItem, int quantity) {
-        items.put(foodItem, items.getOrDefault(foodItem, 0) + quantity);
+        int i = indexOf(foodItem);
+        if (i < 0) {
+            if (size == items.length) grow();
+            i = size++;
+            items[i] = foodItem;
+            foodIds[i] = foodItem.getId();
+            unitPrices[i] = foodItem.getPricePaise();
+        }
+        quantities[i] += quantity;
+        subtotal += unitPrices[i] * quantity;
+    }
+
+    // Returns false if the item was not in the cart
+    public boolean removeItem(FoodItem foodItem) {
+        int i = indexOf(foodItem);
+        if (i < 0) return false;
+        subtotal -= unitPrices[i] * quantities[i];
+        int tail = size - i - 1;
+        System.arraycopy(items, i + 1, items, i, tail);
+        System.arraycopy(foodIds, i + 1, foodIds, i, tail);
+        System.arraycopy(quantities, i + 1, quantities, i, tail);
+        System.arraycopy(unitPrices, i + 1, unitPrices, i, tail);
+        size--;
+        items[size] = null;
+        quantities[size] = 0;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        Arrays.fill(quantities, 0, size, 0);
+        size = 0;
+        subtotal = 0;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public long getSubtotalPaise() { return subtotal; }
+
+    // Line accessors, 0 <= line < size()
+    public FoodItem getItem(int line) { return items[checkLine(line)]; }
+    public int getFoodId(int line) { return foodIds[checkLine(line)]; }
+    public int getQuantity(int line) { return quantities[checkLine(line)]; }
+    public long getUnitPricePaise(int line) { return unitPrices[checkLine(line)]; }
+
+    public int getQuantity(FoodItem foodItem) {
+        int i = indexOf(foodItem);
+        return i < 0 ? 0 : quantities[i];
+    }
+
+    // The restaurant every item comes from, or -1 if the cart is empty or mixes restaurants
+    public int getRestaurantId() {
+        int restaurantId = -1;
+        for (int i = 0; i < size; i++) {
+            Restaurant r = items[i].getRestaurant();
+            if (r == null || (restaurantId != -1 && r.getId() != restaurantId)) return -1;
+            restaurantId = r.getId();
+        }
+        return restaurantId;
+    }
+
+    // Food IDs are only unique within a restaurant, so the item itself must match too
+    private int indexOf(FoodItem foodItem) {
+        int id = foodItem.getId();
+        for (int i = 0; i < size; i++) {
+            if (foodIds[i] == id && items[i] == foodItem) return i;
+        }
+        return -1;
     }
 
-    public void removeItem(FoodItem foodItem) {
-        items.remove(foodItem);
+    private int checkLine(int line) {
+        if (line < 0 || line >= size) throw new IndexOutOfBoundsException("line " + line + ", size " + size);
+        return line;
     }
 
-    public Map<FoodItem, Integer> getItems() {
-        return items;
+    private void grow() {
+        int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        foodIds = Arrays.copyOf(foodIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        unitPrices = Arrays.copyOf(unitPrices, capacity);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Cart:\n");
-        double total = 0;
-        for (Map.Entry<FoodItem, Integer> e : items.entrySet()) {
-            double cost = e.getKey().getPrice() * e.getValue();
-            total += cost;
-            sb.append("Food Item: ").append(e.getKey().getName())
-              .append(", Quantity: ").append(e.getValue())
-              .append(", Cost: Rs. ").append(cost).append("\n");
+        for (int i = 0; i < size; i++) {
+            sb.append("Food Item: ").append(items[i].getName())
+              .append(", Quantity: ").append(quantities[i])
+              .append(", Cost: Rs. ");
+            Money.appendTo(sb, unitPrices[i] * quantities[i]).append("\n");
         }
-        sb.append("Total Cost: Rs. ").append(total);
+        sb.append("Total Cost: Rs. ");
+        Money.appendTo(sb, subtotal);
         return sb.toString();
     }
 }
@@ -0,0 +1,14 @@
+package model;
+
+// Told about changes to a restaurant or its menu items that indexes kept outside the model
+// (leaderboards) depend on. Set on a restaurant by the service that registers it; its food
+// items report through their restaurant. Called on the thread that made the change.
+public interface CatalogListener {
+    // The restaurant's rating or cuisine changed
+    void restaurantChanged(Restaurant restaurant);
+
+    // A rating was added to one of the restaurant's food items
+    void foodItemRated(Restaurant restaurant, FoodItem item);
+    // The name, category or description of one of the restaurant's food items changed
+    void foodItemEdited(Restaurant restaurant, FoodItem item);
+}
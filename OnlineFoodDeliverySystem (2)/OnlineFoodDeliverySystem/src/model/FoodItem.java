@@ -1,36 +1,35 @@
 package model;
 
+import util.AtomicRating;
+import util.Money;
+
 public class FoodItem {
     private int id;
     private String name;
-    private double price;
+    private long pricePaise;
     private String category;
     private String description;
-    private double rating;
-    private int reviewCount;
+    private final AtomicRating rating = new AtomicRating();
     private boolean isAvailable;
     private int preparationTime; // in minutes
+    private Restaurant restaurant; // owning restaurant, notified so its menu index stays current
 
-    public FoodItem(int id, String name, double price) {
+    public FoodItem(int id, String name, long pricePaise) {
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.pricePaise = pricePaise;
         this.category = "General";
         this.description = "Delicious food item";
-        this.rating = 0.0;
-        this.reviewCount = 0;
         this.isAvailable = true;
         this.preparationTime = 15;
     }
 
-    public FoodItem(int id, String name, double price, String category, String description, int preparationTime) {
+    public FoodItem(int id, String name, long pricePaise, String category, String description, int preparationTime) {
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.pricePaise = pricePaise;
         this.category = category;
         this.description = description;
-        this.rating = 0.0;
-        this.reviewCount = 0;
         this.isAvailable = true;
         this.preparationTime = preparationTime;
     }
@@ -38,40 +37,59 @@ public class FoodItem {
     // Getters
     public int getId() { return id; }
     public String getName() { return name; }
-    public double getPrice() { return price; }
+    public long getPricePaise() { return pricePaise; }
     public String getCategory() { return category; }
     public String getDescription() { return description; }
-    public double getRating() { return rating; }
-    public int getReviewCount() { return reviewCount; }
+    public double getRating() { return rating.average(); }
+    public int getReviewCount() { return rating.count(); }
     public boolean isAvailable() { return isAvailable; }
     public int getPreparationTime() { return preparationTime; }
+    public Restaurant getRestaurant() { return restaurant; }
 
     // Setters
-    public void setName(String name) { this.name = name; }
-    public void setPrice(double price) { this.price = price; }
-    public void setCategory(String category) { this.category = category; }
-    public void setDescription(String description) { this.description = description; }
-    public void setAvailable(boolean available) { this.isAvailable = available; }
+    public void setName(String name) {
+        this.name = name;
+        if (restaurant != null) restaurant.onFoodItemEdited(this);
+    }
+
+    public void setPricePaise(long pricePaise) { this.pricePaise = pricePaise; }
+    public void setCategory(String category) {
+        String oldCategory = this.category;
+        this.category = category;
+        if (restaurant != null) restaurant.onCategoryChanged(this, oldCategory);
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        if (restaurant != null) restaurant.onFoodItemEdited(this);
+    }
+
+    public void setAvailable(boolean available) {
+        this.isAvailable = available;
+        if (restaurant != null) restaurant.onAvailabilityChanged(this);
+    }
+
     public void setPreparationTime(int preparationTime) { this.preparationTime = preparationTime; }
 
+    void setRestaurant(Restaurant restaurant) { this.restaurant = restaurant; }
+
     // Rating methods
     public void addRating(double newRating) {
         if (newRating >= 1.0 && newRating <= 5.0) {
-            double totalRating = rating * reviewCount + newRating;
-            reviewCount++;
-            rating = totalRating / reviewCount;
+            rating.add(newRating);
+            Restaurant r = restaurant;
+            if (r != null) r.onFoodItemRated(this);
         }
     }
 
     public String getRatingDisplay() {
-        if (reviewCount == 0) return "No ratings yet";
-        return String.format("%.1f/5.0 (%d reviews)", rating, reviewCount);
+        return TextRenderer.appendRating(new StringBuilder(24), rating.snapshot()).toString();
     }
 
     @Override
     public String toString() {
-        return String.format("FoodItem{id=%d, name='%s', price=%.2f, category='%s', rating=%.1f, available=%s, prepTime=%dmin}", 
-                           id, name, price, category, rating, isAvailable, preparationTime);
+        return String.format("FoodItem{id=%d, name='%s', price=%s, category='%s', rating=%.1f, available=%s, prepTime=%dmin}", 
+                           id, name, Money.format(pricePaise), category, rating.average(), isAvailable, preparationTime);
     }
 
     @Override
@@ -0,0 +1,70 @@
+package model;
+
+import util.IntHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// A restaurant's menu indexed by food ID, by case-folded category and by availability.
+// All query results are read-only views, nothing is copied per call.
+class MenuIndex {
+    private final List<FoodItem> items = new ArrayList<>();
+    private final List<FoodItem> itemsView = Collections.unmodifiableList(items);
+    private final IntHashMap<FoodItem> byId = new IntHashMap<>();
+    private final Map<String, Bucket> byCategory = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Bucket available = new Bucket();
+
+    private static class Bucket {
+        final List<FoodItem> items = new ArrayList<>();
+        final List<FoodItem> view = Collections.unmodifiableList(items);
+    }
+
+    boolean add(FoodItem item) {
+        if (byId.putIfAbsent(item.getId(), item) != null) return false;
+        items.add(item);
+        byCategory.computeIfAbsent(item.getCategory(), c -> new Bucket()).items.add(item);
+        if (item.isAvailable()) available.items.add(item);
+        return true;
+    }
+
+    FoodItem remove(int id) {
+        FoodItem item = byId.remove(id);
+        if (item == null) return null;
+        items.remove(item);
+        Bucket bucket = byCategory.get(item.getCategory());
+        if (bucket != null) bucket.items.remove(item);
+        available.items.remove(item);
+        return item;
+    }
+
+    FoodItem get(int id) {
+        return byId.get(id);
+    }
+
+    List<FoodItem> all() {
+        return itemsView;
+    }
+
+    List<FoodItem> byCategory(String category) {
+        Bucket bucket = byCategory.get(category);
+        return bucket != null ? bucket.view : Collections.emptyList();
+    }
+
+    List<FoodItem> available() {
+        return available.view;
+    }
+
+    void categoryChanged(FoodItem item, String oldCategory) {
+        Bucket old = byCategory.get(oldCategory);
+        if (old != null) old.items.remove(item);
+        byCategory.computeIfAbsent(item.getCategory(), c -> new Bucket()).items.add(item);
+    }
+
+    void availabilityChanged(FoodItem item) {
+        available.items.remove(item);
+        if (item.isAvailable()) available.items.add(item);
+    }
+}
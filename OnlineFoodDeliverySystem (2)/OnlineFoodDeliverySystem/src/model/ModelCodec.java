@@ -0,0 +1,288 @@
+package model;
+
+import util.CompactReader;
+import util.CompactWriter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Binary layouts of the model objects, written with CompactWriter and read with CompactReader.
+// This is the format of the order log and of snapshots. Fields are written in a fixed order with
+// no names or tags; IDs, counts and amounts are varints, times are epoch millis (later times as a
+// delta from an earlier one) and strings go through the writer's dictionary.
+//
+// A restaurant is written with its menu. An order or review refers to its customer, restaurant,
+// food item, delivery person and promotion by ID or code; References turns those back into live
+// objects. Ratings are not part of a restaurant or food item, they follow from the reviews.
+public final class ModelCodec {
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int RESTAURANT_REVIEW = 1;
+    private static final int FOOD_ITEM_REVIEW = 2;
+
+    // Each lookup returns null for an ID or code it doesn't know, or throws if that can't happen
+    public interface References {
+        // The customer with this ID, registering it if it isn't known yet
+        Customer customer(int userId, String username, long contactNo);
+        Restaurant restaurant(int id);
+        DeliveryPerson deliveryPerson(int id);
+        Promotion promotion(String promoCode);
+
+        // The restaurant's menu item with this ID; restaurant is what restaurant(int) returned
+        default FoodItem foodItem(Restaurant restaurant, int foodId) {
+            return restaurant != null ? restaurant.findFoodItemById(foodId) : null;
+        }
+    }
+
+    private ModelCodec() {
+    }
+
+    public static void writeFoodItem(CompactWriter w, FoodItem item) {
+        w.writeVarInt(item.getId());
+        w.writeString(item.getName());
+        w.writeVarLong(item.getPricePaise());
+        w.writeString(item.getCategory());
+        w.writeString(item.getDescription());
+        w.writeBoolean(item.isAvailable());
+        w.writeVarInt(item.getPreparationTime());
+    }
+
+    public static FoodItem readFoodItem(CompactReader r) {
+        FoodItem item = new FoodItem(r.readVarInt(), r.readString(), r.readVarLong(), r.readString(), r.readString(), 0);
+        item.setAvailable(r.readBoolean());
+        item.setPreparationTime(r.readVarInt());
+        return item;
+    }
+
+    public static void writeRestaurant(CompactWriter w, Restaurant restaurant) {
+        w.writeVarInt(restaurant.getId());
+        w.writeString(restaurant.getName());
+        w.writeString(restaurant.getAddress());
+        w.writeString(restaurant.getPhoneNumber());
+        w.writeString(restaurant.getCuisineType());
+        w.writeBoolean(restaurant.isOpen());
+        w.writeVarInt(restaurant.getDeliveryTime());
+        w.writeVarLong(restaurant.getDeliveryFeePaise());
+        w.writeVarLong(restaurant.getMinimumOrderPaise());
+        w.writeVarInt(restaurant.getMenu().size());
+        for (FoodItem item : restaurant.getMenu()) {
+            writeFoodItem(w, item);
+        }
+    }
+
+    public static Restaurant readRestaurant(CompactReader r) {
+        Restaurant restaurant = new Restaurant(r.readVarInt(), r.readString(), r.readString(), r.readString(),
+                                               r.readString(), 0, 0, 0);
+        restaurant.setOpen(r.readBoolean());
+        restaurant.setDeliveryTime(r.readVarInt());
+        restaurant.setDeliveryFeePaise(r.readVarLong());
+        restaurant.setMinimumOrderPaise(r.readVarLong());
+        for (int n = r.readVarInt(); n > 0; n--) {
+            restaurant.addFoodItem(readFoodItem(r));
+        }
+        return restaurant;
+    }
+
+    public static void writeDeliveryPerson(CompactWriter w, DeliveryPerson deliveryPerson) {
+        w.writeVarInt(deliveryPerson.getDeliveryPersonId());
+        w.writeString(deliveryPerson.getName());
+        w.writeVarLong(deliveryPerson.getContactNo());
+    }
+
+    public static DeliveryPerson readDeliveryPerson(CompactReader r) {
+        return new DeliveryPerson(r.readVarInt(), r.readString(), r.readVarLong());
+    }
+
+    public static void writeCustomer(CompactWriter w, Customer customer) {
+        w.writeVarInt(customer.getUserId());
+        w.writeString(customer.getUsername());
+        w.writeVarLong(customer.getContactNo());
+    }
+
+    public static Customer readCustomer(CompactReader r, References refs) {
+        return refs.customer(r.readVarInt(), r.readString(), r.readVarLong());
+    }
+
+    // Use counts aren't written: they follow from the orders that used the promotion
+    public static void writePromotion(CompactWriter w, Promotion promotion) {
+        w.writeVarInt(promotion.getPromotionId());
+        w.writeString(promotion.getName());
+        w.writeString(promotion.getDescription());
+        w.writeString(promotion.getPromoCode());
+        w.writeVarInt(promotion.getDiscountBasisPoints());
+        w.writeVarLong(promotion.getDiscountAmountPaise());
+        w.writeVarLong(promotion.getMinimumOrderPaise());
+        w.writeSignedVarLong(promotion.getStartMillis());
+        w.writeSignedVarLong(promotion.getEndMillis() - promotion.getStartMillis());
+        w.writeBoolean(promotion.isActive());
+        w.writeVarInt(promotion.getMaxUses());
+        // 0 for all restaurants, otherwise the count + 1 and the ascending IDs as gaps
+        int[] restaurantIds = promotion.getApplicableRestaurantIds();
+        w.writeVarInt(restaurantIds == null ? 0 : restaurantIds.length + 1);
+        if (restaurantIds != null) {
+            int previous = 0;
+            for (int id : restaurantIds) {
+                w.writeVarInt(id - previous);
+                previous = id;
+            }
+        }
+    }
+
+    public static Promotion readPromotion(CompactReader r) {
+        int id = r.readVarInt();
+        String name = r.readString();
+        String description = r.readString();
+        String promoCode = r.readString();
+        int discountBasisPoints = r.readVarInt();
+        long discountAmountPaise = r.readVarLong();
+        long minimumOrderPaise = r.readVarLong();
+        long startMillis = r.readSignedVarLong();
+        long endMillis = startMillis + r.readSignedVarLong();
+        boolean active = r.readBoolean();
+        int maxUses = r.readVarInt();
+        int count = r.readVarInt() - 1;
+        int[] restaurantIds = null;
+        if (count >= 0) {
+            restaurantIds = new int[count];
+            int previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += r.readVarInt();
+                restaurantIds[i] = previous;
+            }
+        }
+        Promotion promotion = new Promotion(id, name, description, promoCode, discountBasisPoints, discountAmountPaise,
+                                            minimumOrderPaise, toDateTime(startMillis), toDateTime(endMillis),
+                                            maxUses, restaurantIds);
+        promotion.setActive(active);
+        return promotion;
+    }
+
+    // The whole order as it stands: placement details, lines, amounts charged and lifecycle state
+    public static void writeOrder(CompactWriter w, Order order) {
+        w.writeVarInt(order.getOrderId());
+        w.writeSignedVarLong(order.getOrderTimeMillis());
+        writeCustomer(w, order.getCustomer());
+        w.writeString(order.getDeliveryAddress());
+        w.writeString(order.getPaymentMethod());
+        w.writeString(order.getSpecialInstructions());
+        w.writeVarLong(order.getSubtotalPaise());
+        w.writeVarLong(order.getDeliveryFeePaise());
+        w.writeVarLong(order.getTaxPaise());
+        w.writeVarLong(order.getDiscountPaise());
+        w.writeString(order.getPromotion() != null ? order.getPromotion().getPromoCode() : null);
+        w.writeByte(order.getStatus().ordinal());
+        DeliveryPerson deliveryPerson = order.getDeliveryPerson();
+        w.writeVarInt(deliveryPerson != null ? deliveryPerson.getDeliveryPersonId() + 1 : 0);
+        w.writeSignedVarLong(toEpochMillis(order.getEstimatedDeliveryTime()) - order.getOrderTimeMillis());
+
+        OrderLines lines = order.getLines();
+        w.writeVarInt(lines.getRestaurantId() + 1);
+        w.writeBoolean(lines.spansRestaurants());
+        w.writeVarInt(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.spansRestaurants()) w.writeVarInt(lines.getRestaurantId(i));
+            w.writeVarInt(lines.getFoodId(i));
+            w.writeVarInt(lines.getQuantity(i));
+            w.writeVarLong(lines.getUnitPricePaise(i));
+            w.writeString(lines.getName(i));
+        }
+    }
+
+    // The discount charged is kept even if the references return no promotion for the code
+    public static Order readOrder(CompactReader r, References refs) {
+        int orderId = r.readVarInt();
+        long orderTimeMillis = r.readSignedVarLong();
+        Customer customer = readCustomer(r, refs);
+        String deliveryAddress = r.readString();
+        String paymentMethod = r.readString();
+        String specialInstructions = r.readString();
+        long subtotal = r.readVarLong();
+        long deliveryFee = r.readVarLong();
+        long tax = r.readVarLong();
+        long discount = r.readVarLong();
+        String promoCode = r.readString();
+        OrderStatus status = status(r.readByte());
+        int deliveryPersonId = r.readVarInt() - 1;
+        long estimatedDeliveryMillis = orderTimeMillis + r.readSignedVarLong();
+
+        int restaurantId = r.readVarInt() - 1;
+        boolean spans = r.readBoolean();
+        int count = r.readVarInt();
+        int[] restaurantIds = spans ? new int[count] : null;
+        int[] foodIds = new int[count];
+        int[] quantities = new int[count];
+        long[] unitPrices = new long[count];
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (spans) restaurantIds[i] = r.readVarInt();
+            foodIds[i] = r.readVarInt();
+            quantities[i] = r.readVarInt();
+            unitPrices[i] = r.readVarLong();
+            names[i] = r.readString();
+        }
+
+        OrderLines lines = OrderLines.restore(restaurantId, restaurantIds, foodIds, quantities, unitPrices, names);
+        Order order = Order.restore(orderId, customer, lines, deliveryAddress, paymentMethod, specialInstructions,
+                                    orderTimeMillis, subtotal, deliveryFee, tax);
+        Promotion promotion = promoCode != null ? refs.promotion(promoCode) : null;
+        if (promotion != null || discount != 0) {
+            order.applyPromotion(promotion, discount);
+        }
+        order.restoreState(status, deliveryPersonId >= 0 ? refs.deliveryPerson(deliveryPersonId) : null,
+                           toDateTime(estimatedDeliveryMillis));
+        return order;
+    }
+
+    public static void writeReview(CompactWriter w, Review review) {
+        w.writeVarInt(review.getReviewId());
+        writeCustomer(w, review.getCustomer());
+        FoodItem item = review.getFoodItem();
+        if (review.getRestaurant() != null) {
+            w.writeByte(RESTAURANT_REVIEW);
+            w.writeVarInt(review.getRestaurant().getId());
+        } else if (item != null && item.getRestaurant() != null) {
+            w.writeByte(FOOD_ITEM_REVIEW);
+            w.writeVarInt(item.getRestaurant().getId());
+            w.writeVarInt(item.getId());
+        } else {
+            w.writeByte(0);
+        }
+        w.writeDouble(review.getRating());
+        w.writeString(review.getComment());
+        w.writeSignedVarLong(toEpochMillis(review.getReviewDate()));
+        w.writeBoolean(review.isVerified());
+    }
+
+    // A review whose food item had already been removed when it was written has no target
+    public static Review readReview(CompactReader r, References refs) {
+        int reviewId = r.readVarInt();
+        Customer customer = readCustomer(r, refs);
+        int kind = r.readByte();
+        Restaurant restaurant = kind != 0 ? refs.restaurant(r.readVarInt()) : null;
+        FoodItem item = null;
+        if (kind == FOOD_ITEM_REVIEW) {
+            item = refs.foodItem(restaurant, r.readVarInt());
+        }
+        double rating = r.readDouble();
+        String comment = r.readString();
+        Review review = kind == FOOD_ITEM_REVIEW
+                ? new Review(reviewId, customer, item, rating, comment)
+                : new Review(reviewId, customer, restaurant, rating, comment);
+        review.setReviewDate(toDateTime(r.readSignedVarLong()));
+        review.setVerified(r.readBoolean());
+        return review;
+    }
+
+    public static OrderStatus status(int ordinal) {
+        if (ordinal < 0 || ordinal >= STATUSES.length) throw new IllegalStateException("unknown order status " + ordinal);
+        return STATUSES[ordinal];
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -1,22 +1,36 @@
 package model;
 
+import util.Money;
+import util.TextFormat;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public class Order {
+    private static final long TAX_BASIS_POINTS = 1_000; // 10%
+    private static final long DEFAULT_DELIVERY_FEE_PAISE = 2_500;
+
+    private static final AtomicReferenceFieldUpdater<Order, OrderStatus> STATUS =
+            AtomicReferenceFieldUpdater.newUpdater(Order.class, OrderStatus.class, "status");
+
     private int orderId;
     private Customer customer;
-    private Map<FoodItem, Integer> items;
-    private String status;
+    // Cart lines at order time; unit prices are the ones the customer was charged
+    private OrderLines lines;
+    private volatile OrderStatus status;
     private DeliveryPerson deliveryPerson;
     private String deliveryAddress;
     private String paymentMethod;
-    private double subtotal;
-    private double deliveryFee;
-    private double tax;
-    private double totalAmount;
+    // Amounts in paise
+    private long subtotal;
+    private long deliveryFee;
+    private long tax;
+    private long discount;
+    private Promotion promotion;
+    private long totalAmount;
+    private long orderTimeMillis; // epoch millis, what the time index is keyed on
     private LocalDateTime orderTime;
     private LocalDateTime estimatedDeliveryTime;
     private String specialInstructions;
@@ -25,10 +39,11 @@ public class Order {
     public Order(int orderId, Customer customer) {
         this.orderId = orderId;
         this.customer = customer;
-        this.items = new HashMap<>(customer.getCart().getItems());
-        this.status = "Pending";
+        this.lines = OrderLines.of(customer.getCart());
+        this.status = OrderStatus.PENDING;
         this.paymentMethod = "Cash on Delivery";
-        this.orderTime = LocalDateTime.now();
+        this.orderTimeMillis = System.currentTimeMillis();
+        this.orderTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(orderTimeMillis), ZoneId.systemDefault());
         this.estimatedDeliveryTime = orderTime.plusMinutes(30);
         this.specialInstructions = "";
         this.trackingNumber = generateTrackingNumber();
@@ -38,132 +53,154 @@ public class Order {
     public Order(int orderId, Customer customer, String deliveryAddress, String paymentMethod, String specialInstructions) {
         this.orderId = orderId;
         this.customer = customer;
-        this.items = new HashMap<>(customer.getCart().getItems());
-        this.status = "Pending";
+        this.lines = OrderLines.of(customer.getCart());
+        this.status = OrderStatus.PENDING;
         this.deliveryAddress = deliveryAddress;
         this.paymentMethod = paymentMethod;
-        this.orderTime = LocalDateTime.now();
+        this.orderTimeMillis = System.currentTimeMillis();
+        this.orderTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(orderTimeMillis), ZoneId.systemDefault());
         this.estimatedDeliveryTime = orderTime.plusMinutes(30);
         this.specialInstructions = specialInstructions;
         this.trackingNumber = generateTrackingNumber();
         calculateAmounts();
     }
 
+    private Order(int orderId, Customer customer, OrderLines lines, long orderTimeMillis) {
+        this.orderId = orderId;
+        this.customer = customer;
+        this.lines = lines;
+        this.status = OrderStatus.PENDING;
+        this.orderTimeMillis = orderTimeMillis;
+        this.orderTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(orderTimeMillis), ZoneId.systemDefault());
+        this.estimatedDeliveryTime = orderTime.plusMinutes(30);
+        this.trackingNumber = generateTrackingNumber();
+    }
+
+    // Rebuilds a placed order read back from storage, still PENDING; amounts are the ones charged
+    public static Order restore(int orderId, Customer customer, OrderLines lines, String deliveryAddress,
+                                String paymentMethod, String specialInstructions, long orderTimeMillis,
+                                long subtotal, long deliveryFee, long tax) {
+        Order order = new Order(orderId, customer, lines, orderTimeMillis);
+        order.deliveryAddress = deliveryAddress;
+        order.paymentMethod = paymentMethod;
+        order.specialInstructions = specialInstructions;
+        order.subtotal = subtotal;
+        order.deliveryFee = deliveryFee;
+        order.tax = tax;
+        order.totalAmount = subtotal + tax + deliveryFee;
+        return order;
+    }
+
+    // Lifecycle state of an order read back by ModelCodec
+    void restoreState(OrderStatus status, DeliveryPerson deliveryPerson, LocalDateTime estimatedDeliveryTime) {
+        this.status = status;
+        this.deliveryPerson = deliveryPerson;
+        this.estimatedDeliveryTime = estimatedDeliveryTime;
+    }
+
     // Getters
     public int getOrderId() { return orderId; }
     public Customer getCustomer() { return customer; }
-    public Map<FoodItem, Integer> getItems() { return items; }
-    public String getStatus() { return status; }
+    public OrderLines getLines() { return lines; }
+    public OrderStatus getStatus() { return status; }
     public DeliveryPerson getDeliveryPerson() { return deliveryPerson; }
     public String getDeliveryAddress() { return deliveryAddress; }
     public String getPaymentMethod() { return paymentMethod; }
-    public double getSubtotal() { return subtotal; }
-    public double getDeliveryFee() { return deliveryFee; }
-    public double getTax() { return tax; }
-    public double getTotalAmount() { return totalAmount; }
+    public long getSubtotalPaise() { return subtotal; }
+    public long getDeliveryFeePaise() { return deliveryFee; }
+    public long getTaxPaise() { return tax; }
+    public long getDiscountPaise() { return discount; }
+    public Promotion getPromotion() { return promotion; }
+    public long getTotalPaise() { return totalAmount; }
     public LocalDateTime getOrderTime() { return orderTime; }
+    public long getOrderTimeMillis() { return orderTimeMillis; }
     public LocalDateTime getEstimatedDeliveryTime() { return estimatedDeliveryTime; }
     public String getSpecialInstructions() { return specialInstructions; }
     public String getTrackingNumber() { return trackingNumber; }
 
     // Setters
+    // A delivered or cancelled order keeps the delivery time it ended with
     public void setDeliveryPerson(DeliveryPerson dp) { 
         this.deliveryPerson = dp; 
-        if (dp != null) {
+        if (dp != null && !status.isTerminal()) {
             this.estimatedDeliveryTime = orderTime.plusMinutes(30);
         }
     }
     
-    public void setStatus(String status) { 
-        this.status = status; 
-        if ("Delivered".equals(status)) {
-            this.estimatedDeliveryTime = LocalDateTime.now();
+    // Moves to the next status if the lifecycle allows it, using compare-and-set so racing
+    // updates (e.g. cancel vs. deliver) cannot both win. Returns the replaced status, or null if rejected.
+    public OrderStatus transitionTo(OrderStatus next) {
+        while (true) {
+            OrderStatus current = status;
+            if (!current.canTransitionTo(next)) {
+                return null;
+            }
+            if (STATUS.compareAndSet(this, current, next)) {
+                if (next == OrderStatus.DELIVERED) {
+                    this.estimatedDeliveryTime = LocalDateTime.now();
+                }
+                return current;
+            }
         }
     }
     
+    // Called at checkout, once the promotion's use has been reserved
+    public void applyPromotion(Promotion promotion, long discount) {
+        this.promotion = promotion;
+        this.discount = discount;
+        this.totalAmount = subtotal + tax + deliveryFee - discount;
+    }
+
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
     public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; }
+    public void setEstimatedDeliveryTime(LocalDateTime estimatedDeliveryTime) { this.estimatedDeliveryTime = estimatedDeliveryTime; }
 
     // Business logic methods
+    // From the copied lines, so the subtotal always matches the lines that are logged and rendered
     private void calculateAmounts() {
-        subtotal = 0.0;
-        for (Map.Entry<FoodItem, Integer> entry : items.entrySet()) {
-            subtotal += entry.getKey().getPrice() * entry.getValue();
-        }
+        subtotal = lines.getSubtotalPaise();
         
-        // Calculate tax (assuming 10% tax)
-        tax = subtotal * 0.10;
+        // Calculate tax (10%, rounded to the nearest paisa)
+        tax = Money.percentOf(subtotal, TAX_BASIS_POINTS);
         
         // Delivery fee (can be customized per restaurant)
-        deliveryFee = 25.0; // Default delivery fee
+        deliveryFee = DEFAULT_DELIVERY_FEE_PAISE;
         
         totalAmount = subtotal + tax + deliveryFee;
     }
 
     private String generateTrackingNumber() {
-        return "ORD" + String.format("%06d", orderId) + orderTime.format(DateTimeFormatter.ofPattern("MMdd"));
+        return TextRenderer.trackingNumber(orderId, orderTime);
     }
 
     public boolean canBeCancelled() {
-        return "Pending".equals(status) || "Confirmed".equals(status);
+        return status.canBeCancelled();
     }
 
     public boolean isDelivered() {
-        return "Delivered".equals(status);
+        return status == OrderStatus.DELIVERED;
     }
 
     public String getFormattedOrderTime() {
-        return orderTime.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"));
+        return TextFormat.formatDateTime(orderTime);
     }
 
     public String getFormattedDeliveryTime() {
-        return estimatedDeliveryTime.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"));
+        return TextFormat.formatDateTime(estimatedDeliveryTime);
     }
 
     public String getStatusWithEmoji() {
-        return status;
+        return status.getDisplayName();
     }
 
     @Override
     public String toString() {
-        return String.format("Order{orderId=%d, customer=%s, status='%s', total=%.2f, tracking=%s}", 
-                           orderId, customer.getUsername(), status, totalAmount, trackingNumber);
+        return String.format("Order{orderId=%d, customer=%s, status='%s', total=%s, tracking=%s}", 
+                           orderId, customer.getUsername(), status.getDisplayName(), Money.format(totalAmount), trackingNumber);
     }
 
     public String getDetailedString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("==========================================\n");
-        sb.append("Order ID: ").append(orderId).append("\n");
-        sb.append("Tracking Number: ").append(trackingNumber).append("\n");
-        sb.append("Customer: ").append(customer.getUsername()).append("\n");
-        sb.append("Contact: ").append(customer.getContactNo()).append("\n");
-        sb.append("Delivery Address: ").append(deliveryAddress != null ? deliveryAddress : "Not specified").append("\n");
-        sb.append("Payment Method: ").append(paymentMethod).append("\n");
-        sb.append("Special Instructions: ").append(specialInstructions.isEmpty() ? "None" : specialInstructions).append("\n");
-        sb.append("Items:\n");
-        
-        for (Map.Entry<FoodItem, Integer> entry : items.entrySet()) {
-            double itemTotal = entry.getKey().getPrice() * entry.getValue();
-            sb.append("   - ").append(entry.getKey().getName())
-              .append(" x ").append(entry.getValue())
-              .append(" = Rs. ").append(String.format("%.2f", itemTotal)).append("\n");
-        }
-        
-        sb.append("Subtotal: Rs. ").append(String.format("%.2f", subtotal)).append("\n");
-        sb.append("Delivery Fee: Rs. ").append(String.format("%.2f", deliveryFee)).append("\n");
-        sb.append("Tax (10%): Rs. ").append(String.format("%.2f", tax)).append("\n");
-        sb.append("Total Amount: Rs. ").append(String.format("%.2f", totalAmount)).append("\n");
-        sb.append("Status: ").append(getStatusWithEmoji()).append("\n");
-        sb.append("Order Time: ").append(getFormattedOrderTime()).append("\n");
-        sb.append("Estimated Delivery: ").append(getFormattedDeliveryTime()).append("\n");
-        
-        if (deliveryPerson != null) {
-            sb.append("Delivery Person: ").append(deliveryPerson.getName())
-              .append(" (").append(deliveryPerson.getContactNo()).append(")\n");
-        }
-        
-        sb.append("==========================================");
-        return sb.toString();
+        return TextRenderer.appendOrder(new StringBuilder(512), this).toString();
     }
 }
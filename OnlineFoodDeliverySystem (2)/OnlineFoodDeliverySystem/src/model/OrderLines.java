@@ -0,0 +1,95 @@
+package model;
+
+import util.Money;
+
+// The items of a placed order, copied out of the cart into parallel arrays and never changed
+// afterwards. Only IDs, quantities, unit prices (paise) and names are kept, not the FoodItems,
+// so a later price or name change on the menu doesn't alter how past orders read, and a
+// retained order doesn't keep menu objects alive.
+public final class OrderLines {
+    static final OrderLines EMPTY = new OrderLines(-1, null, new int[0], new int[0], new long[0], new String[0]);
+
+    // Restaurant of every line, or -1 with per-line IDs in restaurantIds when the cart mixed restaurants
+    private final int restaurantId;
+    private final int[] restaurantIds;
+    private final int[] foodIds;
+    private final int[] quantities;
+    private final long[] unitPrices;
+    private final String[] names;
+
+    private OrderLines(int restaurantId, int[] restaurantIds, int[] foodIds, int[] quantities,
+                       long[] unitPrices, String[] names) {
+        this.restaurantId = restaurantId;
+        this.restaurantIds = restaurantIds;
+        this.foodIds = foodIds;
+        this.quantities = quantities;
+        this.unitPrices = unitPrices;
+        this.names = names;
+    }
+
+    public static OrderLines of(Cart cart) {
+        int size = cart.size();
+        if (size == 0) return EMPTY;
+        int restaurantId = cart.getRestaurantId();
+        int[] restaurantIds = restaurantId == -1 ? new int[size] : null;
+        int[] foodIds = new int[size];
+        int[] quantities = new int[size];
+        long[] unitPrices = new long[size];
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            FoodItem item = cart.getItem(i);
+            if (restaurantIds != null) {
+                restaurantIds[i] = item.getRestaurant() != null ? item.getRestaurant().getId() : -1;
+            }
+            foodIds[i] = cart.getFoodId(i);
+            quantities[i] = cart.getQuantity(i);
+            unitPrices[i] = cart.getUnitPricePaise(i);
+            names[i] = item.getName();
+        }
+        return new OrderLines(restaurantId, restaurantIds, foodIds, quantities, unitPrices, names);
+    }
+
+    // Lines read back from storage; restaurantIds is null unless the order spanned restaurants
+    public static OrderLines restore(int restaurantId, int[] restaurantIds, int[] foodIds, int[] quantities,
+                                     long[] unitPrices, String[] names) {
+        if (foodIds.length == 0) return EMPTY;
+        return new OrderLines(restaurantId, restaurantIds, foodIds, quantities, unitPrices, names);
+    }
+
+    public int size() { return foodIds.length; }
+
+    public boolean spansRestaurants() { return restaurantIds != null; }
+
+    // -1 if the order spans restaurants
+    public int getRestaurantId() { return restaurantId; }
+
+    public int getRestaurantId(int line) {
+        return restaurantIds == null ? restaurantId : restaurantIds[line];
+    }
+
+    public int getFoodId(int line) { return foodIds[line]; }
+    public int getQuantity(int line) { return quantities[line]; }
+    public long getUnitPricePaise(int line) { return unitPrices[line]; }
+    public String getName(int line) { return names[line]; }
+
+    public long getLineTotalPaise(int line) {
+        return unitPrices[line] * quantities[line];
+    }
+
+    public long getSubtotalPaise() {
+        long subtotal = 0;
+        for (int i = 0; i < foodIds.length; i++) {
+            subtotal += getLineTotalPaise(i);
+        }
+        return subtotal;
+    }
+
+    // "   - Name x 2 = Rs. 598.00" per line
+    public StringBuilder appendTo(StringBuilder sb) {
+        for (int i = 0; i < foodIds.length; i++) {
+            sb.append("   - ").append(names[i]).append(" x ").append(quantities[i]).append(" = Rs. ");
+            Money.appendTo(sb, getLineTotalPaise(i)).append("\n");
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,47 @@
+package model;
+
+// Order lifecycle: Pending -> Confirmed -> Preparing -> Out for Delivery -> Delivered.
+// Steps may be skipped but never reversed; an order can be cancelled while Pending or Confirmed.
+public enum OrderStatus {
+    PENDING("Pending"),
+    CONFIRMED("Confirmed"),
+    PREPARING("Preparing"),
+    OUT_FOR_DELIVERY("Out for Delivery"),
+    DELIVERED("Delivered"),
+    CANCELLED("Cancelled");
+
+    private static final OrderStatus[] VALUES = values();
+
+    private final String displayName;
+
+    OrderStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() { return displayName; }
+
+    public boolean isTerminal() {
+        return this == DELIVERED || this == CANCELLED;
+    }
+
+    public boolean canBeCancelled() {
+        return this == PENDING || this == CONFIRMED;
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        if (next == CANCELLED) return canBeCancelled();
+        return !isTerminal() && next.ordinal() > ordinal();
+    }
+
+    // Accepts display names ("out for delivery") and constant names ("OUT_FOR_DELIVERY"); null if unknown
+    public static OrderStatus fromDisplayName(String name) {
+        if (name == null) return null;
+        String trimmed = name.trim();
+        for (OrderStatus status : VALUES) {
+            if (status.displayName.equalsIgnoreCase(trimmed) || status.name().equalsIgnoreCase(trimmed)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
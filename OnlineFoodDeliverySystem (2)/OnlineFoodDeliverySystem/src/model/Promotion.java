@@ -1,57 +1,70 @@
 package model;
 
+import util.CachedClock;
+import util.Money;
+import util.TextFormat;
+
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
+// The terms (code, discount, minimum order, validity window and restaurants) are fixed at
+// construction: PromotionRegistry indexes the code and PromotionEngine copies the rest.
 public class Promotion {
-    private int promotionId;
+    private static final long COMMITTED_ONE = 1L << 32;
+    private static final long RESERVED_MASK = COMMITTED_ONE - 1;
+
+    private final int promotionId;
     private String name;
     private String description;
-    private String promoCode;
-    private double discountPercentage;
-    private double discountAmount;
-    private double minimumOrderAmount;
-    private LocalDateTime startDate;
-    private LocalDateTime endDate;
-    private boolean isActive;
-    private int maxUses;
-    private int currentUses;
-    private String applicableRestaurants; // "ALL" or specific restaurant IDs
+    private final String promoCode;
+    private final int discountBasisPoints; // 1% = 100
+    private final long discountAmountPaise;
+    private final long minimumOrderPaise;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    // Validity window as epoch millis, so checks compare longs against CachedClock
+    private final long startMillis;
+    private final long endMillis;
+    private volatile boolean isActive;
+    private volatile int maxUses;
+    // Committed uses in the high 32 bits, reservations held by in-flight checkouts in the low 32,
+    // so the cap check and the claim happen in a single compare-and-set
+    private final AtomicLong uses = new AtomicLong();
+    // Ascending, distinct restaurant IDs; null means all restaurants. Sized by the number of
+    // restaurants, not by their largest ID.
+    private final int[] applicableRestaurants;
 
     public Promotion(int promotionId, String name, String description, String promoCode, 
-                    double discountPercentage, double minimumOrderAmount, 
+                    int discountBasisPoints, long discountAmountPaise, long minimumOrderPaise, 
                     LocalDateTime startDate, LocalDateTime endDate, int maxUses) {
-        this.promotionId = promotionId;
-        this.name = name;
-        this.description = description;
-        this.promoCode = promoCode;
-        this.discountPercentage = discountPercentage;
-        this.discountAmount = 0.0;
-        this.minimumOrderAmount = minimumOrderAmount;
-        this.startDate = startDate;
-        this.endDate = endDate;
-        this.isActive = true;
-        this.maxUses = maxUses;
-        this.currentUses = 0;
-        this.applicableRestaurants = "ALL";
+        this(promotionId, name, description, promoCode, discountBasisPoints, discountAmountPaise, minimumOrderPaise,
+             startDate, endDate, maxUses, null);
     }
 
+    // restaurantIds limits the promotion to those restaurants; null means all of them
     public Promotion(int promotionId, String name, String description, String promoCode, 
-                    double discountAmount, double minimumOrderAmount, 
-                    LocalDateTime startDate, LocalDateTime endDate, int maxUses) {
+                    int discountBasisPoints, long discountAmountPaise, long minimumOrderPaise, 
+                    LocalDateTime startDate, LocalDateTime endDate, int maxUses, int[] restaurantIds) {
         this.promotionId = promotionId;
         this.name = name;
         this.description = description;
         this.promoCode = promoCode;
-        this.discountPercentage = 0.0;
-        this.discountAmount = discountAmount;
-        this.minimumOrderAmount = minimumOrderAmount;
+        this.discountBasisPoints = discountBasisPoints;
+        this.discountAmountPaise = discountAmountPaise;
+        this.minimumOrderPaise = minimumOrderPaise;
         this.startDate = startDate;
+        this.startMillis = toEpochMillis(startDate);
         this.endDate = endDate;
+        this.endMillis = toEpochMillis(endDate);
         this.isActive = true;
         this.maxUses = maxUses;
-        this.currentUses = 0;
-        this.applicableRestaurants = "ALL";
+        if (restaurantIds == null) {
+            this.applicableRestaurants = null;
+        } else {
+            this.applicableRestaurants = Arrays.stream(restaurantIds).filter(id -> id >= 0).sorted().distinct().toArray();
+        }
     }
 
     // Getters
@@ -59,81 +72,140 @@ public class Promotion {
     public String getName() { return name; }
     public String getDescription() { return description; }
     public String getPromoCode() { return promoCode; }
-    public double getDiscountPercentage() { return discountPercentage; }
-    public double getDiscountAmount() { return discountAmount; }
-    public double getMinimumOrderAmount() { return minimumOrderAmount; }
+    public int getDiscountBasisPoints() { return discountBasisPoints; }
+    public long getDiscountAmountPaise() { return discountAmountPaise; }
+    public long getMinimumOrderPaise() { return minimumOrderPaise; }
     public LocalDateTime getStartDate() { return startDate; }
     public LocalDateTime getEndDate() { return endDate; }
+    public long getStartMillis() { return startMillis; }
+    public long getEndMillis() { return endMillis; }
     public boolean isActive() { return isActive; }
     public int getMaxUses() { return maxUses; }
-    public int getCurrentUses() { return currentUses; }
-    public String getApplicableRestaurants() { return applicableRestaurants; }
+    public int getCurrentUses() { return (int) (uses.get() >>> 32); }
+    public int getReservedUses() { return (int) (uses.get() & RESERVED_MASK); }
+
+    // "ALL" or a comma-separated list of restaurant IDs
+    public String getApplicableRestaurants() {
+        if (applicableRestaurants == null) return "ALL";
+        StringBuilder sb = new StringBuilder();
+        for (int id : applicableRestaurants) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(id);
+        }
+        return sb.toString();
+    }
 
     // Setters
     public void setName(String name) { this.name = name; }
     public void setDescription(String description) { this.description = description; }
-    public void setPromoCode(String promoCode) { this.promoCode = promoCode; }
-    public void setDiscountPercentage(double discountPercentage) { this.discountPercentage = discountPercentage; }
-    public void setDiscountAmount(double discountAmount) { this.discountAmount = discountAmount; }
-    public void setMinimumOrderAmount(double minimumOrderAmount) { this.minimumOrderAmount = minimumOrderAmount; }
-    public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
-    public void setEndDate(LocalDateTime endDate) { this.endDate = endDate; }
     public void setActive(boolean active) { this.isActive = active; }
     public void setMaxUses(int maxUses) { this.maxUses = maxUses; }
-    public void setApplicableRestaurants(String applicableRestaurants) { this.applicableRestaurants = applicableRestaurants; }
+
+    // Ascending restaurant IDs, or null if the promotion applies to all restaurants
+    public int[] getApplicableRestaurantIds() {
+        return applicableRestaurants == null ? null : applicableRestaurants.clone();
+    }
+
+    public boolean appliesToRestaurant(int restaurantId) {
+        return applicableRestaurants == null || Arrays.binarySearch(applicableRestaurants, restaurantId) >= 0;
+    }
 
     // Business logic methods
     public boolean isValid() {
-        LocalDateTime now = LocalDateTime.now();
+        return isValidAt(CachedClock.millis());
+    }
+
+    public boolean isValidAt(long nowMillis) {
         return isActive && 
-               now.isAfter(startDate) && 
-               now.isBefore(endDate) && 
-               currentUses < maxUses;
+               nowMillis >= startMillis && 
+               nowMillis < endMillis && 
+               claimedUses(uses.get()) < maxUses;
     }
 
-    public boolean isApplicable(double orderAmount, int restaurantId) {
+    private static int claimedUses(long packed) {
+        return (int) (packed >>> 32) + (int) (packed & RESERVED_MASK);
+    }
+
+    public boolean isApplicable(long orderPaise, int restaurantId) {
         if (!isValid()) return false;
-        if (orderAmount < minimumOrderAmount) return false;
-        if (!"ALL".equals(applicableRestaurants) && 
-            !applicableRestaurants.contains(String.valueOf(restaurantId))) {
-            return false;
-        }
-        return true;
+        if (orderPaise < minimumOrderPaise) return false;
+        return appliesToRestaurant(restaurantId);
+    }
+
+    public long calculateDiscount(long orderPaise) {
+        if (!isValid()) return 0;
+        return discountFor(discountBasisPoints, discountAmountPaise, orderPaise);
+    }
+
+    // Discount on orderAmount under this promotion's terms, without checking validity
+    public long discountFor(long orderPaise) {
+        return discountFor(discountBasisPoints, discountAmountPaise, orderPaise);
     }
 
-    public double calculateDiscount(double orderAmount) {
-        if (!isValid()) return 0.0;
-        
-        if (discountPercentage > 0) {
-            double discount = orderAmount * (discountPercentage / 100.0);
-            return Math.min(discount, orderAmount * 0.5); // Max 50% discount
+    // Shared with PromotionEngine, which evaluates the terms from its own arrays
+    public static long discountFor(int discountBasisPoints, long discountAmountPaise, long orderPaise) {
+        if (discountBasisPoints > 0) {
+            long discount = Money.percentOf(orderPaise, discountBasisPoints);
+            return Math.min(discount, orderPaise / 2); // Max 50% discount
         } else {
-            return Math.min(discountAmount, orderAmount);
+            return Math.min(discountAmountPaise, orderPaise);
+        }
+    }
+
+    // Holds one use for a checkout in progress. Committed plus reserved uses never exceed maxUses,
+    // however many checkouts race for the last ones. Follow with commitReservation or releaseReservation.
+    public boolean tryReserve() {
+        long now = CachedClock.millis();
+        if (!isActive || now < startMillis || now >= endMillis) return false;
+        while (true) {
+            long current = uses.get();
+            if (claimedUses(current) >= maxUses) return false;
+            if (uses.compareAndSet(current, current + 1)) return true;
         }
     }
 
+    // Turns a reservation into a committed use (one atomic add: reserved - 1, committed + 1)
+    public void commitReservation() {
+        uses.addAndGet(COMMITTED_ONE - 1);
+    }
+
+    // Gives back a reservation whose checkout did not go through
+    public void releaseReservation() {
+        uses.decrementAndGet();
+    }
+
+    // Gives back a committed use, e.g. when the order that used it is cancelled
+    public void releaseUse() {
+        uses.addAndGet(-COMMITTED_ONE);
+    }
+
+    // Counts a use recorded before a restart; the window and cap applied when it was made, not now
+    public void restoreUse() {
+        uses.addAndGet(COMMITTED_ONE);
+    }
+
     public boolean applyPromo() {
-        if (isValid()) {
-            currentUses++;
+        if (tryReserve()) {
+            commitReservation();
             return true;
         }
         return false;
     }
 
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     public String getFormattedStartDate() {
-        return startDate.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"));
+        return TextFormat.formatDateTime(startDate);
     }
 
     public String getFormattedEndDate() {
-        return endDate.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"));
+        return TextFormat.formatDateTime(endDate);
     }
 
     public String getDiscountDisplay() {
-        if (discountPercentage > 0) {
-            return discountPercentage + "% OFF";
-        } else {
-            return "Rs. " + String.format("%.2f", discountAmount) + " OFF";
-        }
+        return TextRenderer.appendDiscount(new StringBuilder(16), this).toString();
     }
 
     @Override
@@ -143,17 +215,6 @@ public class Promotion {
     }
 
     public String getDetailedString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("🎉 Promotion Details:\n");
-        sb.append("Name: ").append(name).append("\n");
-        sb.append("Description: ").append(description).append("\n");
-        sb.append("Promo Code: ").append(promoCode).append("\n");
-        sb.append("Discount: ").append(getDiscountDisplay()).append("\n");
-        sb.append("Minimum Order: Rs. ").append(String.format("%.2f", minimumOrderAmount)).append("\n");
-        sb.append("Valid From: ").append(getFormattedStartDate()).append("\n");
-        sb.append("Valid Until: ").append(getFormattedEndDate()).append("\n");
-        sb.append("Uses: ").append(currentUses).append("/").append(maxUses).append("\n");
-        sb.append("Status: ").append(isValid() ? "✅ Active" : "❌ Inactive").append("\n");
-        return sb.toString();
+        return TextRenderer.appendPromotion(new StringBuilder(256), this).toString();
     }
 }
@@ -1,8 +1,8 @@
 package model;
 
-import java.util.ArrayList;
+import util.AtomicRating;
+
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class Restaurant {
     private int id;
@@ -10,13 +10,13 @@ public class Restaurant {
     private String address;
     private String phoneNumber;
     private String cuisineType;
-    private double rating;
-    private int reviewCount;
+    private final AtomicRating rating = new AtomicRating();
     private boolean isOpen;
     private int deliveryTime; // in minutes
-    private double deliveryFee;
-    private double minimumOrderAmount;
-    private List<FoodItem> menu;
+    private long deliveryFeePaise;
+    private long minimumOrderPaise;
+    private MenuIndex menu;
+    private volatile CatalogListener listener;
 
     public Restaurant(int id, String name) {
         this.id = id;
@@ -24,29 +24,25 @@ public class Restaurant {
         this.address = "Address not specified";
         this.phoneNumber = "0000000000";
         this.cuisineType = "Multi-cuisine";
-        this.rating = 0.0;
-        this.reviewCount = 0;
         this.isOpen = true;
         this.deliveryTime = 30;
-        this.deliveryFee = 0.0;
-        this.minimumOrderAmount = 0.0;
-        this.menu = new ArrayList<>();
+        this.deliveryFeePaise = 0;
+        this.minimumOrderPaise = 0;
+        this.menu = new MenuIndex();
     }
 
     public Restaurant(int id, String name, String address, String phoneNumber, String cuisineType, 
-                     int deliveryTime, double deliveryFee, double minimumOrderAmount) {
+                     int deliveryTime, long deliveryFeePaise, long minimumOrderPaise) {
         this.id = id;
         this.name = name;
         this.address = address;
         this.phoneNumber = phoneNumber;
         this.cuisineType = cuisineType;
-        this.rating = 0.0;
-        this.reviewCount = 0;
         this.isOpen = true;
         this.deliveryTime = deliveryTime;
-        this.deliveryFee = deliveryFee;
-        this.minimumOrderAmount = minimumOrderAmount;
-        this.menu = new ArrayList<>();
+        this.deliveryFeePaise = deliveryFeePaise;
+        this.minimumOrderPaise = minimumOrderPaise;
+        this.menu = new MenuIndex();
     }
 
     // Getters
@@ -55,79 +51,102 @@ public class Restaurant {
     public String getAddress() { return address; }
     public String getPhoneNumber() { return phoneNumber; }
     public String getCuisineType() { return cuisineType; }
-    public double getRating() { return rating; }
-    public int getReviewCount() { return reviewCount; }
+    public double getRating() { return rating.average(); }
+    public int getReviewCount() { return rating.count(); }
     public boolean isOpen() { return isOpen; }
     public int getDeliveryTime() { return deliveryTime; }
-    public double getDeliveryFee() { return deliveryFee; }
-    public double getMinimumOrderAmount() { return minimumOrderAmount; }
-    public List<FoodItem> getMenu() { return menu; }
+    public long getDeliveryFeePaise() { return deliveryFeePaise; }
+    public long getMinimumOrderPaise() { return minimumOrderPaise; }
+    public List<FoodItem> getMenu() { return menu.all(); }
 
     // Setters
     public void setName(String name) { this.name = name; }
     public void setAddress(String address) { this.address = address; }
     public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
-    public void setCuisineType(String cuisineType) { this.cuisineType = cuisineType; }
+    public void setCuisineType(String cuisineType) {
+        this.cuisineType = cuisineType;
+        CatalogListener l = listener;
+        if (l != null) l.restaurantChanged(this);
+    }
+
     public void setOpen(boolean open) { this.isOpen = open; }
     public void setDeliveryTime(int deliveryTime) { this.deliveryTime = deliveryTime; }
-    public void setDeliveryFee(double deliveryFee) { this.deliveryFee = deliveryFee; }
-    public void setMinimumOrderAmount(double minimumOrderAmount) { this.minimumOrderAmount = minimumOrderAmount; }
+    public void setDeliveryFeePaise(long deliveryFeePaise) { this.deliveryFeePaise = deliveryFeePaise; }
+    public void setMinimumOrderPaise(long minimumOrderPaise) { this.minimumOrderPaise = minimumOrderPaise; }
+    public void setListener(CatalogListener listener) { this.listener = listener; }
 
     // Menu management
-    public void addFoodItem(FoodItem item) {
-        menu.add(item);
+    public boolean addFoodItem(FoodItem item) {
+        if (!menu.add(item)) return false;
+        item.setRestaurant(this);
+        return true;
     }
 
-    public void removeFoodItem(int id) {
-        menu.removeIf(item -> item.getId() == id);
+    public FoodItem removeFoodItem(int id) {
+        FoodItem item = menu.remove(id);
+        if (item != null) item.setRestaurant(null);
+        return item;
     }
 
     public FoodItem findFoodItemById(int id) {
-        return menu.stream()
-                  .filter(item -> item.getId() == id)
-                  .findFirst()
-                  .orElse(null);
+        return menu.get(id);
     }
 
+    // Category and availability queries return read-only views of the menu index
     public List<FoodItem> getFoodItemsByCategory(String category) {
-        return menu.stream()
-                  .filter(item -> item.getCategory().equalsIgnoreCase(category))
-                  .collect(Collectors.toList());
+        return menu.byCategory(category);
     }
 
     public List<FoodItem> getAvailableFoodItems() {
-        return menu.stream()
-                  .filter(FoodItem::isAvailable)
-                  .collect(Collectors.toList());
+        return menu.available();
+    }
+
+    // Called by FoodItem so the menu index follows in-place edits
+    void onCategoryChanged(FoodItem item, String oldCategory) {
+        menu.categoryChanged(item, oldCategory);
+        onFoodItemEdited(item);
+    }
+
+    void onFoodItemEdited(FoodItem item) {
+        CatalogListener l = listener;
+        if (l != null) l.foodItemEdited(this, item);
+    }
+
+    void onAvailabilityChanged(FoodItem item) {
+        menu.availabilityChanged(item);
+    }
+
+    void onFoodItemRated(FoodItem item) {
+        CatalogListener l = listener;
+        if (l != null) l.foodItemRated(this, item);
     }
 
     // Rating methods
     public void addRating(double newRating) {
         if (newRating >= 1.0 && newRating <= 5.0) {
-            double totalRating = rating * reviewCount + newRating;
-            reviewCount++;
-            rating = totalRating / reviewCount;
+            rating.add(newRating);
+            CatalogListener l = listener;
+            if (l != null) l.restaurantChanged(this);
         }
     }
 
     public String getRatingDisplay() {
-        if (reviewCount == 0) return "No ratings yet";
-        return String.format("%.1f/5.0 (%d reviews)", rating, reviewCount);
+        return TextRenderer.appendRating(new StringBuilder(24), rating.snapshot()).toString();
     }
 
     // Business logic
-    public boolean canAcceptOrder(double orderAmount) {
-        return isOpen && orderAmount >= minimumOrderAmount;
+    public boolean canAcceptOrder(long orderPaise) {
+        return isOpen && orderPaise >= minimumOrderPaise;
     }
 
-    public double calculateTotalWithDelivery(double orderAmount) {
-        return orderAmount + deliveryFee;
+    public long calculateTotalWithDelivery(long orderPaise) {
+        return orderPaise + deliveryFeePaise;
     }
 
     @Override
     public String toString() {
         return String.format("Restaurant{id=%d, name='%s', cuisine='%s', rating=%.1f, open=%s, deliveryTime=%dmin}", 
-                           id, name, cuisineType, rating, isOpen, deliveryTime);
+                           id, name, cuisineType, rating.average(), isOpen, deliveryTime);
     }
 
     @Override
@@ -1,7 +1,8 @@
 package model;
 
+import util.TextFormat;
+
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 public class Review {
     private int reviewId;
@@ -53,6 +54,7 @@ public class Review {
     }
     public void setComment(String comment) { this.comment = comment; }
     public void setVerified(boolean verified) { this.isVerified = verified; }
+    void setReviewDate(LocalDateTime reviewDate) { this.reviewDate = reviewDate; }
 
     // Business logic methods
     public boolean isValid() {
@@ -61,25 +63,11 @@ public class Review {
     }
 
     public String getRatingStars() {
-        int fullStars = (int) rating;
-        int halfStar = (rating - fullStars) >= 0.5 ? 1 : 0;
-        int emptyStars = 5 - fullStars - halfStar;
-        
-        StringBuilder stars = new StringBuilder();
-        for (int i = 0; i < fullStars; i++) {
-            stars.append("⭐");
-        }
-        if (halfStar > 0) {
-            stars.append("✨");
-        }
-        for (int i = 0; i < emptyStars; i++) {
-            stars.append("☆");
-        }
-        return stars.toString();
+        return TextRenderer.stars(rating);
     }
 
     public String getFormattedDate() {
-        return reviewDate.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"));
+        return TextFormat.formatDateTime(reviewDate);
     }
 
     public String getReviewType() {
@@ -97,23 +85,6 @@ public class Review {
     }
 
     public String getDetailedString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("📝 Review Details:\n");
-        sb.append("Review ID: ").append(reviewId).append("\n");
-        sb.append("Customer: ").append(customer.getUsername()).append("\n");
-        sb.append("Type: ").append(getReviewType()).append("\n");
-        
-        if (restaurant != null) {
-            sb.append("Restaurant: ").append(restaurant.getName()).append("\n");
-        }
-        if (foodItem != null) {
-            sb.append("Food Item: ").append(foodItem.getName()).append("\n");
-        }
-        
-        sb.append("Rating: ").append(getRatingStars()).append(" (").append(rating).append("/5.0)\n");
-        sb.append("Comment: ").append(comment).append("\n");
-        sb.append("Date: ").append(getFormattedDate()).append("\n");
-        sb.append("Verified: ").append(isVerified ? "✅ Yes" : "❌ No").append("\n");
-        return sb.toString();
+        return TextRenderer.appendReview(new StringBuilder(256), this).toString();
     }
 }
@@ -0,0 +1,265 @@
+package model;
+
+import util.AtomicRating;
+import util.Money;
+import util.TextFormat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+// Receipts, detail views and listing rows rendered straight into an Appendable. Labels are
+// constants and fields go through TextFormat, so rendering many orders or reviews into one
+// reused StringBuilder (or a Writer, or a CharBuffer over a ByteBuffer) creates no per-field
+// garbage. I/O errors from the Appendable are rethrown unchecked.
+public final class TextRenderer {
+    private static final String RULE = "==========================================";
+    // Indexed by half-stars, 0 to 10
+    private static final String[] STARS = new String[11];
+
+    static {
+        for (int halves = 0; halves < STARS.length; halves++) {
+            StringBuilder sb = new StringBuilder();
+            int full = halves / 2;
+            int half = halves % 2;
+            for (int i = 0; i < full; i++) sb.append("⭐");
+            if (half > 0) sb.append("✨");
+            for (int i = full + half; i < 5; i++) sb.append("☆");
+            STARS[halves] = sb.toString();
+        }
+    }
+
+    private TextRenderer() {
+    }
+
+    // Whole stars, a sparkle for a half star of .5 or more, and empty stars up to five
+    public static String stars(double rating) {
+        int full = (int) Math.max(0, Math.min(5, rating));
+        int half = full < 5 && rating - full >= 0.5 ? 1 : 0;
+        return STARS[full * 2 + half];
+    }
+
+    // "ORD" + six-digit order ID + MMdd
+    public static String trackingNumber(int orderId, LocalDateTime orderTime) {
+        StringBuilder sb = new StringBuilder(13);
+        try {
+            sb.append("ORD");
+            TextFormat.appendPadded(sb, orderId, 6);
+            TextFormat.appendPadded(sb, orderTime.getMonthValue(), 2);
+            TextFormat.appendPadded(sb, orderTime.getDayOfMonth(), 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+        return sb.toString();
+    }
+
+    // "4.3/5.0 (12 reviews)" from an AtomicRating snapshot
+    public static <A extends Appendable> A appendRating(A out, long ratingSnapshot) {
+        try {
+            int count = AtomicRating.count(ratingSnapshot);
+            if (count == 0) {
+                out.append("No ratings yet");
+                return out;
+            }
+            TextFormat.appendTenths(out, AtomicRating.average(ratingSnapshot));
+            out.append("/5.0 (");
+            TextFormat.appendLong(out, count);
+            out.append(" reviews)");
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static <A extends Appendable> A appendOrder(A out, Order order) {
+        try {
+            Customer customer = order.getCustomer();
+            out.append(RULE).append('\n');
+            out.append("Order ID: ");
+            TextFormat.appendLong(out, order.getOrderId());
+            out.append('\n');
+            out.append("Tracking Number: ").append(order.getTrackingNumber()).append('\n');
+            out.append("Customer: ").append(customer.getUsername()).append('\n');
+            out.append("Contact: ");
+            TextFormat.appendLong(out, customer.getContactNo());
+            out.append('\n');
+            String address = order.getDeliveryAddress();
+            out.append("Delivery Address: ").append(address != null ? address : "Not specified").append('\n');
+            out.append("Payment Method: ").append(order.getPaymentMethod()).append('\n');
+            String instructions = order.getSpecialInstructions();
+            out.append("Special Instructions: ").append(instructions.isEmpty() ? "None" : instructions).append('\n');
+            out.append("Items:\n");
+            appendLines(out, order.getLines());
+            appendAmount(out, "Subtotal: Rs. ", order.getSubtotalPaise());
+            appendAmount(out, "Delivery Fee: Rs. ", order.getDeliveryFeePaise());
+            appendAmount(out, "Tax (10%): Rs. ", order.getTaxPaise());
+            if (order.getPromotion() != null) {
+                out.append("Discount (").append(order.getPromotion().getPromoCode()).append("): -Rs. ");
+                Money.appendTo(out, order.getDiscountPaise());
+                out.append('\n');
+            }
+            appendAmount(out, "Total Amount: Rs. ", order.getTotalPaise());
+            out.append("Status: ").append(order.getStatusWithEmoji()).append('\n');
+            out.append("Order Time: ");
+            TextFormat.appendDateTime(out, order.getOrderTime());
+            out.append('\n');
+            out.append("Estimated Delivery: ");
+            TextFormat.appendDateTime(out, order.getEstimatedDeliveryTime());
+            out.append('\n');
+            DeliveryPerson deliveryPerson = order.getDeliveryPerson();
+            if (deliveryPerson != null) {
+                out.append("Delivery Person: ").append(deliveryPerson.getName()).append(" (");
+                TextFormat.appendLong(out, deliveryPerson.getContactNo());
+                out.append(")\n");
+            }
+            out.append(RULE);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The short form used in order listings
+    public static <A extends Appendable> A appendOrderSummary(A out, Order order) {
+        try {
+            out.append("Order ID: ");
+            TextFormat.appendLong(out, order.getOrderId());
+            out.append(" | ").append(order.getTrackingNumber()).append('\n');
+            out.append("Customer: ").append(order.getCustomer().getUsername()).append('\n');
+            out.append("Status: ").append(order.getStatusWithEmoji()).append('\n');
+            appendAmount(out, "Total: Rs. ", order.getTotalPaise());
+            out.append("Order Time: ");
+            TextFormat.appendDateTime(out, order.getOrderTime());
+            out.append('\n');
+            if (order.getDeliveryPerson() != null) {
+                out.append("Delivery By: ").append(order.getDeliveryPerson().getName()).append('\n');
+            }
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static <A extends Appendable> A appendPromotion(A out, Promotion promotion) {
+        try {
+            out.append("🎉 Promotion Details:\n");
+            out.append("Name: ").append(promotion.getName()).append('\n');
+            out.append("Description: ").append(promotion.getDescription()).append('\n');
+            out.append("Promo Code: ").append(promotion.getPromoCode()).append('\n');
+            out.append("Discount: ");
+            appendDiscount(out, promotion);
+            out.append('\n');
+            appendAmount(out, "Minimum Order: Rs. ", promotion.getMinimumOrderPaise());
+            out.append("Valid From: ");
+            TextFormat.appendDateTime(out, promotion.getStartDate());
+            out.append('\n');
+            out.append("Valid Until: ");
+            TextFormat.appendDateTime(out, promotion.getEndDate());
+            out.append('\n');
+            out.append("Uses: ");
+            TextFormat.appendLong(out, promotion.getCurrentUses());
+            out.append('/');
+            TextFormat.appendLong(out, promotion.getMaxUses());
+            out.append('\n');
+            out.append("Status: ").append(promotion.isValid() ? "✅ Active" : "❌ Inactive").append('\n');
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // "12.5% OFF" or "Rs. 50.00 OFF"
+    public static <A extends Appendable> A appendDiscount(A out, Promotion promotion) {
+        try {
+            int basisPoints = promotion.getDiscountBasisPoints();
+            if (basisPoints > 0) {
+                TextFormat.appendLong(out, basisPoints / 100);
+                out.append('.');
+                int fraction = basisPoints % 100;
+                // Shown like a double: 12.5, 12.25, 12.0
+                if (fraction % 10 == 0) {
+                    out.append((char) ('0' + fraction / 10));
+                } else {
+                    TextFormat.appendPadded(out, fraction, 2);
+                }
+                out.append("% OFF");
+            } else {
+                out.append("Rs. ");
+                Money.appendTo(out, promotion.getDiscountAmountPaise());
+                out.append(" OFF");
+            }
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static <A extends Appendable> A appendReview(A out, Review review) {
+        try {
+            out.append("📝 Review Details:\n");
+            out.append("Review ID: ");
+            TextFormat.appendLong(out, review.getReviewId());
+            out.append('\n');
+            out.append("Customer: ").append(review.getCustomer().getUsername()).append('\n');
+            out.append("Type: ").append(review.getReviewType()).append('\n');
+            if (review.getRestaurant() != null) {
+                out.append("Restaurant: ").append(review.getRestaurant().getName()).append('\n');
+            }
+            if (review.getFoodItem() != null) {
+                out.append("Food Item: ").append(review.getFoodItem().getName()).append('\n');
+            }
+            out.append("Rating: ");
+            appendStarsAndRating(out, review.getRating());
+            out.append('\n');
+            out.append("Comment: ").append(review.getComment()).append('\n');
+            out.append("Date: ");
+            TextFormat.appendDateTime(out, review.getReviewDate());
+            out.append('\n');
+            out.append("Verified: ").append(review.isVerified() ? "✅ Yes" : "❌ No").append('\n');
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The short form used when paging through a restaurant's or dish's reviews
+    public static <A extends Appendable> A appendReviewListing(A out, Review review) {
+        try {
+            out.append("👤 ").append(review.getCustomer().getUsername()).append('\n');
+            out.append("⭐ ");
+            appendStarsAndRating(out, review.getRating());
+            out.append('\n');
+            out.append("💬 ").append(review.getComment()).append('\n');
+            out.append("📅 ");
+            TextFormat.appendDateTime(out, review.getReviewDate());
+            out.append('\n');
+            out.append("------------------------------\n");
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendLines(Appendable out, OrderLines lines) throws IOException {
+        for (int i = 0; i < lines.size(); i++) {
+            out.append("   - ").append(lines.getName(i)).append(" x ");
+            TextFormat.appendLong(out, lines.getQuantity(i));
+            out.append(" = Rs. ");
+            Money.appendTo(out, lines.getLineTotalPaise(i));
+            out.append('\n');
+        }
+    }
+
+    private static void appendAmount(Appendable out, String label, long paise) throws IOException {
+        out.append(label);
+        Money.appendTo(out, paise);
+        out.append('\n');
+    }
+
+    // "⭐⭐⭐⭐☆ (4.0/5.0)"
+    private static void appendStarsAndRating(Appendable out, double rating) throws IOException {
+        out.append(stars(rating)).append(" (");
+        TextFormat.appendTenths(out, rating);
+        out.append("/5.0)");
+    }
+}
@@ -1,22 +1,67 @@
 package service;
 
 import model.*;
+import util.CachedClock;
+import util.EntityRegistry;
+import util.Money;
+import util.OutputSink;
 import java.util.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
 
 public class AdminService {
-    private List<Restaurant> restaurants = new ArrayList<>();
-    private List<DeliveryPerson> deliveryPersons = new ArrayList<>();
-    private List<Promotion> promotions = new ArrayList<>();
-    private List<Review> reviews = new ArrayList<>();
-    private List<Order> orders;
+    private static final int LEADERBOARD_MIN_REVIEWS = 3;
+
+    private EntityRegistry<Restaurant> restaurants = new EntityRegistry<>(Restaurant::getId);
+    private EntityRegistry<DeliveryPerson> deliveryPersons = new EntityRegistry<>(DeliveryPerson::getDeliveryPersonId);
+    private PromotionRegistry promotions = new PromotionRegistry();
+    private ReviewIndex reviews = new ReviewIndex();
+    private FoodSearchIndex searchIndex = new FoodSearchIndex();
+    private final RatingLeaderboards leaderboards = new RatingLeaderboards(LEADERBOARD_MIN_REVIEWS);
+    private OrderStore orders;
+    private final OutputSink out;
     private int nextPromotionId = 1;
-    private int nextReviewId = 1;
+    private volatile OrderJournal journal;
+    // Installed on every registered restaurant, so ratings and item edits reach the leaderboards and the
+    // search index wherever they are made
+    private final CatalogListener catalogListener = new CatalogListener() {
+        @Override
+        public void restaurantChanged(Restaurant restaurant) {
+            leaderboards.updateRestaurant(restaurant);
+        }
 
-    public AdminService(List<Order> orders) {
+        @Override
+        public void foodItemRated(Restaurant restaurant, FoodItem item) {
+            leaderboards.updateDish(restaurant, item);
+        }
+
+        @Override
+        public void foodItemEdited(Restaurant restaurant, FoodItem item) {
+            searchIndex.index(restaurant, item);
+            leaderboards.updateDish(restaurant, item);
+        }
+    };
+
+    public AdminService(OrderStore orders) {
+        this(orders, OutputSink.console());
+    }
+
+    public AdminService(OrderStore orders, OutputSink out) {
+        this(orders, out, true);
+    }
+
+    // Without sample data when the catalog is about to be loaded from a snapshot
+    public AdminService(OrderStore orders, OutputSink out, boolean withSampleData) {
         this.orders = orders;
-        initializeSampleData();
+        this.out = out;
+        if (withSampleData) initializeSampleData();
+    }
+
+    // Set once the journal has been replayed; catalog changes from then on are logged. Catalog
+    // changes come from one thread at a time, like snapshots.
+    void setJournal(OrderJournal journal) {
+        this.journal = journal;
     }
 
     private void initializeSampleData() {
@@ -44,240 +89,297 @@ public class AdminService {
     }
 
     // Restaurant Management
-    public void addRestaurant(int id, String name) {
-        restaurants.add(new Restaurant(id, name));
-        System.out.println("Restaurant added successfully!");
+    public boolean addRestaurant(int id, String name) {
+        if (!addRestaurant(new Restaurant(id, name))) {
+            out.println("Restaurant ID already exists!");
+            return false;
+        }
+        out.println("Restaurant added successfully!");
+        return true;
     }
 
-    public void addRestaurant(int id, String name, String address, String phoneNumber, 
+    // Admin-entered amounts are in rupees and are converted to paise here
+    public boolean addRestaurant(int id, String name, String address, String phoneNumber, 
                              String cuisineType, int deliveryTime, double deliveryFee, double minimumOrderAmount) {
-        restaurants.add(new Restaurant(id, name, address, phoneNumber, cuisineType, deliveryTime, deliveryFee, minimumOrderAmount));
-        System.out.println("Restaurant added successfully with full details!");
+        if (!addRestaurant(new Restaurant(id, name, address, phoneNumber, cuisineType, deliveryTime,
+                                          Money.ofRupees(deliveryFee), Money.ofRupees(minimumOrderAmount)))) {
+            out.println("Restaurant ID already exists!");
+            return false;
+        }
+        out.println("Restaurant added successfully with full details!");
+        return true;
     }
 
-    public void updateRestaurant(int id, String name, String address, String phoneNumber, String cuisineType) {
+    public boolean updateRestaurant(int id, String name, String address, String phoneNumber, String cuisineType) {
         Restaurant restaurant = findRestaurantById(id);
         if (restaurant != null) {
             restaurant.setName(name);
             restaurant.setAddress(address);
             restaurant.setPhoneNumber(phoneNumber);
             restaurant.setCuisineType(cuisineType);
-            System.out.println("Restaurant updated successfully!");
+            OrderJournal journal = this.journal;
+            if (journal != null) journal.awaitDurable(journal.restaurantUpdated(restaurant));
+            out.println("Restaurant updated successfully!");
+            return true;
         } else {
-            System.out.println("Restaurant not found!");
+            out.println("Restaurant not found!");
         }
+        return false;
+    }
+
+    // Logged before it is registered, so nothing that refers to it can reach the log ahead of it
+    private boolean addRestaurant(Restaurant restaurant) {
+        if (findRestaurantById(restaurant.getId()) != null) return false;
+        OrderJournal journal = this.journal;
+        long position = journal != null ? journal.restaurantAdded(restaurant) : 0;
+        register(restaurant);
+        if (journal != null) journal.awaitDurable(position);
+        return true;
+    }
+
+    private boolean register(Restaurant restaurant) {
+        if (!restaurants.add(restaurant)) return false;
+        restaurant.setListener(catalogListener);
+        return true;
     }
 
     public Restaurant findRestaurantById(int id) {
-        return restaurants.stream()
-                         .filter(r -> r.getId() == id)
-                         .findFirst()
-                         .orElse(null);
+        return restaurants.get(id);
     }
 
     // Food Item Management
-    public void addFoodItemToRestaurant(int restId, int foodId, String name, double price) {
+    public boolean addFoodItemToRestaurant(int restId, int foodId, String name, double price) {
         Restaurant restaurant = findRestaurantById(restId);
         if (restaurant != null) {
-            restaurant.addFoodItem(new FoodItem(foodId, name, price));
-            System.out.println("Food item added successfully!");
+            FoodItem item = new FoodItem(foodId, name, Money.ofRupees(price));
+            if (addFoodItem(restaurant, item)) {
+                out.println("Food item added successfully!");
+                return true;
+            } else {
+                out.println("Food item ID already exists in this restaurant!");
+            }
         } else {
-            System.out.println("Restaurant not found!");
+            out.println("Restaurant not found!");
         }
+        return false;
     }
 
-    public void addFoodItemToRestaurant(int restId, int foodId, String name, double price, 
+    public boolean addFoodItemToRestaurant(int restId, int foodId, String name, double price, 
                                        String category, String description, int preparationTime) {
         Restaurant restaurant = findRestaurantById(restId);
         if (restaurant != null) {
-            restaurant.addFoodItem(new FoodItem(foodId, name, price, category, description, preparationTime));
-            System.out.println("Food item added successfully with full details!");
+            FoodItem item = new FoodItem(foodId, name, Money.ofRupees(price), category, description, preparationTime);
+            if (addFoodItem(restaurant, item)) {
+                out.println("Food item added successfully with full details!");
+                return true;
+            } else {
+                out.println("Food item ID already exists in this restaurant!");
+            }
         } else {
-            System.out.println("Restaurant not found!");
+            out.println("Restaurant not found!");
         }
+        return false;
+    }
+
+    // Logged before the item is on the menu, like a new restaurant
+    private boolean addFoodItem(Restaurant restaurant, FoodItem item) {
+        if (restaurant.findFoodItemById(item.getId()) != null) return false;
+        OrderJournal journal = this.journal;
+        long position = journal != null ? journal.foodItemSaved(restaurant, item) : 0;
+        restaurant.addFoodItem(item);
+        searchIndex.index(restaurant, item);
+        if (journal != null) journal.awaitDurable(position);
+        return true;
+    }
+
+    private void logFoodItemSaved(Restaurant restaurant, FoodItem item) {
+        OrderJournal journal = this.journal;
+        if (journal != null) journal.awaitDurable(journal.foodItemSaved(restaurant, item));
     }
 
-    public void updateFoodItem(int restId, int foodId, String name, double price, String category, String description) {
+    public boolean updateFoodItem(int restId, int foodId, String name, double price, String category, String description) {
         Restaurant restaurant = findRestaurantById(restId);
         if (restaurant != null) {
             FoodItem item = restaurant.findFoodItemById(foodId);
             if (item != null) {
                 item.setName(name);
-                item.setPrice(price);
+                item.setPricePaise(Money.ofRupees(price));
                 item.setCategory(category);
                 item.setDescription(description);
-                System.out.println("Food item updated successfully!");
+                logFoodItemSaved(restaurant, item);
+                out.println("Food item updated successfully!");
+                return true;
             } else {
-                System.out.println("Food item not found!");
+                out.println("Food item not found!");
             }
         } else {
-            System.out.println("Restaurant not found!");
+            out.println("Restaurant not found!");
         }
+        return false;
     }
 
-    public void removeFoodItemFromRestaurant(int restId, int foodId) {
+    public boolean removeFoodItemFromRestaurant(int restId, int foodId) {
         Restaurant restaurant = findRestaurantById(restId);
         if (restaurant != null) {
-            restaurant.removeFoodItem(foodId);
-            System.out.println("Food item removed successfully!");
+            OrderJournal journal = this.journal;
+            FoodItem removed;
+            long position = 0;
+            // Under the restaurant's monitor, as reviews of its items are logged, so no review of the
+            // item can follow its removal in the log
+            synchronized (restaurant) {
+                removed = restaurant.removeFoodItem(foodId);
+                if (removed != null && journal != null) position = journal.foodItemRemoved(restaurant, foodId);
+            }
+            if (removed != null) {
+                searchIndex.remove(restaurant, foodId);
+                leaderboards.removeDish(restId, foodId);
+                if (journal != null) journal.awaitDurable(position);
+                out.println("Food item removed successfully!");
+                return true;
+            } else {
+                out.println("Food item not found!");
+            }
         } else {
-            System.out.println("Restaurant not found!");
+            out.println("Restaurant not found!");
         }
+        return false;
     }
 
-    public void toggleFoodItemAvailability(int restId, int foodId) {
+    public boolean toggleFoodItemAvailability(int restId, int foodId) {
         Restaurant restaurant = findRestaurantById(restId);
         if (restaurant != null) {
             FoodItem item = restaurant.findFoodItemById(foodId);
             if (item != null) {
                 item.setAvailable(!item.isAvailable());
-                System.out.println("Food item availability toggled to: " + item.isAvailable());
+                logFoodItemSaved(restaurant, item);
+                out.println("Food item availability toggled to: " + item.isAvailable());
+                return true;
             } else {
-                System.out.println("Food item not found!");
+                out.println("Food item not found!");
             }
         } else {
-            System.out.println("Restaurant not found!");
-        }
-    }
-
-    // Restaurant Display
-    public void viewRestaurants() {
-        if (restaurants.isEmpty()) {
-            System.out.println("No restaurants found!");
-            return;
-        }
-        
-        System.out.println("Restaurants and Menus:");
-        System.out.println("=" + "=".repeat(50));
-        
-        for (Restaurant r : restaurants) {
-            System.out.println("Restaurant ID: " + r.getId());
-            System.out.println("Name: " + r.getName());
-            System.out.println("Address: " + r.getAddress());
-            System.out.println("Phone: " + r.getPhoneNumber());
-            System.out.println("Cuisine: " + r.getCuisineType());
-            System.out.println("Rating: " + r.getRatingDisplay());
-            System.out.println("Status: " + (r.isOpen() ? "Open" : "Closed"));
-            System.out.println("Delivery Time: " + r.getDeliveryTime() + " minutes");
-            System.out.println("Delivery Fee: Rs. " + String.format("%.2f", r.getDeliveryFee()));
-            System.out.println("Min Order: Rs. " + String.format("%.2f", r.getMinimumOrderAmount()));
-            System.out.println("Menu:");
-            
-            if (r.getMenu().isEmpty()) {
-                System.out.println("   No items available");
-            } else {
-                for (FoodItem item : r.getMenu()) {
-                    System.out.println("   - " + item.getName() + " - Rs. " + String.format("%.2f", item.getPrice()));
-                    System.out.println("     Category: " + item.getCategory() + " | Rating: " + item.getRatingDisplay());
-                    System.out.println("     Available: " + (item.isAvailable() ? "Yes" : "No") + " | Prep Time: " + item.getPreparationTime() + "min");
-                    System.out.println("     Description: " + item.getDescription());
-                    System.out.println();
-                }
-            }
-            System.out.println("-".repeat(50));
+            out.println("Restaurant not found!");
         }
+        return false;
     }
 
     // Delivery Person Management
     public DeliveryPerson findDeliveryPersonById(int id) {
-        return deliveryPersons.stream()
-                             .filter(d -> d.getDeliveryPersonId() == id)
-                             .findFirst()
-                             .orElse(null);
+        return deliveryPersons.get(id);
     }
 
-    public void addDeliveryPerson(int id, String name, long contact) {
-        deliveryPersons.add(new DeliveryPerson(id, name, contact));
-        System.out.println("Delivery person added successfully!");
-    }
-
-    public void viewDeliveryPersons() {
-        if (deliveryPersons.isEmpty()) {
-            System.out.println("No delivery persons found!");
-            return;
-        }
-        
-        System.out.println("Delivery Persons:");
-        System.out.println("=" + "=".repeat(30));
-        for (DeliveryPerson dp : deliveryPersons) {
-            System.out.println("ID: " + dp.getDeliveryPersonId() + " | Name: " + dp.getName() + " | Contact: " + dp.getContactNo());
+    // Logged before it is registered, so no assignment to it can reach the log ahead of it
+    public boolean addDeliveryPerson(int id, String name, long contact) {
+        if (findDeliveryPersonById(id) != null) {
+            out.println("Delivery person ID already exists!");
+            return false;
         }
+        DeliveryPerson deliveryPerson = new DeliveryPerson(id, name, contact);
+        OrderJournal journal = this.journal;
+        long position = journal != null ? journal.deliveryPersonAdded(deliveryPerson) : 0;
+        deliveryPersons.add(deliveryPerson);
+        if (journal != null) journal.awaitDurable(position);
+        out.println("Delivery person added successfully!");
+        return true;
     }
 
     // Promotion Management
-    public void addPromotion(String promoCode, String name, String description, double discountPercentage, 
+    public boolean addPromotion(String promoCode, String name, String description, double discountPercentage, 
                            double discountAmount, double minimumOrderAmount, int validDays, int maxUses) {
-        LocalDateTime startDate = LocalDateTime.now();
+        // Start from the cached clock so the promotion is valid on the very next check
+        LocalDateTime startDate = LocalDateTime.ofInstant(Instant.ofEpochMilli(CachedClock.millis()), ZoneId.systemDefault());
         LocalDateTime endDate = startDate.plusDays(validDays);
         
-        Promotion promotion;
-        if (discountPercentage > 0) {
-            promotion = new Promotion(nextPromotionId++, name, description, promoCode, 
-                                   discountPercentage, minimumOrderAmount, startDate, endDate, maxUses);
-        } else {
-            promotion = new Promotion(nextPromotionId++, name, description, promoCode, 
-                                   discountAmount, minimumOrderAmount, startDate, endDate, maxUses);
-        }
+        Promotion promotion = new Promotion(nextPromotionId++, name, description, promoCode, 
+                                           discountPercentage > 0 ? (int) Math.round(discountPercentage * 100) : 0, 
+                                           discountPercentage > 0 ? 0 : Money.ofRupees(discountAmount), 
+                                           Money.ofRupees(minimumOrderAmount), startDate, endDate, maxUses);
         
+        // Logged before it can be used, so no order with it can reach the log ahead of it
+        if (promotions.findByCode(promoCode) != null) {
+            out.println("Promo code already exists!");
+            return false;
+        }
+        OrderJournal journal = this.journal;
+        long position = journal != null ? journal.promotionAdded(promotion) : 0;
         promotions.add(promotion);
-        System.out.println("Promotion added successfully!");
+        if (journal != null) journal.awaitDurable(position);
+        out.println("Promotion added successfully!");
+        return true;
     }
 
-    public void viewPromotions() {
-        if (promotions.isEmpty()) {
-            System.out.println("No promotions found!");
-            return;
-        }
-        
-        System.out.println("Active Promotions:");
-        System.out.println("=" + "=".repeat(40));
+    // Promotions that can be used right now, in the order they were added
+    public List<Promotion> getValidPromotions() {
+        long now = CachedClock.millis();
+        List<Promotion> valid = new ArrayList<>();
         for (Promotion p : promotions) {
-            if (p.isValid()) {
-                System.out.println(p.getDetailedString());
-                System.out.println("-".repeat(40));
-            }
+            if (p.isValidAt(now)) valid.add(p);
         }
+        return valid;
     }
 
     public Promotion findPromotionByCode(String promoCode) {
-        return promotions.stream()
-                        .filter(p -> p.getPromoCode().equalsIgnoreCase(promoCode))
-                        .findFirst()
-                        .orElse(null);
+        return promotions.findByCode(promoCode);
     }
 
-    // Analytics and Reports
-    public void viewAnalytics() {
-        System.out.println("System Analytics:");
-        System.out.println("=" + "=".repeat(30));
-        System.out.println("Total Restaurants: " + restaurants.size());
-        System.out.println("Total Food Items: " + restaurants.stream().mapToInt(r -> r.getMenu().size()).sum());
-        System.out.println("Total Delivery Persons: " + deliveryPersons.size());
-        System.out.println("Total Orders: " + orders.size());
-        System.out.println("Active Promotions: " + promotions.stream().mapToInt(p -> p.isValid() ? 1 : 0).sum());
-        System.out.println("Total Reviews: " + reviews.size());
-        
-        // Order status breakdown
-        Map<String, Long> orderStatusCount = new HashMap<>();
-        for (Order order : orders) {
-            orderStatusCount.merge(order.getStatus(), 1L, Long::sum);
+    // Snapshot loading and log replay: entities arrive complete, so no messages. Replaying an
+    // addition that is already there changes nothing.
+    void restoreRestaurant(Restaurant restaurant) {
+        if (!register(restaurant)) return;
+        leaderboards.updateRestaurant(restaurant);
+        for (FoodItem item : restaurant.getMenu()) {
+            searchIndex.index(restaurant, item);
+            leaderboards.updateDish(restaurant, item);
         }
-        
-        System.out.println("\nOrder Status Breakdown:");
-        orderStatusCount.forEach((status, count) -> 
-            System.out.println("   " + status + ": " + count + " orders"));
-        
-        // Revenue calculation
-        double totalRevenue = orders.stream()
-                                  .filter(o -> "Delivered".equals(o.getStatus()))
-                                  .mapToDouble(Order::getTotalAmount)
-                                  .sum();
-        System.out.println("\nTotal Revenue: Rs. " + String.format("%.2f", totalRevenue));
+    }
+
+    // An added or edited menu item: adds it, or copies its fields onto the one on the menu
+    void restoreFoodItem(Restaurant restaurant, FoodItem saved) {
+        FoodItem item = restaurant.findFoodItemById(saved.getId());
+        if (item == null) {
+            restaurant.addFoodItem(saved);
+            searchIndex.index(restaurant, saved);
+            return;
+        }
+        item.setName(saved.getName());
+        item.setPricePaise(saved.getPricePaise());
+        item.setCategory(saved.getCategory());
+        item.setDescription(saved.getDescription());
+        item.setAvailable(saved.isAvailable());
+        item.setPreparationTime(saved.getPreparationTime());
+    }
+
+    void restoreFoodItemRemoval(Restaurant restaurant, int foodId) {
+        if (restaurant.removeFoodItem(foodId) == null) return;
+        searchIndex.remove(restaurant, foodId);
+        leaderboards.removeDish(restaurant.getId(), foodId);
+    }
+
+    void restoreDeliveryPerson(DeliveryPerson deliveryPerson) {
+        deliveryPersons.add(deliveryPerson);
+    }
+
+    void restorePromotion(Promotion promotion) {
+        promotions.add(promotion);
+        nextPromotionId = Math.max(nextPromotionId, promotion.getPromotionId() + 1);
+    }
+
+    // Analytics and Reports
+    public SystemReport getSystemReport() {
+        return new SystemReport(restaurants.size(),
+                                restaurants.stream().mapToInt(r -> r.getMenu().size()).sum(),
+                                deliveryPersons.size(), orders.size(), promotions.countValid(), reviews.size(),
+                                orders.getAnalytics());
     }
 
     // Getters
-    public List<Restaurant> getRestaurants() { return restaurants; }
-    public List<DeliveryPerson> getDeliveryPersons() { return deliveryPersons; }
-    public List<Promotion> getPromotions() { return promotions; }
-    public List<Review> getReviews() { return reviews; }
+    public List<Restaurant> getRestaurants() { return restaurants.asList(); }
+    public EntityRegistry<Restaurant> getRestaurantRegistry() { return restaurants; }
+    public List<DeliveryPerson> getDeliveryPersons() { return deliveryPersons.asList(); }
+    public List<Promotion> getPromotions() { return promotions.asList(); }
+    public PromotionRegistry getPromotionRegistry() { return promotions; }
+    public List<Review> getReviews() { return reviews.snapshot(); }
+    public ReviewIndex getReviewIndex() { return reviews; }
+    public FoodSearchIndex getSearchIndex() { return searchIndex; }
+    public RatingLeaderboards getLeaderboards() { return leaderboards; }
 }
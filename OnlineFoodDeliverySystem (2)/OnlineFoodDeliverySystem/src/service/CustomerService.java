@@ -1,447 +1,455 @@
 package service;
 
 import model.*;
+import util.CachedClock;
+import util.EntityRegistry;
+import util.Money;
+import util.OutputSink;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class CustomerService {
-    private List<Customer> customers = new ArrayList<>();
-    private List<Order> orders;
-    private List<Restaurant> restaurants;
-    private List<Promotion> promotions;
-    private List<Review> reviews;
-    private int nextReviewId = 1;
-
-    public CustomerService(List<Order> orders, List<Restaurant> restaurants) {
+    private static final int SEARCH_RESULT_LIMIT = 50;
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final int REVIEW_PAGE_SIZE = 10;
+
+    private EntityRegistry<Customer> customers = new EntityRegistry<>(Customer::getUserId);
+    private OrderStore orders;
+    private EntityRegistry<Restaurant> restaurants;
+    private OrderIdGenerator orderIds;
+    private PromotionRegistry promotions;
+    private ReviewIndex reviews;
+    private FoodSearchIndex searchIndex;
+    private RatingLeaderboards leaderboards;
+    private final OutputSink out;
+    private final AtomicInteger nextReviewId = new AtomicInteger(1);
+    private volatile OrderJournal journal;
+
+    public CustomerService(OrderStore orders, EntityRegistry<Restaurant> restaurants, OrderIdGenerator orderIds) {
+        this(orders, restaurants, orderIds, OutputSink.console());
+    }
+
+    public CustomerService(OrderStore orders, EntityRegistry<Restaurant> restaurants, OrderIdGenerator orderIds,
+                           OutputSink out) {
+        this.out = out;
         this.orders = orders;
         this.restaurants = restaurants;
-        this.promotions = new ArrayList<>();
-        this.reviews = new ArrayList<>();
+        this.orderIds = orderIds;
+        this.promotions = new PromotionRegistry();
+        this.reviews = new ReviewIndex();
+        this.searchIndex = new FoodSearchIndex();
     }
 
-    public void setPromotions(List<Promotion> promotions) {
+    public void setPromotions(PromotionRegistry promotions) {
         this.promotions = promotions;
     }
 
+    public void setSearchIndex(FoodSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    // Required for the top-rated views: pass AdminService's, which its restaurants keep current
+    public void setLeaderboards(RatingLeaderboards leaderboards) {
+        this.leaderboards = leaderboards;
+    }
+
+    public void setReviewIndex(ReviewIndex reviews) {
+        this.reviews = reviews;
+    }
+
+    // Set once the journal has been replayed; reviews from then on are logged
+    void setJournal(OrderJournal journal) {
+        this.journal = journal;
+    }
+
     // Customer Management
-    public void addCustomer(int id, String name, long contact) {
+    public boolean addCustomer(int id, String name, long contact) {
+        if (!customers.add(new Customer(id, name, contact))) {
+            out.println("❌ Customer ID already exists!");
+            return false;
+        }
+        OrderJournal journal = this.journal;
+        if (journal != null) journal.awaitDurable(journal.customerAdded(customers.get(id)));
+        out.println("✅ Customer created successfully!");
+        return true;
+    }
+
+    // The registered customer with this ID, or a new one registered silently (for orders read back from storage)
+    public Customer restoreCustomer(int id, String name, long contact) {
+        Customer existing = customers.get(id);
+        if (existing != null) return existing;
         customers.add(new Customer(id, name, contact));
-        System.out.println("✅ Customer created successfully!");
+        return customers.get(id);
     }
 
     public Customer findCustomerById(int id) {
-        return customers.stream().filter(c -> c.getUserId() == id).findFirst().orElse(null);
+        return customers.get(id);
     }
 
-    public void viewCustomers() {
-        if (customers.isEmpty()) {
-            System.out.println("❌ No customers found!");
-            return;
-        }
-        
-        System.out.println("👥 Registered Customers:");
-        System.out.println("=" + "=".repeat(40));
-        for (Customer c : customers) {
-            System.out.println("ID: " + c.getUserId() + " | Name: " + c.getUsername() + " | Contact: " + c.getContactNo());
-        }
+    public Restaurant findRestaurantById(int id) {
+        return restaurants.get(id);
     }
 
     // Restaurant and Menu Browsing
-    public void viewRestaurants() {
-        if (restaurants.isEmpty()) {
-            System.out.println("❌ No restaurants available!");
-            return;
-        }
-        
-        System.out.println("🍽️ Available Restaurants:");
-        System.out.println("=" + "=".repeat(50));
-        
+    public List<Restaurant> getOpenRestaurants() {
+        List<Restaurant> open = new ArrayList<>();
         for (Restaurant r : restaurants) {
-            if (r.isOpen()) {
-                System.out.println("🏪 Restaurant ID: " + r.getId());
-                System.out.println("📛 Name: " + r.getName());
-                System.out.println("🍴 Cuisine: " + r.getCuisineType());
-                System.out.println("⭐ Rating: " + r.getRatingDisplay());
-                System.out.println("🚚 Delivery Time: " + r.getDeliveryTime() + " minutes");
-                System.out.println("💰 Delivery Fee: Rs. " + String.format("%.2f", r.getDeliveryFee()));
-                System.out.println("💵 Min Order: Rs. " + String.format("%.2f", r.getMinimumOrderAmount()));
-                System.out.println();
-            }
+            if (r.isOpen()) open.add(r);
         }
+        return open;
     }
 
-    public void viewFoodItems() {
-        if (restaurants.isEmpty()) {
-            System.out.println("❌ No restaurants available!");
-            return;
-        }
-        
-        System.out.println("🍽️ Available Food Items:");
-        System.out.println("=" + "=".repeat(60));
-        
+    // Open restaurants with at least one available item, each with its available items
+    public List<MenuSection> getAvailableMenus() {
+        List<MenuSection> sections = new ArrayList<>();
         for (Restaurant r : restaurants) {
-            if (r.isOpen() && !r.getAvailableFoodItems().isEmpty()) {
-                System.out.println("🏪 " + r.getName() + " (" + r.getCuisineType() + ")");
-                System.out.println("⭐ Rating: " + r.getRatingDisplay());
-                System.out.println("📋 Menu:");
-                
-                for (FoodItem item : r.getAvailableFoodItems()) {
-                    System.out.println("   • " + item.getName() + " - Rs. " + String.format("%.2f", item.getPrice()));
-                    System.out.println("     Category: " + item.getCategory() + " | Rating: " + item.getRatingDisplay());
-                    System.out.println("     Prep Time: " + item.getPreparationTime() + "min | Available: ✅");
-                    System.out.println("     Description: " + item.getDescription());
-                    System.out.println();
-                }
-                System.out.println("-".repeat(60));
-            }
+            if (!r.isOpen()) continue;
+            List<FoodItem> available = r.getAvailableFoodItems();
+            if (!available.isEmpty()) sections.add(new MenuSection(r, available));
         }
+        return sections;
     }
 
-    public void viewFoodItemsByCategory(String category) {
-        System.out.println("🍽️ Food Items in Category: " + category);
-        System.out.println("=" + "=".repeat(50));
-        
-        boolean found = false;
+    // Open restaurants serving the category, each with its available items in it
+    public List<MenuSection> getFoodItemsByCategory(String category) {
+        List<MenuSection> sections = new ArrayList<>();
         for (Restaurant r : restaurants) {
-            if (r.isOpen()) {
-                List<FoodItem> categoryItems = r.getFoodItemsByCategory(category);
-                if (!categoryItems.isEmpty()) {
-                    found = true;
-                    System.out.println("🏪 " + r.getName());
-                    for (FoodItem item : categoryItems) {
-                        if (item.isAvailable()) {
-                            System.out.println("   • " + item.getName() + " - Rs. " + String.format("%.2f", item.getPrice()));
-                            System.out.println("     Rating: " + item.getRatingDisplay() + " | Prep Time: " + item.getPreparationTime() + "min");
-                        }
-                    }
-                    System.out.println();
-                }
+            if (!r.isOpen()) continue;
+            List<FoodItem> categoryItems = r.getFoodItemsByCategory(category);
+            if (categoryItems.isEmpty()) continue;
+            List<FoodItem> available = new ArrayList<>(categoryItems.size());
+            for (FoodItem item : categoryItems) {
+                if (item.isAvailable()) available.add(item);
             }
+            sections.add(new MenuSection(r, available));
         }
-        
-        if (!found) {
-            System.out.println("❌ No items found in this category!");
-        }
+        return sections;
     }
 
-    public void searchFoodItems(String searchTerm) {
-        System.out.println("🔍 Search Results for: " + searchTerm);
-        System.out.println("=" + "=".repeat(50));
-        
-        boolean found = false;
-        for (Restaurant r : restaurants) {
-            if (r.isOpen()) {
-                for (FoodItem item : r.getAvailableFoodItems()) {
-                    if (item.getName().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                        item.getDescription().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                        item.getCategory().toLowerCase().contains(searchTerm.toLowerCase())) {
-                        found = true;
-                        System.out.println("🏪 " + r.getName());
-                        System.out.println("   • " + item.getName() + " - Rs. " + String.format("%.2f", item.getPrice()));
-                        System.out.println("     Category: " + item.getCategory() + " | Rating: " + item.getRatingDisplay());
-                        System.out.println("     Description: " + item.getDescription());
-                        System.out.println();
-                    }
-                }
-            }
-        }
-        
-        if (!found) {
-            System.out.println("❌ No items found matching your search!");
-        }
+    // Blank cuisine means all restaurants
+    public List<Restaurant> getTopRestaurants(String cuisineType) {
+        RatingLeaderboards leaderboards = leaderboards();
+        return cuisineType == null || cuisineType.isBlank() ? leaderboards.topRestaurants(LEADERBOARD_SIZE)
+                                                            : leaderboards.topRestaurants(cuisineType.trim(), LEADERBOARD_SIZE);
+    }
+
+    // Blank category means all dishes
+    public List<FoodItem> getTopDishes(String category) {
+        RatingLeaderboards leaderboards = leaderboards();
+        return category == null || category.isBlank() ? leaderboards.topDishes(LEADERBOARD_SIZE)
+                                                      : leaderboards.topDishes(category.trim(), LEADERBOARD_SIZE);
+    }
+
+    // Reviews a restaurant or dish needs before it is ranked
+    public int getLeaderboardMinReviews() {
+        return leaderboards().getMinReviews();
+    }
+
+    public List<FoodSearchIndex.Hit> searchFoodItems(String searchTerm) {
+        return searchIndex.search(searchTerm, SEARCH_RESULT_LIMIT);
+    }
+
+    private RatingLeaderboards leaderboards() {
+        if (leaderboards == null) throw new IllegalStateException("leaderboards not set, see setLeaderboards");
+        return leaderboards;
     }
 
     // Cart Management
-    public void addFoodToCart(int custId, int restId, int foodId, int qty) {
+    public boolean addFoodToCart(int custId, int restId, int foodId, int qty) {
         Customer customer = findCustomerById(custId);
         if (customer == null) {
-            System.out.println("❌ Customer not found!");
-            return;
+            out.println("❌ Customer not found!");
+            return false;
         }
         
-        Restaurant restaurant = restaurants.stream()
-                                         .filter(r -> r.getId() == restId)
-                                         .findFirst()
-                                         .orElse(null);
+        Restaurant restaurant = restaurants.get(restId);
         
         if (restaurant == null) {
-            System.out.println("❌ Restaurant not found!");
-            return;
+            out.println("❌ Restaurant not found!");
+            return false;
         }
         
         FoodItem item = restaurant.findFoodItemById(foodId);
         if (item == null) {
-            System.out.println("❌ Food item not found!");
-            return;
+            out.println("❌ Food item not found!");
+            return false;
         }
         
         if (!item.isAvailable()) {
-            System.out.println("❌ This item is currently unavailable!");
-            return;
+            out.println("❌ This item is currently unavailable!");
+            return false;
         }
         
         if (qty <= 0) {
-            System.out.println("❌ Quantity must be greater than 0!");
-            return;
+            out.println("❌ Quantity must be greater than 0!");
+            return false;
         }
         
         customer.getCart().addItem(item, qty);
-        System.out.println("✅ " + item.getName() + " x" + qty + " added to cart!");
+        out.println("✅ " + item.getName() + " x" + qty + " added to cart!");
+        return true;
     }
 
-    public void removeFromCart(int custId, int restId, int foodId) {
+    public boolean removeFromCart(int custId, int restId, int foodId) {
         Customer customer = findCustomerById(custId);
         if (customer == null) {
-            System.out.println("❌ Customer not found!");
-            return;
+            out.println("❌ Customer not found!");
+            return false;
         }
         
-        Restaurant restaurant = restaurants.stream()
-                                         .filter(r -> r.getId() == restId)
-                                         .findFirst()
-                                         .orElse(null);
+        Restaurant restaurant = restaurants.get(restId);
         
         if (restaurant == null) {
-            System.out.println("❌ Restaurant not found!");
-            return;
+            out.println("❌ Restaurant not found!");
+            return false;
         }
         
         FoodItem item = restaurant.findFoodItemById(foodId);
         if (item == null) {
-            System.out.println("❌ Food item not found!");
-            return;
+            out.println("❌ Food item not found!");
+            return false;
         }
         
-        customer.getCart().removeItem(item);
-        System.out.println("✅ " + item.getName() + " removed from cart!");
+        if (!customer.getCart().removeItem(item)) {
+            out.println("❌ " + item.getName() + " is not in your cart!");
+            return false;
+        }
+        out.println("✅ " + item.getName() + " removed from cart!");
+        return true;
     }
 
-    public void viewCart(int custId) {
+    // The customer's cart, or null if there is no such customer
+    public Cart getCart(int custId) {
         Customer c = findCustomerById(custId);
-        if (c == null) {
-            System.out.println("❌ Customer not found!");
-            return;
-        }
-        
-        if (c.getCart().getItems().isEmpty()) {
-            System.out.println("🛒 Your cart is empty!");
-            return;
-        }
-        
-        System.out.println("🛒 Your Cart:");
-        System.out.println("=" + "=".repeat(40));
-        System.out.println(c.getCart());
+        return c != null ? c.getCart() : null;
     }
 
-    public void clearCart(int custId) {
+    public boolean clearCart(int custId) {
         Customer c = findCustomerById(custId);
         if (c == null) {
-            System.out.println("❌ Customer not found!");
-            return;
+            out.println("❌ Customer not found!");
+            return false;
         }
         
-        c.getCart().getItems().clear();
-        System.out.println("✅ Cart cleared successfully!");
+        c.getCart().clear();
+        out.println("✅ Cart cleared successfully!");
+        return true;
     }
 
     // Order Management
     public Order placeOrder(int custId, String deliveryAddress, String paymentMethod, String specialInstructions) {
+        return placeOrder(custId, deliveryAddress, paymentMethod, specialInstructions, null);
+    }
+
+    public Order placeOrder(int custId, String deliveryAddress, String paymentMethod, String specialInstructions,
+                            String promoCode) {
         Customer c = findCustomerById(custId);
         if (c == null) {
-            System.out.println("❌ Customer not found!");
+            out.println("❌ Customer not found!");
             return null;
         }
         
-        if (c.getCart().getItems().isEmpty()) {
-            System.out.println("❌ Your cart is empty! Add items before placing an order.");
+        if (c.getCart().isEmpty()) {
+            out.println("❌ Your cart is empty! Add items before placing an order.");
             return null;
         }
         
-        int orderId = orders.size() + 1;
+        Promotion promo = null;
+        if (promoCode != null && !promoCode.isBlank()) {
+            promo = findPromotionByCode(promoCode.trim());
+            if (promo == null) {
+                out.println("❌ Invalid or expired promo code!");
+                return null;
+            }
+        }
+        
+        int restaurantId = c.getCart().getRestaurantId();
+        int orderId = orderIds.nextOrderId();
         Order order = new Order(orderId, c, deliveryAddress, paymentMethod, specialInstructions);
-        orders.add(order);
+        long subtotal = order.getSubtotalPaise();
+        if (promo != null) {
+            if (subtotal < promo.getMinimumOrderPaise()) {
+                out.println("❌ Minimum order for this promo code is Rs. " + Money.format(promo.getMinimumOrderPaise()));
+                return null;
+            }
+            if (!promo.appliesToRestaurant(restaurantId)) {
+                out.println("❌ This promo code is not valid for the restaurant in your cart!");
+                return null;
+            }
+            long discount = promo.discountFor(subtotal);
+            // Other checkouts may have taken the last uses since the lookup
+            if (!promo.tryReserve()) {
+                out.println("❌ Promo code has reached its usage limit!");
+                return null;
+            }
+            order.applyPromotion(promo, discount);
+        } else {
+            // No code given: apply the best promotion the order qualifies for, if any.
+            // A promotion that runs out between the lookup and the reservation drops out of the next lookup.
+            for (int attempt = 0; attempt < 3 && promo == null; attempt++) {
+                Promotion best = promotions.findBest(subtotal, restaurantId);
+                if (best == null) break;
+                long discount = best.discountFor(subtotal);
+                if (best.tryReserve()) {
+                    promo = best;
+                    order.applyPromotion(best, discount);
+                }
+            }
+        }
+        if (!orders.add(order)) {
+            if (promo != null) promo.releaseReservation();
+            out.println("❌ Could not place order, please try again.");
+            return null;
+        }
+        if (promo != null) promo.commitReservation();
         
-        System.out.println("✅ Order placed successfully!");
-        System.out.println("🆔 Order ID: " + orderId);
-        System.out.println("📋 Tracking Number: " + order.getTrackingNumber());
-        System.out.println("💰 Total Amount: Rs. " + String.format("%.2f", order.getTotalAmount()));
-        System.out.println("⏰ Estimated Delivery: " + order.getFormattedDeliveryTime());
+        out.println("✅ Order placed successfully!");
+        out.println("🆔 Order ID: " + orderId);
+        out.println("📋 Tracking Number: " + order.getTrackingNumber());
+        if (promo != null) {
+            out.println("🎫 Discount (" + promo.getPromoCode() + "): Rs. " + Money.format(order.getDiscountPaise()));
+        }
+        out.println("💰 Total Amount: Rs. " + Money.format(order.getTotalPaise()));
+        out.println("⏰ Estimated Delivery: " + order.getFormattedDeliveryTime());
         
         // Clear cart after successful order
-        c.getCart().getItems().clear();
+        c.getCart().clear();
         
         return order;
     }
 
-    public void viewOrders(int custId) {
-        List<Order> customerOrders = orders.stream()
-                                          .filter(o -> o.getCustomer().getUserId() == custId)
-                                          .collect(Collectors.toList());
-        
-        if (customerOrders.isEmpty()) {
-            System.out.println("❌ No orders found for this customer!");
-            return;
-        }
-        
-        System.out.println("📦 Your Orders:");
-        System.out.println("=" + "=".repeat(50));
-        for (Order order : customerOrders) {
-            System.out.println(order.getDetailedString());
-            System.out.println();
-        }
+    public List<Order> getOrders(int custId) {
+        return orders.stream()
+                     .filter(o -> o.getCustomer().getUserId() == custId)
+                     .collect(Collectors.toList());
     }
 
-    public void trackOrder(int orderId) {
-        Order order = orders.stream()
-                           .filter(o -> o.getOrderId() == orderId)
-                           .findFirst()
-                           .orElse(null);
-        
-        if (order == null) {
-            System.out.println("❌ Order not found!");
-            return;
-        }
-        
-        System.out.println("📦 Order Tracking:");
-        System.out.println("=" + "=".repeat(40));
-        System.out.println("🆔 Order ID: " + order.getOrderId());
-        System.out.println("📋 Tracking Number: " + order.getTrackingNumber());
-        System.out.println("📦 Status: " + order.getStatusWithEmoji());
-        System.out.println("⏰ Order Time: " + order.getFormattedOrderTime());
-        System.out.println("🚚 Estimated Delivery: " + order.getFormattedDeliveryTime());
-        
-        if (order.getDeliveryPerson() != null) {
-            System.out.println("👨‍💼 Delivery Person: " + order.getDeliveryPerson().getName());
-            System.out.println("📞 Contact: " + order.getDeliveryPerson().getContactNo());
-        }
+    public Order findOrderById(int orderId) {
+        return orders.findById(orderId);
     }
 
     // Promotion Management
-    public void viewPromotions() {
-        if (promotions.isEmpty()) {
-            System.out.println("❌ No promotions available!");
-            return;
-        }
-        
-        System.out.println("🎉 Available Promotions:");
-        System.out.println("=" + "=".repeat(40));
+    public List<Promotion> getAvailablePromotions() {
+        List<Promotion> available = new ArrayList<>();
+        long now = CachedClock.millis();
         for (Promotion p : promotions) {
-            if (p.isValid()) {
-                System.out.println("🎫 " + p.getName());
-                System.out.println("   Code: " + p.getPromoCode());
-                System.out.println("   Discount: " + p.getDiscountDisplay());
-                System.out.println("   Min Order: Rs. " + String.format("%.2f", p.getMinimumOrderAmount()));
-                System.out.println("   Valid Until: " + p.getFormattedEndDate());
-                System.out.println();
-            }
+            if (p.isValidAt(now)) available.add(p);
         }
+        return available;
     }
 
     public Promotion findPromotionByCode(String promoCode) {
-        return promotions.stream()
-                        .filter(p -> p.getPromoCode().equalsIgnoreCase(promoCode) && p.isValid())
-                        .findFirst()
-                        .orElse(null);
+        return promotions.findValidByCode(promoCode);
     }
 
     // Review and Rating System
-    public void addReview(int custId, int restaurantId, double rating, String comment) {
+    public Review addReview(int custId, int restaurantId, double rating, String comment) {
         Customer customer = findCustomerById(custId);
         if (customer == null) {
-            System.out.println("❌ Customer not found!");
-            return;
+            out.println("❌ Customer not found!");
+            return null;
         }
         
-        Restaurant restaurant = restaurants.stream()
-                                         .filter(r -> r.getId() == restaurantId)
-                                         .findFirst()
-                                         .orElse(null);
+        Restaurant restaurant = restaurants.get(restaurantId);
         
         if (restaurant == null) {
-            System.out.println("❌ Restaurant not found!");
-            return;
+            out.println("❌ Restaurant not found!");
+            return null;
         }
         
         if (rating < 1.0 || rating > 5.0) {
-            System.out.println("❌ Rating must be between 1.0 and 5.0!");
-            return;
+            out.println("❌ Rating must be between 1.0 and 5.0!");
+            return null;
         }
         
-        Review review = new Review(nextReviewId++, customer, restaurant, rating, comment);
+        Review review = new Review(nextReviewId.getAndIncrement(), customer, restaurant, rating, comment);
         reviews.add(review);
         
-        // Update restaurant rating
+        // Update restaurant rating; the restaurant passes it on to the leaderboards
         restaurant.addRating(rating);
+        logReview(review);
         
-        System.out.println("✅ Review added successfully!");
-        System.out.println("⭐ Rating: " + review.getRatingStars());
+        out.println("✅ Review added successfully!");
+        out.println("⭐ Rating: " + review.getRatingStars());
+        return review;
     }
 
-    public void addFoodItemReview(int custId, int restaurantId, int foodId, double rating, String comment) {
+    public Review addFoodItemReview(int custId, int restaurantId, int foodId, double rating, String comment) {
         Customer customer = findCustomerById(custId);
         if (customer == null) {
-            System.out.println("❌ Customer not found!");
-            return;
+            out.println("❌ Customer not found!");
+            return null;
         }
         
-        Restaurant restaurant = restaurants.stream()
-                                         .filter(r -> r.getId() == restaurantId)
-                                         .findFirst()
-                                         .orElse(null);
+        Restaurant restaurant = restaurants.get(restaurantId);
         
         if (restaurant == null) {
-            System.out.println("❌ Restaurant not found!");
-            return;
+            out.println("❌ Restaurant not found!");
+            return null;
         }
         
         FoodItem foodItem = restaurant.findFoodItemById(foodId);
         if (foodItem == null) {
-            System.out.println("❌ Food item not found!");
-            return;
+            out.println("❌ Food item not found!");
+            return null;
         }
         
         if (rating < 1.0 || rating > 5.0) {
-            System.out.println("❌ Rating must be between 1.0 and 5.0!");
-            return;
+            out.println("❌ Rating must be between 1.0 and 5.0!");
+            return null;
         }
         
-        Review review = new Review(nextReviewId++, customer, foodItem, rating, comment);
-        reviews.add(review);
-        
-        // Update food item rating
-        foodItem.addRating(rating);
-        
-        System.out.println("✅ Food item review added successfully!");
-        System.out.println("⭐ Rating: " + review.getRatingStars());
-    }
+        OrderJournal journal = this.journal;
+        Review review;
+        long position = 0;
+        // Under the restaurant's monitor, as removals of its items are logged, so the review can't
+        // reach the log after the removal of its item
+        synchronized (restaurant) {
+            if (restaurant.findFoodItemById(foodId) != foodItem) {
+                out.println("❌ Food item not found!");
+                return null;
+            }
+            review = new Review(nextReviewId.getAndIncrement(), customer, foodItem, rating, comment);
+            reviews.add(review);
 
-    public void viewReviews(int restaurantId) {
-        List<Review> restaurantReviews = reviews.stream()
-                                               .filter(r -> r.getRestaurant() != null && r.getRestaurant().getId() == restaurantId)
-                                               .collect(Collectors.toList());
-        
-        if (restaurantReviews.isEmpty()) {
-            System.out.println("❌ No reviews found for this restaurant!");
-            return;
+            // Update food item rating; the restaurant passes it on to the leaderboards
+            foodItem.addRating(rating);
+            if (journal != null) position = journal.reviewAdded(review);
         }
+        if (journal != null) journal.awaitDurable(position);
         
-        System.out.println("⭐ Reviews for " + restaurants.stream()
-                                                         .filter(r -> r.getId() == restaurantId)
-                                                         .findFirst()
-                                                         .map(Restaurant::getName)
-                                                         .orElse("Unknown Restaurant") + ":");
-        System.out.println("=" + "=".repeat(50));
-        
-        for (Review review : restaurantReviews) {
-            System.out.println("👤 " + review.getCustomer().getUsername());
-            System.out.println("⭐ " + review.getRatingStars() + " (" + review.getRating() + "/5.0)");
-            System.out.println("💬 " + review.getComment());
-            System.out.println("📅 " + review.getFormattedDate());
-            System.out.println("-".repeat(30));
+        out.println("✅ Food item review added successfully!");
+        out.println("⭐ Rating: " + review.getRatingStars());
+        return review;
+    }
+
+    private void logReview(Review review) {
+        OrderJournal journal = this.journal;
+        if (journal != null) journal.awaitDurable(journal.reviewAdded(review));
+    }
+
+    // Snapshot loading and log replay: indexes the review, re-applies its rating and moves review IDs past it
+    void restoreReview(Review review) {
+        reviews.add(review);
+        if (review.getRestaurant() != null) {
+            review.getRestaurant().addRating(review.getRating());
+        } else if (review.getFoodItem() != null) {
+            review.getFoodItem().addRating(review.getRating());
         }
+        nextReviewId.accumulateAndGet(review.getReviewId() + 1, Math::max);
+    }
+
+    // One page of a restaurant's reviews, newest first; start from ReviewIndex.FIRST_PAGE
+    public ReviewIndex.Page getRestaurantReviews(int restaurantId, int cursor) {
+        return reviews.restaurantReviews(restaurantId, cursor, REVIEW_PAGE_SIZE);
+    }
+
+    public ReviewIndex.Page getFoodItemReviews(int restaurantId, int foodId, int cursor) {
+        return reviews.foodItemReviews(restaurantId, foodId, cursor, REVIEW_PAGE_SIZE);
     }
 
     // Getters
-    public List<Customer> getCustomers() { return customers; }
-    public List<Review> getReviews() { return reviews; }
+    public List<Customer> getCustomers() { return customers.asList(); }
+    public List<Review> getReviews() { return reviews.snapshot(); }
 }
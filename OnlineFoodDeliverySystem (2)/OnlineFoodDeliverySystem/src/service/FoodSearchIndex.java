@@ -0,0 +1,274 @@
+package service;
+
+import model.FoodItem;
+import model.Restaurant;
+import util.IntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Tokenized inverted index over food item name, category and description.
+// Every suffix of every token is indexed, so a query term matches anywhere inside a word
+// ("burger" finds "Cheeseburger", "piz" finds "Pizza"), like the substring search this replaced.
+// Unlike that search, a query is split into terms and all terms must match, in any order.
+// Results are ranked by field weight (name > category > description), then by item rating.
+public class FoodSearchIndex {
+    private static final int NAME = 1;
+    private static final int CATEGORY = 2;
+    private static final int DESCRIPTION = 4;
+
+    public static class Hit {
+        private final Restaurant restaurant;
+        private final FoodItem item;
+        private final int score;
+
+        Hit(Restaurant restaurant, FoodItem item, int score) {
+            this.restaurant = restaurant;
+            this.item = item;
+            this.score = score;
+        }
+
+        public Restaurant getRestaurant() { return restaurant; }
+        public FoodItem getItem() { return item; }
+        public int getScore() { return score; }
+    }
+
+    // One indexed version of a food item; replaced (and the old one marked dead) on reindex.
+    // tokens holds the sorted token suffixes and shares its instances with the posting list keys.
+    private static class Document {
+        final Restaurant restaurant;
+        final FoodItem item;
+        final String[] tokens;
+        final byte[] fields;
+        boolean live = true;
+
+        Document(Restaurant restaurant, FoodItem item, String[] tokens, byte[] fields) {
+            this.restaurant = restaurant;
+            this.item = item;
+            this.tokens = tokens;
+            this.fields = fields;
+        }
+    }
+
+    // Postings for one token suffix; dead documents are compacted lazily and empty lists dropped
+    private static class PostingList {
+        final String token;
+        Document[] docs = new Document[4];
+        int size;
+        int dead;
+
+        PostingList(String token) {
+            this.token = token;
+        }
+
+        void add(Document doc) {
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+
+        void markDead() {
+            if (++dead > size / 2) compact();
+        }
+
+        private void compact() {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (docs[i].live) docs[n++] = docs[i];
+            }
+            Arrays.fill(docs, n, size, null);
+            size = n;
+            dead = 0;
+        }
+    }
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final IntHashMap<IntHashMap<Document>> documents = new IntHashMap<>(); // restaurant ID -> food ID -> doc
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::getScore)
+            .thenComparingDouble(h -> h.getItem().getRating())
+            .thenComparingInt(h -> -h.getItem().getId());
+
+    // Adds the item, or re-indexes it if it was indexed before
+    public void index(Restaurant restaurant, FoodItem item) {
+        TreeMap<String, Integer> fieldsByToken = new TreeMap<>();
+        addTokens(fieldsByToken, item.getName(), NAME);
+        addTokens(fieldsByToken, item.getCategory(), CATEGORY);
+        addTokens(fieldsByToken, item.getDescription(), DESCRIPTION);
+        String[] tokens = new String[fieldsByToken.size()];
+        byte[] fields = new byte[tokens.length];
+
+        lock.writeLock().lock();
+        try {
+            IntHashMap<Document> docs = documents.get(restaurant.getId());
+            if (docs == null) {
+                docs = new IntHashMap<>();
+                documents.put(restaurant.getId(), docs);
+            }
+            // Retire first, so lists it empties and drops are recreated below rather than reused
+            retire(docs.get(item.getId()));
+            PostingList[] lists = new PostingList[tokens.length];
+            int i = 0;
+            for (Map.Entry<String, Integer> e : fieldsByToken.entrySet()) {
+                lists[i] = postings.computeIfAbsent(e.getKey(), PostingList::new);
+                tokens[i] = lists[i].token;
+                fields[i] = (byte) e.getValue().intValue();
+                i++;
+            }
+            Document doc = new Document(restaurant, item, tokens, fields);
+            docs.put(item.getId(), doc);
+            for (PostingList list : lists) list.add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Restaurant restaurant, int foodId) {
+        lock.writeLock().lock();
+        try {
+            IntHashMap<Document> docs = documents.get(restaurant.getId());
+            if (docs != null) retire(docs.remove(foodId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns up to limit hits for open restaurants and available items, best first.
+    // Only the postings of the rarest term are walked; other terms are checked against
+    // each candidate's own sorted token array.
+    public List<Hit> search(String query, int limit) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0 || limit <= 0) return Collections.emptyList();
+
+        lock.readLock().lock();
+        try {
+            String driver = null;
+            Collection<PostingList> driverLists = null;
+            long driverSize = Long.MAX_VALUE;
+            for (String term : terms) {
+                Collection<PostingList> lists = postings.subMap(term, true, term + Character.MAX_VALUE, false).values();
+                long size = 0;
+                for (PostingList list : lists) size += list.size - list.dead;
+                if (size == 0) return Collections.emptyList();
+                if (size < driverSize) {
+                    driver = term;
+                    driverLists = lists;
+                    driverSize = size;
+                }
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+            for (PostingList list : driverLists) {
+                for (int i = 0; i < list.size; i++) {
+                    Document doc = list.docs[i];
+                    if (!doc.live || !doc.restaurant.isOpen() || !doc.item.isAvailable()) continue;
+                    // a prefix can match several suffixes of one document; count it only once
+                    if (doc.tokens[lowerBound(doc.tokens, driver)] != list.token) continue;
+                    int score = score(doc, terms);
+                    if (score > 0) offer(best, limit, doc, score);
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of distinct indexed suffixes with live postings
+    int postingListCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void offer(PriorityQueue<Hit> best, int limit, Document doc, int score) {
+        if (best.size() == limit) {
+            Hit worst = best.peek();
+            if (score < worst.score || (score == worst.score && RANKING.compare(new Hit(doc.restaurant, doc.item, score), worst) <= 0)) {
+                return;
+            }
+            best.poll();
+        }
+        best.add(new Hit(doc.restaurant, doc.item, score));
+    }
+
+    // Sum over terms of the best field weight among the document's suffixes with that prefix; 0 if any term misses
+    private static int score(Document doc, String[] terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (int i = lowerBound(doc.tokens, term); i < doc.tokens.length && doc.tokens[i].startsWith(term); i++) {
+                best = Math.max(best, weight(doc.fields[i]));
+            }
+            if (best == 0) return 0;
+            total += best;
+        }
+        return total;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void retire(Document old) {
+        if (old == null) return;
+        old.live = false;
+        for (String token : old.tokens) {
+            PostingList list = postings.get(token);
+            if (list != null) {
+                list.markDead();
+                if (list.size == 0) postings.remove(token);
+            }
+        }
+    }
+
+    private static int weight(int fieldMask) {
+        if ((fieldMask & NAME) != 0) return 4;
+        if ((fieldMask & CATEGORY) != 0) return 2;
+        return 1;
+    }
+
+    private static void addTokens(TreeMap<String, Integer> fieldsByToken, String text, int field) {
+        for (String token : tokenize(text)) {
+            for (int start = 0; start < token.length(); start++) {
+                fieldsByToken.merge(token.substring(start), field, (a, b) -> a | b);
+            }
+        }
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) return new String[0];
+        List<String> tokens = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            } else if (sb.length() > 0) {
+                tokens.add(sb.toString());
+                sb.setLength(0);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,20 @@
+package service;
+
+import model.FoodItem;
+import model.Restaurant;
+
+import java.util.List;
+
+// One restaurant's part of a customer menu listing: the restaurant and the items shown for it.
+public class MenuSection {
+    private final Restaurant restaurant;
+    private final List<FoodItem> items;
+
+    MenuSection(Restaurant restaurant, List<FoodItem> items) {
+        this.restaurant = restaurant;
+        this.items = items;
+    }
+
+    public Restaurant getRestaurant() { return restaurant; }
+    public List<FoodItem> getItems() { return items; }
+}
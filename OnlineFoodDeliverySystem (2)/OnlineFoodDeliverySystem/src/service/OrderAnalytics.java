@@ -0,0 +1,88 @@
+package service;
+
+import model.Order;
+import model.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running order aggregates, updated on placement and on every status change.
+// Striped adders keep concurrent updates cheap and every read is O(1) in the order count.
+// Revenue is summed in paise, so totals are exact and match the per-order figures.
+public class OrderAnalytics {
+    private final LongAdder totalOrders = new LongAdder();
+    private final LongAdder[] statusCounts = new LongAdder[OrderStatus.values().length];
+    private final LongAdder deliveredOrders = new LongAdder();
+    private final LongAdder deliveredRevenuePaise = new LongAdder();
+    private final LongAdder pendingRevenuePaise = new LongAdder();
+    private final ConcurrentHashMap<Long, LongAdder> ordersByDay = new ConcurrentHashMap<>();
+
+    public OrderAnalytics() {
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = new LongAdder();
+        }
+    }
+
+    void orderPlaced(Order order, OrderStatus status) {
+        totalOrders.increment();
+        ordersByDay.computeIfAbsent(order.getOrderTime().toLocalDate().toEpochDay(), d -> new LongAdder()).increment();
+        enter(order, status);
+    }
+
+    void statusChanged(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        leave(order, oldStatus);
+        enter(order, newStatus);
+    }
+
+    private void enter(Order order, OrderStatus status) {
+        statusCounts[status.ordinal()].increment();
+        if (status == OrderStatus.DELIVERED) {
+            deliveredOrders.increment();
+            deliveredRevenuePaise.add(order.getTotalPaise());
+        } else if (status != OrderStatus.CANCELLED) {
+            pendingRevenuePaise.add(order.getTotalPaise());
+        }
+    }
+
+    private void leave(Order order, OrderStatus status) {
+        statusCounts[status.ordinal()].decrement();
+        if (status == OrderStatus.DELIVERED) {
+            deliveredOrders.decrement();
+            deliveredRevenuePaise.add(-order.getTotalPaise());
+        } else if (status != OrderStatus.CANCELLED) {
+            pendingRevenuePaise.add(-order.getTotalPaise());
+        }
+    }
+
+    public long getTotalOrders() { return totalOrders.sum(); }
+    public long getDeliveredRevenuePaise() { return deliveredRevenuePaise.sum(); }
+    public long getPendingRevenuePaise() { return pendingRevenuePaise.sum(); }
+
+    // Rounded to the nearest paisa
+    public long getAverageOrderValuePaise() {
+        long delivered = deliveredOrders.sum();
+        return delivered == 0 ? 0 : (deliveredRevenuePaise.sum() + delivered / 2) / delivered;
+    }
+
+    public long getOrdersOn(LocalDate day) {
+        LongAdder count = ordersByDay.get(day.toEpochDay());
+        return count == null ? 0 : count.sum();
+    }
+
+    // Status -> number of orders currently in it (statuses with no orders are left out)
+    public Map<OrderStatus, Long> getStatusCounts() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            long n = statusCounts[status.ordinal()].sum();
+            if (n > 0) counts.put(status, n);
+        }
+        return counts;
+    }
+
+    public long getOrderCount(OrderStatus status) {
+        return statusCounts[status.ordinal()].sum();
+    }
+}
@@ -0,0 +1,31 @@
+package service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out order IDs from one atomic counter shared by every order placement path,
+// so concurrent checkouts never receive the same ID and IDs are never reused.
+// The tracking number embeds the order ID, so it is unique whenever the ID is.
+public class OrderIdGenerator {
+    private final AtomicInteger lastIssued;
+
+    public OrderIdGenerator() {
+        this(0);
+    }
+
+    public OrderIdGenerator(int lastIssuedId) {
+        this.lastIssued = new AtomicInteger(lastIssuedId);
+    }
+
+    public int nextOrderId() {
+        return lastIssued.incrementAndGet();
+    }
+
+    // Moves the counter past an ID issued elsewhere, e.g. by an order restored from storage
+    public void advancePast(int issuedId) {
+        lastIssued.accumulateAndGet(issuedId, Math::max);
+    }
+
+    public int getLastIssuedId() {
+        return lastIssued.get();
+    }
+}
@@ -0,0 +1,341 @@
+package service;
+
+import model.*;
+import util.CompactReader;
+import util.CompactWriter;
+import util.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-ahead log of order events: placements (the whole order, in ModelCodec's layout), status
+// transitions and delivery assignments, plus the reviews and customers added and every catalog
+// change AdminService makes. OrderStore and CustomerService log each event once they have applied
+// it; additions to the catalog are logged before they are published, so nothing that refers to
+// them can be logged ahead of them. Each caller returns when its event is durable. Opening the
+// journal replays the log into an empty store, which rebuilds its indexes and analytics,
+// re-registers the customers, re-applies the catalog changes, re-counts promotion uses, re-applies
+// review ratings and moves the order and review IDs past every restored one. A reference the
+// replay can't resolve means the log is damaged, and open() fails rather than drop it.
+//
+// snapshot() writes the catalog, customers and orders to a StateSnapshot and drops the log
+// segments it covers. open() then loads the snapshot first and replays only the log after it.
+public class OrderJournal implements AutoCloseable {
+    private static final String SNAPSHOT_FILE = "state.snapshot";
+
+    private static final byte PLACED = 1;
+    private static final byte STATUS_CHANGED = 2;
+    private static final byte DELIVERY_ASSIGNED = 3;
+    private static final byte REVIEW_ADDED = 4;
+    private static final byte RESTAURANT_ADDED = 5;
+    private static final byte RESTAURANT_UPDATED = 6;
+    private static final byte FOOD_ITEM_SAVED = 7;
+    private static final byte FOOD_ITEM_REMOVED = 8;
+    private static final byte DELIVERY_PERSON_ADDED = 9;
+    private static final byte PROMOTION_ADDED = 10;
+    private static final byte CUSTOMER_ADDED = 11;
+
+    private static final ThreadLocal<CompactWriter> WRITERS = ThreadLocal.withInitial(() -> new CompactWriter(256));
+
+    private final Path dir;
+    private final WriteAheadLog log;
+    private final Replayer state;
+    private final AtomicLong eventsSinceSnapshot = new AtomicLong();
+    private boolean fromSnapshot;
+    private int restoredOrders;
+    private long replayedEvents;
+
+    private OrderJournal(Path dir, WriteAheadLog log, Replayer state) {
+        this.dir = dir;
+        this.log = log;
+        this.state = state;
+    }
+
+    // Whether open() will load the catalog from a snapshot, in which case the AdminService
+    // should be created without its sample data
+    public static boolean hasSnapshot(Path dir) {
+        return Files.exists(dir.resolve(SNAPSHOT_FILE));
+    }
+
+    public static OrderJournal open(Path dir, OrderStore store, CustomerService customers, AdminService admin,
+                                    OrderIdGenerator orderIds) throws IOException {
+        Replayer replayer = new Replayer(store, customers, admin, orderIds);
+        long replayFrom = 0;
+        boolean fromSnapshot = hasSnapshot(dir);
+        if (fromSnapshot) {
+            replayFrom = StateSnapshot.load(dir.resolve(SNAPSHOT_FILE), admin, replayer);
+            replayer.events = 0;
+        }
+        WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES, replayFrom, replayer::apply);
+        OrderJournal journal = new OrderJournal(dir, log, replayer);
+        journal.fromSnapshot = fromSnapshot;
+        journal.restoredOrders = replayer.restoredOrders;
+        journal.replayedEvents = replayer.events;
+        journal.eventsSinceSnapshot.set(replayer.events);
+        store.setJournal(journal);
+        customers.setJournal(journal);
+        admin.setJournal(journal);
+        return journal;
+    }
+
+    public boolean isFromSnapshot() { return fromSnapshot; }
+    public int getRestoredOrders() { return restoredOrders; }
+    // Log events replayed by open(), i.e. those after the snapshot if there was one
+    public long getReplayedEvents() { return replayedEvents; }
+    public long getEventsSinceSnapshot() { return eventsSinceSnapshot.get(); }
+
+    // Writes a new snapshot and deletes the log segments it makes redundant. Orders may keep
+    // changing meanwhile: every event before the snapshot's position is already applied to the
+    // orders it reads, and replaying a later one over an order that reflects it changes nothing.
+    // The catalog isn't thread-safe, so call this from the thread that edits it.
+    public void snapshot() throws IOException {
+        long position = log.getAppendPosition();
+        log.awaitDurable(position);
+        eventsSinceSnapshot.set(0);
+        StateSnapshot.write(dir.resolve(SNAPSHOT_FILE), position, state.admin, state.customers,
+                            state.store, state.orderIds.getLastIssuedId());
+        log.deleteSegmentsBefore(position);
+    }
+
+    // Returns the log position to wait on with awaitDurable
+    long orderPlaced(Order order) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(PLACED);
+        ModelCodec.writeOrder(w, order);
+        return append(w);
+    }
+
+    // A replayed delivery takes the time of the change as its delivery time
+    long statusChanged(Order order, OrderStatus status) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(STATUS_CHANGED);
+        w.writeVarInt(order.getOrderId());
+        w.writeByte(status.ordinal());
+        w.writeSignedVarLong(System.currentTimeMillis());
+        return append(w);
+    }
+
+    long deliveryAssigned(Order order, DeliveryPerson deliveryPerson) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(DELIVERY_ASSIGNED);
+        w.writeVarInt(order.getOrderId());
+        w.writeVarInt(deliveryPerson.getDeliveryPersonId());
+        return append(w);
+    }
+
+    long reviewAdded(Review review) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(REVIEW_ADDED);
+        ModelCodec.writeReview(w, review);
+        return append(w);
+    }
+
+    long customerAdded(Customer customer) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(CUSTOMER_ADDED);
+        ModelCodec.writeCustomer(w, customer);
+        return append(w);
+    }
+
+    long restaurantAdded(Restaurant restaurant) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(RESTAURANT_ADDED);
+        ModelCodec.writeRestaurant(w, restaurant);
+        return append(w);
+    }
+
+    // The fields updateRestaurant changes
+    long restaurantUpdated(Restaurant restaurant) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(RESTAURANT_UPDATED);
+        w.writeVarInt(restaurant.getId());
+        w.writeString(restaurant.getName());
+        w.writeString(restaurant.getAddress());
+        w.writeString(restaurant.getPhoneNumber());
+        w.writeString(restaurant.getCuisineType());
+        return append(w);
+    }
+
+    // A menu item as it now stands, whether just added or edited
+    long foodItemSaved(Restaurant restaurant, FoodItem item) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(FOOD_ITEM_SAVED);
+        w.writeVarInt(restaurant.getId());
+        ModelCodec.writeFoodItem(w, item);
+        return append(w);
+    }
+
+    long foodItemRemoved(Restaurant restaurant, int foodId) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(FOOD_ITEM_REMOVED);
+        w.writeVarInt(restaurant.getId());
+        w.writeVarInt(foodId);
+        return append(w);
+    }
+
+    long deliveryPersonAdded(DeliveryPerson deliveryPerson) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(DELIVERY_PERSON_ADDED);
+        ModelCodec.writeDeliveryPerson(w, deliveryPerson);
+        return append(w);
+    }
+
+    long promotionAdded(Promotion promotion) {
+        CompactWriter w = WRITERS.get().reset();
+        w.writeByte(PROMOTION_ADDED);
+        ModelCodec.writePromotion(w, promotion);
+        return append(w);
+    }
+
+    private long append(CompactWriter w) {
+        eventsSinceSnapshot.incrementAndGet();
+        return w.appendTo(log);
+    }
+
+    void awaitDurable(long position) {
+        log.awaitDurable(position);
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    // Applies events to the services; replaying an event that is already reflected is a no-op.
+    // Also resolves the references in decoded orders and reviews, failing on any it can't: everything
+    // is logged after what it refers to.
+    //
+    // The sample catalog isn't logged. Until the first snapshot it is recreated on every start and
+    // the logged changes replay on top of it.
+    static final class Replayer implements ModelCodec.References {
+        final OrderStore store;
+        final CustomerService customers;
+        final AdminService admin;
+        final OrderIdGenerator orderIds;
+        private final CompactReader reader = new CompactReader(null);
+        // A review added while a snapshot was being written can be both in it and in the log after it
+        private final BitSet restoredReviews = new BitSet();
+        int restoredOrders;
+        long events;
+
+        Replayer(OrderStore store, CustomerService customers, AdminService admin, OrderIdGenerator orderIds) {
+            this.store = store;
+            this.customers = customers;
+            this.admin = admin;
+            this.orderIds = orderIds;
+        }
+
+        // Each record has its own string dictionary, so it decodes on its own
+        void apply(ByteBuffer record, long endPosition) {
+            events++;
+            CompactReader r = reader.reset(record);
+            int type = r.readByte();
+            if (type == PLACED) {
+                restore(ModelCodec.readOrder(r, this));
+            } else if (type == STATUS_CHANGED) {
+                Order order = order(r.readVarInt());
+                OrderStatus status = ModelCodec.status(r.readByte());
+                long millis = r.readSignedVarLong();
+                if (store.updateStatus(order, status) == null) return;
+                if (status == OrderStatus.DELIVERED) {
+                    order.setEstimatedDeliveryTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+                } else if (status == OrderStatus.CANCELLED && order.getPromotion() != null) {
+                    order.getPromotion().releaseUse();
+                }
+            } else if (type == DELIVERY_ASSIGNED) {
+                Order order = order(r.readVarInt());
+                store.assignDeliveryPerson(order, deliveryPerson(r.readVarInt()));
+            } else if (type == REVIEW_ADDED) {
+                restoreReview(ModelCodec.readReview(r, this));
+            } else if (type == CUSTOMER_ADDED) {
+                ModelCodec.readCustomer(r, this);
+            } else if (type == RESTAURANT_ADDED) {
+                admin.restoreRestaurant(ModelCodec.readRestaurant(r));
+            } else if (type == RESTAURANT_UPDATED) {
+                Restaurant restaurant = restaurant(r.readVarInt());
+                restaurant.setName(r.readString());
+                restaurant.setAddress(r.readString());
+                restaurant.setPhoneNumber(r.readString());
+                restaurant.setCuisineType(r.readString());
+            } else if (type == FOOD_ITEM_SAVED) {
+                Restaurant restaurant = restaurant(r.readVarInt());
+                admin.restoreFoodItem(restaurant, ModelCodec.readFoodItem(r));
+            } else if (type == FOOD_ITEM_REMOVED) {
+                Restaurant restaurant = restaurant(r.readVarInt());
+                admin.restoreFoodItemRemoval(restaurant, r.readVarInt());
+            } else if (type == DELIVERY_PERSON_ADDED) {
+                admin.restoreDeliveryPerson(ModelCodec.readDeliveryPerson(r));
+            } else if (type == PROMOTION_ADDED) {
+                admin.restorePromotion(ModelCodec.readPromotion(r));
+            } else {
+                throw new IllegalStateException("log has an unknown event type " + type);
+            }
+        }
+
+        private Order order(int orderId) {
+            Order order = store.findById(orderId);
+            if (order == null) throw new IllegalStateException("log refers to unknown order " + orderId);
+            return order;
+        }
+
+        // Adds a decoded order in whatever state it was written, counting its promotion use
+        void restore(Order order) {
+            if (store.findById(order.getOrderId()) != null) return;
+            Promotion promotion = order.getPromotion();
+            if (promotion != null && order.getStatus() != OrderStatus.CANCELLED) promotion.restoreUse();
+            if (store.add(order)) {
+                orderIds.advancePast(order.getOrderId());
+                restoredOrders++;
+            }
+        }
+
+        void restoreReview(Review review) {
+            if (restoredReviews.get(review.getReviewId())) return;
+            restoredReviews.set(review.getReviewId());
+            customers.restoreReview(review);
+        }
+
+        @Override
+        public Customer customer(int userId, String username, long contactNo) {
+            return customers.restoreCustomer(userId, username, contactNo);
+        }
+
+        @Override
+        public Restaurant restaurant(int id) {
+            Restaurant restaurant = admin.findRestaurantById(id);
+            if (restaurant == null) throw new IllegalStateException("log refers to unknown restaurant " + id);
+            return restaurant;
+        }
+
+        @Override
+        public FoodItem foodItem(Restaurant restaurant, int foodId) {
+            FoodItem item = restaurant.findFoodItemById(foodId);
+            if (item == null) {
+                throw new IllegalStateException("log refers to unknown food item " + foodId + " of restaurant "
+                                                + restaurant.getId());
+            }
+            return item;
+        }
+
+        @Override
+        public DeliveryPerson deliveryPerson(int id) {
+            DeliveryPerson deliveryPerson = admin.findDeliveryPersonById(id);
+            if (deliveryPerson == null) throw new IllegalStateException("log refers to unknown delivery person " + id);
+            return deliveryPerson;
+        }
+
+        @Override
+        public Promotion promotion(String promoCode) {
+            Promotion promotion = admin.findPromotionByCode(promoCode);
+            if (promotion == null) throw new IllegalStateException("log refers to unknown promotion " + promoCode);
+            return promotion;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package service;
+
+import model.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Point-in-time figures read from OrderAnalytics, for the caller to render or inspect.
+public class OrderReport {
+    private final long totalOrders;
+    private final Map<OrderStatus, Long> statusCounts;
+    private final long deliveredRevenuePaise;
+    private final long pendingRevenuePaise;
+    private final long averageOrderValuePaise;
+    private final long ordersToday;
+
+    OrderReport(OrderAnalytics analytics, LocalDate today) {
+        this.totalOrders = analytics.getTotalOrders();
+        this.statusCounts = analytics.getStatusCounts();
+        this.deliveredRevenuePaise = analytics.getDeliveredRevenuePaise();
+        this.pendingRevenuePaise = analytics.getPendingRevenuePaise();
+        this.averageOrderValuePaise = analytics.getAverageOrderValuePaise();
+        this.ordersToday = analytics.getOrdersOn(today);
+    }
+
+    public long getTotalOrders() { return totalOrders; }
+    // Statuses with no orders are left out
+    public Map<OrderStatus, Long> getStatusCounts() { return statusCounts; }
+    public long getDeliveredRevenuePaise() { return deliveredRevenuePaise; }
+    public long getPendingRevenuePaise() { return pendingRevenuePaise; }
+    public long getAverageOrderValuePaise() { return averageOrderValuePaise; }
+    public long getOrdersToday() { return ordersToday; }
+}
@@ -0,0 +1,163 @@
+package service;
+
+import model.DeliveryPerson;
+import model.Order;
+import model.OrderStatus;
+import util.AppendLog;
+import util.ChunkedArray;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Concurrent order store shared by AdminService, CustomerService and OrderService.
+// Orders are appended to a lock-free log (placement order) and indexed by order ID
+// in a chunked array, since IDs come densely from OrderIdGenerator.
+// Status changes go through updateStatus so the running analytics and the
+// per-status buckets (order ID -> order, newest first) stay in step.
+// With a journal attached, placements, transitions and assignments are logged while holding the
+// order's monitor, so one order's events reach the log in the order they happened, and the
+// call returns only once its event is durable. Without one no monitor is taken: transitions
+// stay plain compare-and-set.
+public class OrderStore implements Iterable<Order> {
+    private final AppendLog<Order> log = new AppendLog<>();
+    private final ChunkedArray<Order> byId = new ChunkedArray<>();
+    private final OrderAnalytics analytics = new OrderAnalytics();
+    private final OrderTimeIndex timeIndex = new OrderTimeIndex();
+    private final List<ConcurrentSkipListMap<Integer, Order>> byStatus = new ArrayList<>();
+    private volatile OrderJournal journal;
+
+    public OrderStore() {
+        for (int i = 0; i < OrderStatus.values().length; i++) {
+            byStatus.add(new ConcurrentSkipListMap<>());
+        }
+    }
+
+    // Returns false if an order with the same ID is already stored
+    public boolean add(Order order) {
+        int id = order.getOrderId();
+        if (id <= 0 || id > ChunkedArray.MAX_INDEX) {
+            throw new IllegalArgumentException("Invalid order ID: " + id);
+        }
+        OrderJournal journal = this.journal;
+        OrderStatus status;
+        long position = 0;
+        if (journal == null) {
+            // Captured before the order becomes visible to status updates
+            status = order.getStatus();
+            if (!byId.compareAndSet(id, null, order)) {
+                return false;
+            }
+        } else {
+            synchronized (order) {
+                status = order.getStatus();
+                if (!byId.compareAndSet(id, null, order)) {
+                    return false;
+                }
+                position = journal.orderPlaced(order);
+            }
+        }
+        log.append(order);
+        timeIndex.add(order);
+        enterBucket(order, status);
+        analytics.orderPlaced(order, status);
+        if (journal != null) journal.awaitDurable(position);
+        return true;
+    }
+
+    // Applies a lifecycle transition and records it; returns the previous status, or null if not allowed
+    public OrderStatus updateStatus(Order order, OrderStatus newStatus) {
+        OrderJournal journal = this.journal;
+        OrderStatus oldStatus;
+        long position = 0;
+        if (journal == null) {
+            oldStatus = order.transitionTo(newStatus);
+        } else {
+            synchronized (order) {
+                oldStatus = order.transitionTo(newStatus);
+                if (oldStatus != null) position = journal.statusChanged(order, newStatus);
+            }
+        }
+        if (oldStatus != null) {
+            enterBucket(order, newStatus);
+            byStatus.get(oldStatus.ordinal()).remove(order.getOrderId());
+            analytics.statusChanged(order, oldStatus, newStatus);
+            if (journal != null) journal.awaitDurable(position);
+        }
+        return oldStatus;
+    }
+
+    public void assignDeliveryPerson(Order order, DeliveryPerson deliveryPerson) {
+        OrderJournal journal = this.journal;
+        if (journal == null) {
+            order.setDeliveryPerson(deliveryPerson);
+            return;
+        }
+        long position;
+        synchronized (order) {
+            order.setDeliveryPerson(deliveryPerson);
+            position = journal.deliveryAssigned(order, deliveryPerson);
+        }
+        journal.awaitDurable(position);
+    }
+
+    // Set once the journal has been replayed into this store; events from then on are logged
+    void setJournal(OrderJournal journal) {
+        this.journal = journal;
+    }
+
+    // Orders currently in the given status, newest first; costs O(orders in that status)
+    public List<Order> findByStatus(OrderStatus status) {
+        List<Order> result = new ArrayList<>();
+        for (Order order : byStatus.get(status.ordinal()).descendingMap().values()) {
+            // skip an order caught between buckets by a concurrent transition
+            if (order.getStatus() == status) result.add(order);
+        }
+        return result;
+    }
+
+    // Orders placed in [fromMillis, toMillis) (epoch millis), read from the time index
+    public Stream<Order> streamPlacedBetween(long fromMillis, long toMillis) {
+        return timeIndex.stream(fromMillis, toMillis);
+    }
+
+    public void forEachPlacedBetween(long fromMillis, long toMillis, Consumer<? super Order> action) {
+        timeIndex.forEach(fromMillis, toMillis, action);
+    }
+
+    public long countPlacedBetween(long fromMillis, long toMillis) {
+        return timeIndex.count(fromMillis, toMillis);
+    }
+
+    private void enterBucket(Order order, OrderStatus status) {
+        ConcurrentSkipListMap<Integer, Order> bucket = byStatus.get(status.ordinal());
+        bucket.put(order.getOrderId(), order);
+        // A racing transition may already have moved the order on. Statuses are never
+        // re-entered, so if it has left this one it is safe to take it back out.
+        if (order.getStatus() != status) {
+            bucket.remove(order.getOrderId());
+        }
+    }
+
+    public Order findById(int orderId) {
+        if (orderId <= 0 || orderId > ChunkedArray.MAX_INDEX) return null;
+        return byId.get(orderId);
+    }
+
+    public OrderAnalytics getAnalytics() { return analytics; }
+    public int size() { return log.size(); }
+    public boolean isEmpty() { return log.isEmpty(); }
+
+    // Consistent, read-only view of the orders placed so far
+    public List<Order> snapshot() { return log.snapshot(); }
+
+    public Stream<Order> stream() { return log.stream(); }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return log.iterator();
+    }
+}
@@ -0,0 +1,67 @@
+package service;
+
+import model.Order;
+import util.AppendLog;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Orders bucketed by the minute of their order time (epoch millis).
+// A range query seeks to the first bucket and reads buckets in time order; only the two
+// boundary buckets need their orders compared against the range.
+public class OrderTimeIndex {
+    private static final long BUCKET_MILLIS = 60_000L;
+
+    private static class Bucket {
+        final long key;
+        final AppendLog<Order> orders = new AppendLog<>();
+
+        Bucket(long key) {
+            this.key = key;
+        }
+    }
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    // Orders arrive roughly in time order, so most appends hit the newest bucket
+    private volatile Bucket latest = new Bucket(Long.MIN_VALUE);
+
+    public void add(Order order) {
+        long key = Math.floorDiv(order.getOrderTimeMillis(), BUCKET_MILLIS);
+        Bucket bucket = latest;
+        if (bucket.key != key) {
+            bucket = buckets.computeIfAbsent(key, Bucket::new);
+            if (key > latest.key) latest = bucket;
+        }
+        bucket.orders.append(order);
+    }
+
+    // Orders placed in [fromMillis, toMillis), streamed without an intermediate list
+    public Stream<Order> stream(long fromMillis, long toMillis) {
+        if (fromMillis >= toMillis) return Stream.empty();
+        return buckets.subMap(Math.floorDiv(fromMillis, BUCKET_MILLIS), true,
+                              Math.floorDiv(toMillis - 1, BUCKET_MILLIS), true)
+                      .values().stream()
+                      .flatMap(b -> b.orders.stream())
+                      .filter(o -> o.getOrderTimeMillis() >= fromMillis && o.getOrderTimeMillis() < toMillis);
+    }
+
+    public void forEach(long fromMillis, long toMillis, Consumer<? super Order> action) {
+        if (fromMillis >= toMillis) return;
+        long first = Math.floorDiv(fromMillis, BUCKET_MILLIS);
+        long last = Math.floorDiv(toMillis - 1, BUCKET_MILLIS);
+        for (Bucket bucket : buckets.subMap(first, true, last, true).values()) {
+            boolean interior = bucket.key != first && bucket.key != last;
+            for (Order order : bucket.orders) {
+                long t = order.getOrderTimeMillis();
+                if (interior || (t >= fromMillis && t < toMillis)) action.accept(order);
+            }
+        }
+    }
+
+    public long count(long fromMillis, long toMillis) {
+        long[] count = new long[1];
+        forEach(fromMillis, toMillis, o -> count[0]++);
+        return count[0];
+    }
+}
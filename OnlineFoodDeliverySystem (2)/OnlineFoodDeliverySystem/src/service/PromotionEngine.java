@@ -0,0 +1,115 @@
+package service;
+
+import model.Promotion;
+import util.CachedClock;
+import util.IntHashMap;
+
+import java.util.Arrays;
+
+// Picks the promotion giving the biggest discount for a cart, so customers don't need to know codes.
+// Promotions are partitioned into one set of rows valid at every restaurant plus one per restaurant
+// ID, so a lookup only visits promotions the cart's restaurant can use. The per-restaurant rows are
+// keyed by ID in a hash map, so memory follows the number of restaurants, not their largest ID. Within a partition the terms
+// live in parallel primitive arrays and are compared in one sequential pass; only a promotion that
+// would beat the current best is dereferenced to check its remaining uses.
+// Terms and restaurant IDs are copied when a promotion is added; Promotion keeps them final, so the copy stays current.
+public class PromotionEngine {
+
+    // Rows [0, size) never change once published; append() fills the next row and returns a new Rows
+    private static final class Rows {
+        static final Rows EMPTY = new Rows(new Promotion[4], new long[4], new long[4],
+                                           new long[4], new int[4], new long[4], 0);
+
+        final Promotion[] promotions;
+        final long[] startMillis;
+        final long[] endMillis;
+        final long[] minimumOrder;
+        final int[] basisPoints;
+        final long[] flatAmount;
+        final int size;
+
+        Rows(Promotion[] promotions, long[] startMillis, long[] endMillis,
+             long[] minimumOrder, int[] basisPoints, long[] flatAmount, int size) {
+            this.promotions = promotions;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.minimumOrder = minimumOrder;
+            this.basisPoints = basisPoints;
+            this.flatAmount = flatAmount;
+            this.size = size;
+        }
+
+        Rows append(Promotion p) {
+            Promotion[] promotions = this.promotions;
+            long[] startMillis = this.startMillis;
+            long[] endMillis = this.endMillis;
+            long[] minimumOrder = this.minimumOrder;
+            int[] basisPoints = this.basisPoints;
+            long[] flatAmount = this.flatAmount;
+            // EMPTY is shared between partitions, so its arrays are never written
+            if (size == promotions.length || this == EMPTY) {
+                int capacity = Math.max(4, size * 2);
+                promotions = Arrays.copyOf(promotions, capacity);
+                startMillis = Arrays.copyOf(startMillis, capacity);
+                endMillis = Arrays.copyOf(endMillis, capacity);
+                minimumOrder = Arrays.copyOf(minimumOrder, capacity);
+                basisPoints = Arrays.copyOf(basisPoints, capacity);
+                flatAmount = Arrays.copyOf(flatAmount, capacity);
+            }
+            promotions[size] = p;
+            startMillis[size] = p.getStartMillis();
+            endMillis[size] = p.getEndMillis();
+            minimumOrder[size] = p.getMinimumOrderPaise();
+            basisPoints[size] = p.getDiscountBasisPoints();
+            flatAmount[size] = p.getDiscountAmountPaise();
+            return new Rows(promotions, startMillis, endMillis, minimumOrder, basisPoints, flatAmount, size + 1);
+        }
+    }
+
+    private volatile Rows everywhere = Rows.EMPTY;
+    // Written only under the lock; IntHashMap lookups are safe alongside that single writer
+    private final IntHashMap<Rows> byRestaurant = new IntHashMap<>();
+    private int size;
+
+    public synchronized void add(Promotion promotion) {
+        int[] restaurantIds = promotion.getApplicableRestaurantIds();
+        if (restaurantIds == null) {
+            everywhere = everywhere.append(promotion);
+        } else if (restaurantIds.length > 0) {
+            for (int id : restaurantIds) {
+                Rows rows = byRestaurant.get(id);
+                byRestaurant.put(id, (rows == null ? Rows.EMPTY : rows).append(promotion));
+            }
+        }
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // The usable promotion with the largest discount on orderPaise at restaurantId (-1 for a
+    // cart spanning restaurants, which only all-restaurant promotions accept), or null if none applies
+    public Promotion findBest(long orderPaise, int restaurantId) {
+        long now = CachedClock.millis();
+        Promotion best = scan(everywhere, orderPaise, now, null);
+        Rows rows = restaurantId >= 0 ? byRestaurant.get(restaurantId) : null;
+        if (rows != null) {
+            best = scan(rows, orderPaise, now, best);
+        }
+        return best;
+    }
+
+    private static Promotion scan(Rows rows, long orderPaise, long now, Promotion best) {
+        long bestDiscount = best == null ? 0 : best.discountFor(orderPaise);
+        for (int i = 0; i < rows.size; i++) {
+            if (orderPaise < rows.minimumOrder[i] || now < rows.startMillis[i] || now >= rows.endMillis[i]) continue;
+            long discount = Promotion.discountFor(rows.basisPoints[i], rows.flatAmount[i], orderPaise);
+            if (discount > bestDiscount && rows.promotions[i].isValidAt(now)) {
+                best = rows.promotions[i];
+                bestDiscount = discount;
+            }
+        }
+        return best;
+    }
+}
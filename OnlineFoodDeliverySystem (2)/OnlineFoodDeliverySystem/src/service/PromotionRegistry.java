@@ -0,0 +1,63 @@
+package service;
+
+import model.Promotion;
+import util.CachedClock;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Promotions shared by AdminService and CustomerService, indexed by promo code.
+// Codes compare case-insensitively without folding the lookup key, so lookups don't allocate.
+public class PromotionRegistry implements Iterable<Promotion> {
+    private final ConcurrentSkipListMap<String, Promotion> byCode =
+            new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final List<Promotion> promotions = new CopyOnWriteArrayList<>();
+    private final List<Promotion> view = Collections.unmodifiableList(promotions);
+    private final PromotionEngine engine = new PromotionEngine();
+
+    // Returns false if a promotion with the same code (ignoring case) exists
+    public boolean add(Promotion promotion) {
+        if (byCode.putIfAbsent(promotion.getPromoCode(), promotion) != null) {
+            return false;
+        }
+        promotions.add(promotion);
+        engine.add(promotion);
+        return true;
+    }
+
+    public Promotion findByCode(String promoCode) {
+        return promoCode == null ? null : byCode.get(promoCode);
+    }
+
+    // Same as findByCode, but only if the promotion can be used right now
+    public Promotion findValidByCode(String promoCode) {
+        Promotion promotion = findByCode(promoCode);
+        return promotion != null && promotion.isValidAt(CachedClock.millis()) ? promotion : null;
+    }
+
+    // Best promotion for an order the customer gave no code for; see PromotionEngine
+    public Promotion findBest(long orderPaise, int restaurantId) {
+        return engine.findBest(orderPaise, restaurantId);
+    }
+
+    public int countValid() {
+        long now = CachedClock.millis();
+        int count = 0;
+        for (Promotion p : promotions) {
+            if (p.isValidAt(now)) count++;
+        }
+        return count;
+    }
+
+    public int size() { return promotions.size(); }
+    public boolean isEmpty() { return promotions.isEmpty(); }
+    public List<Promotion> asList() { return view; }
+
+    @Override
+    public Iterator<Promotion> iterator() {
+        return view.iterator();
+    }
+}
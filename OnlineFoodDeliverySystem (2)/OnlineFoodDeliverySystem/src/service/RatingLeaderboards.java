@@ -0,0 +1,148 @@
+package service;
+
+import model.FoodItem;
+import model.Restaurant;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+// Top-rated restaurants (overall and per cuisine) and dishes (overall and per category).
+// Each board is a skip list sorted by rating, so a rating change is a remove and an insert,
+// O(log n), and a top-K read walks the first K entries. Only restaurants and dishes with at
+// least minReviews ratings are ranked, so a single 5-star review can't top a board.
+// Call the update methods whenever a rating, cuisine or category changes.
+public class RatingLeaderboards {
+
+    private static final class Entry<T> {
+        final T target;
+        final long key;
+        final String group;
+        final double average;
+        final int count;
+
+        Entry(T target, long key, String group, double average, int count) {
+            this.target = target;
+            this.key = key;
+            this.group = group;
+            this.average = average;
+            this.count = count;
+        }
+    }
+
+    // Highest average first, then most ratings; key makes the order total
+    private static final Comparator<Entry<?>> BEST_FIRST = Comparator
+            .comparingDouble((Entry<?> e) -> e.average).reversed()
+            .thenComparing(Comparator.comparingInt((Entry<?> e) -> e.count).reversed())
+            .thenComparingLong(e -> e.key);
+
+    private static final class Leaderboard<T> {
+        final Function<T, String> groupOf;
+        final ToDoubleFunction<T> averageOf;
+        final ToIntFunction<T> countOf;
+        final ConcurrentSkipListSet<Entry<T>> all = new ConcurrentSkipListSet<>(BEST_FIRST);
+        final ConcurrentSkipListMap<String, ConcurrentSkipListSet<Entry<T>>> byGroup =
+                new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+        // What each target is currently ranked as; compute() serialises updates per target
+        final ConcurrentHashMap<Long, Entry<T>> current = new ConcurrentHashMap<>();
+
+        Leaderboard(Function<T, String> groupOf, ToDoubleFunction<T> averageOf, ToIntFunction<T> countOf) {
+            this.groupOf = groupOf;
+            this.averageOf = averageOf;
+            this.countOf = countOf;
+        }
+
+        // The rating is read inside compute(), so the last of racing updates sees the latest rating
+        void update(long key, T target, int minReviews) {
+            current.compute(key, (k, old) -> {
+                if (old != null) unlink(old);
+                int count = countOf.applyAsInt(target);
+                if (count < minReviews) return null;
+                String group = groupOf.apply(target);
+                Entry<T> entry = new Entry<>(target, key, group, averageOf.applyAsDouble(target), count);
+                all.add(entry);
+                if (group != null) {
+                    byGroup.computeIfAbsent(group, g -> new ConcurrentSkipListSet<>(BEST_FIRST)).add(entry);
+                }
+                return entry;
+            });
+        }
+
+        void remove(long key) {
+            current.computeIfPresent(key, (k, old) -> {
+                unlink(old);
+                return null;
+            });
+        }
+
+        private void unlink(Entry<T> entry) {
+            all.remove(entry);
+            if (entry.group != null) {
+                ConcurrentSkipListSet<Entry<T>> set = byGroup.get(entry.group);
+                if (set != null) set.remove(entry);
+            }
+        }
+
+        List<T> top(String group, int k) {
+            ConcurrentSkipListSet<Entry<T>> set = group == null ? all : byGroup.get(group);
+            List<T> top = new ArrayList<>(Math.max(0, Math.min(k, 16)));
+            if (set == null) return top;
+            for (Entry<T> entry : set) {
+                if (top.size() >= k) break;
+                top.add(entry.target);
+            }
+            return top;
+        }
+    }
+
+    private final int minReviews;
+    private final Leaderboard<Restaurant> restaurants =
+            new Leaderboard<>(Restaurant::getCuisineType, Restaurant::getRating, Restaurant::getReviewCount);
+    private final Leaderboard<FoodItem> dishes =
+            new Leaderboard<>(FoodItem::getCategory, FoodItem::getRating, FoodItem::getReviewCount);
+
+    public RatingLeaderboards(int minReviews) {
+        this.minReviews = minReviews;
+    }
+
+    public int getMinReviews() { return minReviews; }
+
+    public void updateRestaurant(Restaurant r) {
+        restaurants.update(r.getId(), r, minReviews);
+    }
+
+    public void updateDish(Restaurant r, FoodItem item) {
+        dishes.update(dishKey(r.getId(), item.getId()), item, minReviews);
+    }
+
+    public void removeDish(int restaurantId, int foodId) {
+        dishes.remove(dishKey(restaurantId, foodId));
+    }
+
+    public List<Restaurant> topRestaurants(int k) {
+        return restaurants.top(null, k);
+    }
+
+    public List<Restaurant> topRestaurants(String cuisineType, int k) {
+        return restaurants.top(cuisineType, k);
+    }
+
+    public List<FoodItem> topDishes(int k) {
+        return dishes.top(null, k);
+    }
+
+    public List<FoodItem> topDishes(String category, int k) {
+        return dishes.top(category, k);
+    }
+
+    // Food IDs are only unique within a restaurant
+    private static long dishKey(int restaurantId, int foodId) {
+        return ((long) restaurantId << 32) | (foodId & 0xFFFFFFFFL);
+    }
+}
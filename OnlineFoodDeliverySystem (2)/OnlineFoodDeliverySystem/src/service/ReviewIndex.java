@@ -0,0 +1,101 @@
+package service;
+
+import model.FoodItem;
+import model.Review;
+import util.AppendLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reviews indexed by restaurant and by food item. Each target keeps its reviews in an AppendLog
+// (lock-free appends into geometrically sized chunks), and pages are read newest first by
+// position, so any page of a restaurant with hundreds of thousands of reviews costs only its own size.
+public class ReviewIndex {
+    // Pass as the cursor to get the newest page
+    public static final int FIRST_PAGE = Integer.MAX_VALUE;
+
+    public static final class Page {
+        private final List<Review> reviews;
+        private final int nextCursor;
+        private final int total;
+
+        Page(List<Review> reviews, int nextCursor, int total) {
+            this.reviews = reviews;
+            this.nextCursor = nextCursor;
+            this.total = total;
+        }
+
+        // Newest first
+        public List<Review> getReviews() { return reviews; }
+        // Cursor for the next (older) page, or -1 if this is the last one
+        public int getNextCursor() { return nextCursor; }
+        public boolean hasMore() { return nextCursor >= 0; }
+        // Reviews for the target when the page was read
+        public int getTotal() { return total; }
+    }
+
+    private final AppendLog<Review> all = new AppendLog<>();
+    private final ConcurrentHashMap<Integer, AppendLog<Review>> byRestaurant = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AppendLog<Review>> byFoodItem = new ConcurrentHashMap<>();
+
+    public void add(Review review) {
+        if (review.getRestaurant() != null) {
+            byRestaurant.computeIfAbsent(review.getRestaurant().getId(), id -> new AppendLog<>()).append(review);
+        }
+        FoodItem item = review.getFoodItem();
+        if (item != null && item.getRestaurant() != null) {
+            byFoodItem.computeIfAbsent(foodKey(item.getRestaurant().getId(), item.getId()), k -> new AppendLog<>())
+                      .append(review);
+        }
+        all.append(review);
+    }
+
+    public Page restaurantReviews(int restaurantId, int cursor, int limit) {
+        return page(byRestaurant.get(restaurantId), cursor, limit);
+    }
+
+    public Page foodItemReviews(int restaurantId, int foodId, int cursor, int limit) {
+        return page(byFoodItem.get(foodKey(restaurantId, foodId)), cursor, limit);
+    }
+
+    public int countForRestaurant(int restaurantId) {
+        AppendLog<Review> log = byRestaurant.get(restaurantId);
+        return log == null ? 0 : log.size();
+    }
+
+    public int countForFoodItem(int restaurantId, int foodId) {
+        AppendLog<Review> log = byFoodItem.get(foodKey(restaurantId, foodId));
+        return log == null ? 0 : log.size();
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    // Every review in the order they were added
+    public List<Review> snapshot() {
+        return all.snapshot();
+    }
+
+    // A cursor is the position just past the next review to return, counting from the oldest
+    private static Page page(AppendLog<Review> log, int cursor, int limit) {
+        int total = log == null ? 0 : log.size();
+        int end = Math.min(cursor, total);
+        if (end <= 0 || limit <= 0) {
+            return new Page(Collections.emptyList(), -1, total);
+        }
+        int start = Math.max(0, end - limit);
+        List<Review> reviews = new ArrayList<>(end - start);
+        for (int i = end - 1; i >= start; i--) {
+            reviews.add(log.get(i));
+        }
+        return new Page(reviews, start > 0 ? start : -1, total);
+    }
+
+    // Food IDs are only unique within a restaurant
+    private static long foodKey(int restaurantId, int foodId) {
+        return ((long) restaurantId << 32) | (foodId & 0xFFFFFFFFL);
+    }
+}
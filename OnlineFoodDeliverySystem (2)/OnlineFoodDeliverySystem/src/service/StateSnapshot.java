@@ -0,0 +1,152 @@
+package service;
+
+import model.*;
+import util.CompactReader;
+import util.CompactWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// Binary snapshot of restaurants with their menus, delivery persons, promotions, customers,
+// orders and reviews, taken at a known order log position. Entities are in ModelCodec's layouts,
+// and the whole file shares one string dictionary, so a category or dish name is spelled out once.
+// Orders and reviews are loaded through the same code as those replayed from the log; ratings
+// are not stored but re-applied from the reviews. Version 2 files, from before reviews were
+// saved, still load.
+//
+// Layout: magic and version as fixed ints, log position and time taken as varints, then each
+// section as a varint count followed by its entries, and a CRC32C of everything before it.
+// The file is written under a temporary name and renamed into place, and is read back
+// through a single read-only mapping.
+final class StateSnapshot {
+    private static final int MAGIC = 0x46445331; // "FDS1"
+    private static final int VERSION = 3;
+    private static final int VERSION_WITHOUT_REVIEWS = 2;
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    private StateSnapshot() {
+    }
+
+    static void write(Path file, long logPosition, AdminService admin, CustomerService customers,
+                      OrderStore orders, int lastOrderId) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CompactWriter w = new CompactWriter(FLUSH_BYTES + 4096);
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            w.writeInt(MAGIC);
+            w.writeInt(VERSION);
+            w.writeVarLong(logPosition);
+            w.writeVarLong(System.currentTimeMillis());
+
+            List<Restaurant> restaurants = admin.getRestaurants();
+            w.writeVarInt(restaurants.size());
+            for (Restaurant r : restaurants) {
+                ModelCodec.writeRestaurant(w, r);
+                if (w.size() >= FLUSH_BYTES) w.drainTo(channel, crc);
+            }
+
+            List<DeliveryPerson> deliveryPersons = admin.getDeliveryPersons();
+            w.writeVarInt(deliveryPersons.size());
+            for (DeliveryPerson dp : deliveryPersons) {
+                ModelCodec.writeDeliveryPerson(w, dp);
+            }
+
+            List<Promotion> promotions = admin.getPromotions();
+            w.writeVarInt(promotions.size());
+            for (Promotion p : promotions) {
+                ModelCodec.writePromotion(w, p);
+            }
+
+            List<Customer> customerList = customers.getCustomers();
+            w.writeVarInt(customerList.size());
+            for (Customer c : customerList) {
+                ModelCodec.writeCustomer(w, c);
+                if (w.size() >= FLUSH_BYTES) w.drainTo(channel, crc);
+            }
+
+            // By ID rather than placement order: an order is findable as soon as its placement is
+            // logged, slightly before it shows up in the store's placement log
+            List<Order> orderList = new ArrayList<>();
+            for (int id = 1; id <= lastOrderId; id++) {
+                Order order = orders.findById(id);
+                if (order != null) orderList.add(order);
+            }
+            w.writeVarInt(orderList.size());
+            for (Order order : orderList) {
+                // Status, delivery person and delivery time as one consistent state
+                synchronized (order) {
+                    ModelCodec.writeOrder(w, order);
+                }
+                if (w.size() >= FLUSH_BYTES) w.drainTo(channel, crc);
+            }
+
+            List<Review> reviews = customers.getReviews();
+            w.writeVarInt(reviews.size());
+            for (Review review : reviews) {
+                ModelCodec.writeReview(w, review);
+                if (w.size() >= FLUSH_BYTES) w.drainTo(channel, crc);
+            }
+            w.drainTo(channel, crc);
+
+            ByteBuffer trailer = ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip();
+            while (trailer.hasRemaining()) channel.write(trailer);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Loads a snapshot into services that hold no catalog or orders yet and returns the log
+    // position to replay from
+    static long load(Path file, AdminService admin, OrderJournal.Replayer replayer) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("snapshot too large: " + file);
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int bodyBytes = map.capacity() - 4;
+        if (bodyBytes < 10 || map.getInt(0) != MAGIC) throw new IOException("not a snapshot: " + file);
+        int version = map.getInt(4);
+        if (version != VERSION && version != VERSION_WITHOUT_REVIEWS) {
+            throw new IOException("unsupported snapshot version " + version);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(map.slice(0, bodyBytes));
+        if ((int) crc.getValue() != map.getInt(bodyBytes)) throw new IOException("snapshot is corrupt: " + file);
+
+        CompactReader r = new CompactReader(map.slice(8, bodyBytes - 8));
+        long logPosition = r.readVarLong();
+        r.readVarLong(); // time taken
+
+        for (int n = r.readVarInt(); n > 0; n--) {
+            admin.restoreRestaurant(ModelCodec.readRestaurant(r));
+        }
+        for (int n = r.readVarInt(); n > 0; n--) {
+            admin.restoreDeliveryPerson(ModelCodec.readDeliveryPerson(r));
+        }
+        for (int n = r.readVarInt(); n > 0; n--) {
+            admin.restorePromotion(ModelCodec.readPromotion(r));
+        }
+        for (int n = r.readVarInt(); n > 0; n--) {
+            ModelCodec.readCustomer(r, replayer);
+        }
+        for (int n = r.readVarInt(); n > 0; n--) {
+            replayer.restore(ModelCodec.readOrder(r, replayer));
+        }
+        if (version != VERSION_WITHOUT_REVIEWS) {
+            for (int n = r.readVarInt(); n > 0; n--) {
+                replayer.restoreReview(ModelCodec.readReview(r, replayer));
+            }
+        }
+        return logPosition;
+    }
+}
@@ -0,0 +1,39 @@
+package service;
+
+import model.OrderStatus;
+
+import java.util.Map;
+
+// Catalog and order totals for the system analytics screen.
+public class SystemReport {
+    private final int restaurants;
+    private final int foodItems;
+    private final int deliveryPersons;
+    private final int orders;
+    private final int activePromotions;
+    private final int reviews;
+    private final Map<OrderStatus, Long> statusCounts;
+    private final long deliveredRevenuePaise;
+
+    SystemReport(int restaurants, int foodItems, int deliveryPersons, int orders, int activePromotions, int reviews,
+                 OrderAnalytics analytics) {
+        this.restaurants = restaurants;
+        this.foodItems = foodItems;
+        this.deliveryPersons = deliveryPersons;
+        this.orders = orders;
+        this.activePromotions = activePromotions;
+        this.reviews = reviews;
+        this.statusCounts = analytics.getStatusCounts();
+        this.deliveredRevenuePaise = analytics.getDeliveredRevenuePaise();
+    }
+
+    public int getRestaurants() { return restaurants; }
+    public int getFoodItems() { return foodItems; }
+    public int getDeliveryPersons() { return deliveryPersons; }
+    public int getOrders() { return orders; }
+    public int getActivePromotions() { return activePromotions; }
+    public int getReviews() { return reviews; }
+    // Statuses with no orders are left out
+    public Map<OrderStatus, Long> getStatusCounts() { return statusCounts; }
+    public long getDeliveredRevenuePaise() { return deliveredRevenuePaise; }
+}
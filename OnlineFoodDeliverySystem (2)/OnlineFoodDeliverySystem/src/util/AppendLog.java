@@ -0,0 +1,76 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Append-only sequence for many concurrent writers and readers, without a global lock.
+// A writer claims a slot with getAndIncrement and fills it. The published watermark is then
+// moved over every filled slot by whichever writer gets there first, so no writer waits for
+// another, and readers always see a gap-free prefix [0, size()). Null values are not allowed.
+public class AppendLog<T> implements Iterable<T> {
+    private final ChunkedArray<T> slots = new ChunkedArray<>();
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    public int append(T value) {
+        if (value == null) throw new NullPointerException("value");
+        int index = claimed.getAndIncrement();
+        slots.set(index, value);
+        // If an earlier slot is still empty its writer will carry the watermark past ours
+        int p;
+        while ((p = published.get()) < claimed.get() && slots.get(p) != null) {
+            published.compareAndSet(p, p + 1);
+        }
+        return index;
+    }
+
+    public int size() {
+        return published.get();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public T get(int index) {
+        if (index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        return slots.get(index);
+    }
+
+    // Fixed-size view of everything published so far; later appends are not visible through it
+    public List<T> snapshot() {
+        return new Snapshot(size());
+    }
+
+    public Stream<T> stream() {
+        return snapshot().stream();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    private class Snapshot extends AbstractList<T> implements RandomAccess {
+        private final int size;
+
+        Snapshot(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return slots.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
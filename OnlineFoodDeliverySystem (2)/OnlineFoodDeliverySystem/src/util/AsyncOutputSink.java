@@ -0,0 +1,125 @@
+package util;
+
+import java.io.PrintStream;
+
+// Callers append to an in-memory buffer under a short lock and return; a daemon thread swaps
+// the buffer out and writes everything that has accumulated in one go. Text from one print or
+// println call is never split. Callers block only when maxBuffered chars are already waiting,
+// in flush(), or (after close()) when output goes straight to the target.
+public class AsyncOutputSink implements OutputSink, AutoCloseable {
+    private static final int DEFAULT_MAX_BUFFERED = 1 << 20;
+
+    private final PrintStream target;
+    private final int maxBuffered;
+    private final Object lock = new Object();
+    private final Thread writer;
+    // Guarded by lock; the writer owns "writing" while it is outside the lock
+    private StringBuilder pending = new StringBuilder(8192);
+    private StringBuilder writing = new StringBuilder(8192);
+    private long enqueued;
+    private long written;
+    private boolean closed;
+
+    public AsyncOutputSink(PrintStream target) {
+        this(target, DEFAULT_MAX_BUFFERED);
+    }
+
+    public AsyncOutputSink(PrintStream target, int maxBuffered) {
+        this.target = target;
+        this.maxBuffered = maxBuffered;
+        this.writer = new Thread(this::drain, "output-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void print(CharSequence text) {
+        enqueue(text, false);
+    }
+
+    @Override
+    public void println(CharSequence text) {
+        enqueue(text, true);
+    }
+
+    private void enqueue(CharSequence text, boolean newline) {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (pending.length() >= maxBuffered && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (closed) {
+                if (newline) target.println(text); else target.append(text);
+                return;
+            }
+            if (pending.length() == 0) lock.notifyAll();
+            pending.append(text);
+            if (newline) pending.append('\n');
+            enqueued += text.length() + (newline ? 1 : 0);
+        }
+    }
+
+    @Override
+    public void flush() {
+        synchronized (lock) {
+            long target = enqueued;
+            while (written < target && writer.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Writes out what is buffered and stops the writer; later output is written synchronously
+    @Override
+    public void close() {
+        flush();
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.flush();
+    }
+
+    private void drain() {
+        while (true) {
+            StringBuilder batch;
+            synchronized (lock) {
+                while (pending.length() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.length() == 0) return;
+                batch = pending;
+                pending = writing;
+                writing = batch;
+                // Wakes callers waiting for buffer space
+                lock.notifyAll();
+            }
+            target.append(batch);
+            target.flush();
+            synchronized (lock) {
+                written += batch.length();
+                batch.setLength(0);
+                lock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Running rating average kept as an exact integer sum and count packed into one AtomicLong:
+// the count in the high 28 bits and the sum of ratings in tenths of a star in the low 36 bits.
+// Adding a rating is one compare-and-set of both halves, so concurrent reviews are never lost,
+// a full counter is refused before anything is published, and the average is derived on read
+// instead of being re-accumulated in floating point.
+// Capacity: about 268 million ratings of up to 5.0 stars each.
+public final class AtomicRating {
+    private static final int SUM_BITS = 36;
+    private static final long SUM_MASK = (1L << SUM_BITS) - 1;
+    private static final long ONE_RATING = 1L << SUM_BITS;
+    private static final long MAX_COUNT = (1L << (64 - SUM_BITS)) - 1;
+
+    private final AtomicLong packed;
+
+    public AtomicRating() {
+        this.packed = new AtomicLong();
+    }
+
+    // Resumes from a snapshot() value
+    AtomicRating(long snapshot) {
+        this.packed = new AtomicLong(snapshot);
+    }
+
+    // rating in stars, stored to the nearest tenth; callers validate the range
+    public void add(double rating) {
+        long tenths = Math.round(rating * 10);
+        if (tenths < 0 || tenths > 100) {
+            throw new IllegalArgumentException("rating out of range: " + rating);
+        }
+        long previous;
+        do {
+            previous = packed.get();
+            if ((previous >>> SUM_BITS) == MAX_COUNT) {
+                throw new IllegalStateException("too many ratings");
+            }
+        } while (!packed.compareAndSet(previous, previous + ONE_RATING + tenths));
+    }
+
+    // Count and sum read together; decode with count(long) and average(long)
+    public long snapshot() {
+        return packed.get();
+    }
+
+    public int count() {
+        return count(packed.get());
+    }
+
+    public double average() {
+        return average(packed.get());
+    }
+
+    public static int count(long snapshot) {
+        return (int) (snapshot >>> SUM_BITS);
+    }
+
+    public static double average(long snapshot) {
+        long count = snapshot >>> SUM_BITS;
+        return count == 0 ? 0.0 : (snapshot & SUM_MASK) / (count * 10.0);
+    }
+}
@@ -0,0 +1,34 @@
+package util;
+
+// Wall clock in epoch millis, refreshed by a daemon thread every few milliseconds.
+// Reading it is a single volatile load, so hot paths (promo validation at checkout) can
+// check time without calling into the OS or allocating LocalDateTime objects.
+public final class CachedClock {
+    private static final long TICK_MILLIS = 5;
+
+    private static volatile long now = System.currentTimeMillis();
+
+    static {
+        Thread ticker = new Thread(CachedClock::tick, "cached-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    private CachedClock() {
+    }
+
+    public static long millis() {
+        return now;
+    }
+
+    private static void tick() {
+        while (true) {
+            now = System.currentTimeMillis();
+            try {
+                Thread.sleep(TICK_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
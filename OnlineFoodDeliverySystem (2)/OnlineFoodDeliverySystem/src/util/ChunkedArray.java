@@ -0,0 +1,49 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Thread-safe, lazily grown array indexed by non-negative int.
+// Chunk k holds 2^(k + FIRST_SHIFT) slots, so the directory never needs resizing
+// and an index maps to its chunk with one leading-zeros count. Chunks are installed
+// with compare-and-set and slots are read and written with volatile semantics.
+public class ChunkedArray<T> {
+    private static final int FIRST_SHIFT = 5;
+    private static final int FIRST_SIZE = 1 << FIRST_SHIFT;
+    public static final int MAX_INDEX = Integer.MAX_VALUE - FIRST_SIZE;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks =
+            new AtomicReferenceArray<>(32 - FIRST_SHIFT);
+
+    public T get(int index) {
+        int pos = position(index);
+        int high = 31 - Integer.numberOfLeadingZeros(pos);
+        AtomicReferenceArray<T> chunk = chunks.get(high - FIRST_SHIFT);
+        return chunk == null ? null : chunk.get(pos - (1 << high));
+    }
+
+    public void set(int index, T value) {
+        int pos = position(index);
+        int high = 31 - Integer.numberOfLeadingZeros(pos);
+        chunk(high - FIRST_SHIFT).set(pos - (1 << high), value);
+    }
+
+    public boolean compareAndSet(int index, T expected, T value) {
+        int pos = position(index);
+        int high = 31 - Integer.numberOfLeadingZeros(pos);
+        return chunk(high - FIRST_SHIFT).compareAndSet(pos - (1 << high), expected, value);
+    }
+
+    private AtomicReferenceArray<T> chunk(int k) {
+        AtomicReferenceArray<T> chunk = chunks.get(k);
+        if (chunk == null) {
+            AtomicReferenceArray<T> created = new AtomicReferenceArray<>(1 << (k + FIRST_SHIFT));
+            chunk = chunks.compareAndSet(k, null, created) ? created : chunks.get(k);
+        }
+        return chunk;
+    }
+
+    private static int position(int index) {
+        if (index < 0 || index > MAX_INDEX) throw new IndexOutOfBoundsException("Index: " + index);
+        return index + FIRST_SIZE;
+    }
+}
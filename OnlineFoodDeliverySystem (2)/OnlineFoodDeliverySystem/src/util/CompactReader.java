@@ -0,0 +1,101 @@
+package util;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reads what CompactWriter wrote, from any ByteBuffer (heap, direct or memory-mapped) without
+// copying it. Strings repeated through the dictionary come back as the same instance, so a
+// snapshot full of categories and dish names shares them instead of holding a copy per object.
+public final class CompactReader {
+    private ByteBuffer buf;
+    private String[] dictionary = new String[64];
+    private int dictionarySize;
+    private byte[] scratch = new byte[64]; // literals from buffers without a backing array
+
+    public CompactReader(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    // Moves on to another buffer with an empty dictionary
+    public CompactReader reset(ByteBuffer buf) {
+        this.buf = buf;
+        if (dictionarySize > 0) {
+            Arrays.fill(dictionary, 0, dictionarySize, null);
+            dictionarySize = 0;
+        }
+        return this;
+    }
+
+    public int position() { return buf.position(); }
+    public void position(int position) { buf.position(position); }
+    public boolean hasRemaining() { return buf.hasRemaining(); }
+
+    public int readByte() {
+        return buf.get();
+    }
+
+    public boolean readBoolean() {
+        return buf.get() != 0;
+    }
+
+    public int readInt() {
+        return buf.getInt();
+    }
+
+    public double readDouble() {
+        return buf.getDouble();
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("malformed varint");
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("malformed varint");
+    }
+
+    public long readSignedVarLong() {
+        long v = readVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public String readString() {
+        int tag = readVarInt();
+        if (tag == 0) return null;
+        if (tag >= 2) {
+            if (tag - 2 >= dictionarySize) throw new IllegalStateException("unknown string " + (tag - 2));
+            return dictionary[tag - 2];
+        }
+        int length = readVarInt();
+        if (length < 0 || length > buf.remaining()) throw new BufferUnderflowException();
+        String s;
+        int at = buf.position();
+        if (buf.hasArray()) {
+            s = new String(buf.array(), buf.arrayOffset() + at, length, StandardCharsets.UTF_8);
+        } else {
+            if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buf.get(at, scratch, 0, length);
+            s = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        buf.position(at + length);
+        if (s.length() <= CompactWriter.MAX_DICTIONARY_CHARS && dictionarySize < CompactWriter.MAX_DICTIONARY_SIZE) {
+            if (dictionarySize == dictionary.length) dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+            dictionary[dictionarySize++] = s;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,210 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+// Compact binary writer into a growable heap ByteBuffer; CompactReader reads it back.
+//
+// Unsigned ints and longs are LEB128 varints (7 bits per byte, so IDs, quantities and amounts
+// usually take 1-4 bytes), signed ones are zigzag-encoded first. Strings go through a dictionary:
+// tag 0 is null, tag 1 is a literal (UTF-8 byte length, then the bytes) and tag n >= 2 repeats
+// dictionary entry n - 2. A literal of up to MAX_DICTIONARY_CHARS chars becomes the next entry
+// while there is room, and the reader applies the same rule, so the dictionary is never written
+// out. It lasts until reset(): one record in the order log, a whole file for a snapshot.
+// Strings are encoded straight from their chars, nothing is allocated per value.
+public final class CompactWriter {
+    public static final int MAX_DICTIONARY_CHARS = 64;
+    public static final int MAX_DICTIONARY_SIZE = 1 << 20;
+
+    private ByteBuffer buf;
+    // Open-addressing table from string to dictionary index
+    private String[] keys = new String[64];
+    private int[] indexes = new int[64];
+    private int dictionarySize;
+
+    public CompactWriter(int initialCapacity) {
+        buf = ByteBuffer.allocate(initialCapacity);
+    }
+
+    // Empties the buffer and the dictionary
+    public CompactWriter reset() {
+        buf.clear();
+        if (dictionarySize > 0) {
+            Arrays.fill(keys, null);
+            dictionarySize = 0;
+        }
+        return this;
+    }
+
+    public int size() { return buf.position(); }
+
+    public void writeByte(int b) {
+        ensure(1);
+        buf.put((byte) b);
+    }
+
+    public void writeBoolean(boolean b) {
+        writeByte(b ? 1 : 0);
+    }
+
+    // Fixed four bytes, for values that are patched later or are rarely small
+    public void writeInt(int v) {
+        ensure(4);
+        buf.putInt(v);
+    }
+
+    public void writeDouble(double v) {
+        ensure(8);
+        buf.putDouble(v);
+    }
+
+    public void writeVarInt(int v) {
+        ensure(5);
+        while ((v & ~0x7F) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    public void writeVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    public void writeSignedVarLong(long v) {
+        writeVarLong((v << 1) ^ (v >> 63));
+    }
+
+    public void writeString(String s) {
+        if (s == null) {
+            writeVarInt(0);
+            return;
+        }
+        int index = lookup(s);
+        if (index >= 0) {
+            writeVarInt(index + 2);
+            return;
+        }
+        writeVarInt(1);
+        int length = utf8Length(s);
+        writeVarInt(length);
+        ensure(length);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xC0 | (c >> 6)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    buf.put((byte) (0xF0 | (cp >> 18)));
+                    buf.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buf.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buf.put((byte) (0x80 | (cp & 0x3F)));
+                } else {
+                    buf.put((byte) '?'); // unpaired, as String.getBytes does
+                }
+            } else {
+                buf.put((byte) (0xE0 | (c >> 12)));
+                buf.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        if (s.length() <= MAX_DICTIONARY_CHARS && dictionarySize < MAX_DICTIONARY_SIZE) insert(s);
+    }
+
+    // Reserves a fixed int for the length of what follows; close it with endLength
+    public int beginLength() {
+        int at = buf.position();
+        writeInt(0);
+        return at;
+    }
+
+    public void endLength(int at) {
+        buf.putInt(at, buf.position() - at - 4);
+    }
+
+    public long appendTo(WriteAheadLog log) {
+        return log.append(buf.array(), 0, buf.position());
+    }
+
+    // Writes out the bytes so far, adds them to crc and empties the buffer; the dictionary stays
+    public void drainTo(WritableByteChannel channel, CRC32C crc) throws IOException {
+        crc.update(buf.array(), 0, buf.position());
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+
+    // Read-only view of the bytes written so far
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf.array(), 0, buf.position()).asReadOnlyBuffer();
+    }
+
+    private static int utf8Length(String s) {
+        int length = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x800) {
+                // A surrogate pair is four bytes for two chars, a lone surrogate one byte
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    length += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    length += 2;
+                }
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    private int lookup(String s) {
+        if (dictionarySize == 0 || s.length() > MAX_DICTIONARY_CHARS) return -1;
+        int mask = keys.length - 1;
+        for (int i = s.hashCode() & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(s)) return indexes[i];
+        }
+        return -1;
+    }
+
+    private void insert(String s) {
+        if ((dictionarySize + 1) * 2 > keys.length) {
+            String[] oldKeys = keys;
+            int[] oldIndexes = indexes;
+            keys = new String[oldKeys.length * 2];
+            indexes = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) place(oldKeys[i], oldIndexes[i]);
+            }
+        }
+        place(s, dictionarySize++);
+    }
+
+    private void place(String s, int index) {
+        int mask = keys.length - 1;
+        int i = s.hashCode() & mask;
+        while (keys[i] != null) i = (i + 1) & mask;
+        keys[i] = s;
+        indexes[i] = index;
+    }
+
+    private void ensure(int more) {
+        if (buf.remaining() >= more) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + more));
+        buf.flip();
+        bigger.put(buf);
+        buf = bigger;
+    }
+}
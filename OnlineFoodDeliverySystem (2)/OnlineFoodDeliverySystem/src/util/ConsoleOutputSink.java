@@ -0,0 +1,27 @@
+package util;
+
+import java.io.PrintStream;
+
+// Writes straight through to a PrintStream on the calling thread, as System.out.println would
+public class ConsoleOutputSink implements OutputSink {
+    private final PrintStream target;
+
+    public ConsoleOutputSink(PrintStream target) {
+        this.target = target;
+    }
+
+    @Override
+    public void print(CharSequence text) {
+        target.append(text);
+    }
+
+    @Override
+    public void println(CharSequence text) {
+        target.println(text);
+    }
+
+    @Override
+    public void flush() {
+        target.flush();
+    }
+}
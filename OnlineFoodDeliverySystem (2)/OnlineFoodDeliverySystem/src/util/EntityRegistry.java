@@ -0,0 +1,81 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+// Keeps entities in insertion order and indexes them by their int ID for O(1) lookups.
+// Adds are serialized on the registry; lookups and iteration take no lock and may run while
+// entities are being added (live sign-ups, snapshot restore). A reader sees every entity
+// whose add completed before it started, and never a half-published one.
+public class EntityRegistry<T> implements Iterable<T> {
+    private final ToIntFunction<? super T> idOf;
+    private final IntHashMap<T> byId = new IntHashMap<>();
+    // Append-only: slots below count are never rewritten. A grown array is filled before it
+    // is published, and an item is stored before the count that makes its slot visible.
+    private volatile Object[] items = new Object[16];
+    private volatile int count;
+    private final List<T> view = new View();
+
+    public EntityRegistry(ToIntFunction<? super T> idOf) {
+        this.idOf = idOf;
+    }
+
+    // Returns false (and keeps the existing entity) when the ID is already taken
+    public synchronized boolean add(T item) {
+        if (byId.putIfAbsent(idOf.applyAsInt(item), item) != null) {
+            return false;
+        }
+        int n = count;
+        Object[] array = items;
+        if (n == array.length) {
+            array = Arrays.copyOf(array, n << 1);
+            array[n] = item;
+            items = array;
+        } else {
+            array[n] = item;
+        }
+        count = n + 1;
+        return true;
+    }
+
+    public T get(int id) {
+        return byId.get(id);
+    }
+
+    public boolean contains(int id) {
+        return byId.containsKey(id);
+    }
+
+    public int size() { return count; }
+    public boolean isEmpty() { return count == 0; }
+
+    // Read-only live view in insertion order
+    public List<T> asList() { return view; }
+
+    public Stream<T> stream() { return view.stream(); }
+
+    @Override
+    public Iterator<T> iterator() {
+        return view.iterator();
+    }
+
+    private class View extends AbstractList<T> implements RandomAccess {
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            int n = count;
+            if (index < 0 || index >= n) throw new IndexOutOfBoundsException(index);
+            return (T) items[index];
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Open-addressing hash map keyed by primitive int (linear probing, no boxing).
+// A slot is empty when its value is null, so null values are not allowed.
+// Writers must be serialized by the caller. get/containsKey may run concurrently with
+// put/putIfAbsent, including resizes: a key is written before its value is released, and
+// a resized table is published whole. remove and clear move or drop entries in place,
+// so they need readers excluded as well.
+public class IntHashMap<V> {
+    private static final int MIN_CAPACITY = 8;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private volatile Table table;
+
+    // The arrays readers probe, swapped in one write so they never see keys and values of different sizes
+    private static final class Table {
+        final int[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int[] keys, Object[] values, int mask) {
+            this.keys = keys;
+            this.values = values;
+            this.mask = mask;
+        }
+    }
+
+    public IntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Table t = table;
+        int i = slot(key, t.mask);
+        Object v;
+        while ((v = SLOT.getAcquire(t.values, i)) != null) {
+            if (t.keys[i] == key) return (V) v;
+            i = (i + 1) & t.mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public V put(int key, V value) {
+        return insert(key, value, true);
+    }
+
+    public V putIfAbsent(int key, V value) {
+        return insert(key, value, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = slot(key);
+        Object v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) {
+                shiftBack(i);
+                size--;
+                return (V) v;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object v : values) {
+            if (v != null) action.accept((V) v);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V insert(int key, V value, boolean replace) {
+        if (value == null) throw new NullPointerException("value");
+        int i = slot(key);
+        Object v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) {
+                if (replace) SLOT.setRelease(values, i, value);
+                return (V) v;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        SLOT.setRelease(values, i, value);
+        if (++size > resizeAt) rehash(keys.length << 1);
+        return null;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void shiftBack(int gap) {
+        int j = gap;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == null) break;
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] newKeys = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int newMask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = slot(oldKeys[i], newMask);
+                while (newValues[j] != null) j = (j + 1) & newMask;
+                newKeys[j] = oldKeys[i];
+                newValues[j] = oldValues[i];
+            }
+        }
+        install(newKeys, newValues);
+    }
+
+    private void allocate(int capacity) {
+        install(new int[capacity], new Object[capacity]);
+    }
+
+    private void install(int[] newKeys, Object[] newValues) {
+        keys = newKeys;
+        values = newValues;
+        mask = newKeys.length - 1;
+        resizeAt = (int) (newKeys.length * 0.75f);
+        table = new Table(newKeys, newValues, mask);
+    }
+
+    private int slot(int key) {
+        return slot(key, mask);
+    }
+
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / 0.75) + 1;
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+}
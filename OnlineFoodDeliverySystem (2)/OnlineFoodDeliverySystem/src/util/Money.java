@@ -0,0 +1,54 @@
+package util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Money is carried as a long count of paise (1 rupee = 100 paise) everywhere prices, fees,
+// discounts and totals are computed, so sums are exact. Rupee doubles only appear where
+// amounts are typed in, and formatting to "123.45" only where they are printed.
+public final class Money {
+    public static final long PAISE_PER_RUPEE = 100;
+    private static final long BASIS_POINTS = 10_000;
+
+    private Money() {
+    }
+
+    // Rupees as entered by a user (e.g. 299.0 or 49.99), rounded to the nearest paisa
+    public static long ofRupees(double rupees) {
+        return Math.round(rupees * PAISE_PER_RUPEE);
+    }
+
+    public static double toRupees(long paise) {
+        return paise / (double) PAISE_PER_RUPEE;
+    }
+
+    // amount * basisPoints / 10000, rounded half up (1000 basis points = 10%)
+    public static long percentOf(long paise, long basisPoints) {
+        return Math.floorDiv(paise * basisPoints + BASIS_POINTS / 2, BASIS_POINTS);
+    }
+
+    // "1234.50", without going through String.format
+    public static String format(long paise) {
+        return appendTo(new StringBuilder(16), paise).toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder sb, long paise) {
+        try {
+            appendTo((Appendable) sb, paise);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+        return sb;
+    }
+
+    // Same digits straight into a writer or sink, without an intermediate String
+    public static void appendTo(Appendable out, long paise) throws IOException {
+        if (paise < 0) {
+            out.append('-');
+            paise = -paise;
+        }
+        TextFormat.appendLong(out, paise / PAISE_PER_RUPEE);
+        out.append('.');
+        TextFormat.appendPadded(out, paise % PAISE_PER_RUPEE, 2);
+    }
+}
@@ -0,0 +1,43 @@
+package util;
+
+// Where the services and the console app send user-facing text. Services only build messages;
+// the sink decides whether they go to the console right away (ConsoleOutputSink), are batched
+// and written by a background thread (AsyncOutputSink), or are dropped (NULL, for headless use).
+public interface OutputSink {
+    OutputSink NULL = new OutputSink() {
+        @Override
+        public void print(CharSequence text) {
+        }
+
+        @Override
+        public void println(CharSequence text) {
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    void print(CharSequence text);
+
+    void println(CharSequence text);
+
+    default void println() {
+        println("");
+    }
+
+    default void println(Object value) {
+        println(String.valueOf(value));
+    }
+
+    default void printf(String format, Object... args) {
+        print(String.format(format, args));
+    }
+
+    // Returns once everything printed so far has been written out
+    void flush();
+
+    static OutputSink console() {
+        return new ConsoleOutputSink(System.out);
+    }
+}
@@ -0,0 +1,89 @@
+package util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+// Field formatting for receipts and listings that writes straight into any Appendable
+// (a reused StringBuilder, a Writer, a CharBuffer view of a ByteBuffer) one char at a time,
+// so nothing is allocated per field: no DateTimeFormatter, String.format or Long.toString.
+public final class TextFormat {
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+        100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L,
+        1_000_000_000_000_000_000L
+    };
+
+    private TextFormat() {
+    }
+
+    // "dd-MM-yyyy HH:mm", the format used everywhere dates are shown
+    public static String formatDateTime(LocalDateTime dateTime) {
+        StringBuilder sb = new StringBuilder(16);
+        try {
+            appendDateTime(sb, dateTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+        return sb.toString();
+    }
+
+    public static void appendDateTime(Appendable out, LocalDateTime dateTime) throws IOException {
+        appendPadded(out, dateTime.getDayOfMonth(), 2);
+        out.append('-');
+        appendPadded(out, dateTime.getMonthValue(), 2);
+        out.append('-');
+        appendPadded(out, dateTime.getYear(), 4);
+        out.append(' ');
+        appendPadded(out, dateTime.getHour(), 2);
+        out.append(':');
+        appendPadded(out, dateTime.getMinute(), 2);
+    }
+
+    // value with leading zeros up to width digits, like %0<width>d for non-negative values
+    public static void appendPadded(Appendable out, long value, int width) throws IOException {
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        for (int digits = digits(value); digits < width; digits++) {
+            out.append('0');
+        }
+        appendLong(out, value);
+    }
+
+    public static void appendLong(Appendable out, long value) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                out.append("-9223372036854775808");
+                return;
+            }
+            out.append('-');
+            value = -value;
+        }
+        for (int i = digits(value) - 1; i >= 0; i--) {
+            out.append((char) ('0' + value / POWERS_OF_TEN[i] % 10));
+        }
+    }
+
+    // One decimal place, rounded half up, like %.1f for ratings
+    public static void appendTenths(Appendable out, double value) throws IOException {
+        long tenths = Math.round(value * 10);
+        if (tenths < 0) {
+            out.append('-');
+            tenths = -tenths;
+        }
+        appendLong(out, tenths / 10);
+        out.append('.');
+        out.append((char) ('0' + tenths % 10));
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
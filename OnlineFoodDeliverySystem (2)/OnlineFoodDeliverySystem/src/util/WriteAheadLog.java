@@ -0,0 +1,295 @@
+package util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32C;
+
+// Append-only record log in memory-mapped segment files, with group commit.
+//
+// A position is a byte offset into the whole log; each segment file is named after the position
+// of its first byte and is mapped in full. A record is [length][CRC32C][payload] and never spans
+// segments: when one doesn't fit, the log writes an end-of-segment marker where the next length
+// would go and moves on to a new segment. append() copies the record
+// into the mapping under a short lock and returns the position just past it; awaitDurable() then
+// blocks until that position is on disk. The first waiter forces everything appended so far
+// while later ones queue behind it, so one force covers every writer that arrived in the meantime.
+//
+// Opening a log scans forward from a given position, hands each intact record to the caller,
+// and cuts the log off at the first torn or corrupt record so new appends continue from there.
+// A zero length without the marker is a torn end even when later segments exist: whatever they
+// hold was written after a record that never reached disk, so they are deleted.
+public final class WriteAheadLog implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    private static final int HEADER_BYTES = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SUFFIX = ".wal";
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        // payload is a read-only view, valid only during the call; endPosition is just past the record
+        void accept(ByteBuffer payload, long endPosition);
+    }
+
+    private static final class Segment {
+        final long base;
+        final MappedByteBuffer buffer;
+
+        Segment(long base, MappedByteBuffer buffer) {
+            this.base = base;
+            this.buffer = buffer;
+        }
+
+        long end() { return base + buffer.capacity(); }
+    }
+
+    private final Path dir;
+    private final int segmentBytes;
+    // Segments not yet forced in full, plus the one being appended to
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object appendLock = new Object();
+    private final Object commitLock = new Object();
+    private Segment current; // guarded by appendLock
+    private boolean closed; // guarded by appendLock
+    private volatile long appendPosition;
+    private volatile long durablePosition;
+    private long forcedPosition; // only touched by the committing thread
+    private boolean committing; // guarded by commitLock
+
+    private WriteAheadLog(Path dir, int segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    public static WriteAheadLog open(Path dir, RecordConsumer consumer) throws IOException {
+        return open(dir, DEFAULT_SEGMENT_BYTES, 0, consumer);
+    }
+
+    // Replays records from replayFrom (a record boundary, e.g. 0 or a position saved with a snapshot)
+    // into consumer, which may be null, and returns the log ready for appending after the last one
+    public static WriteAheadLog open(Path dir, int segmentBytes, long replayFrom, RecordConsumer consumer)
+            throws IOException {
+        if (segmentBytes < 4096) throw new IllegalArgumentException("segment too small: " + segmentBytes);
+        Files.createDirectories(dir);
+        WriteAheadLog log = new WriteAheadLog(dir, segmentBytes);
+        log.recover(replayFrom, consumer);
+        return log;
+    }
+
+    private void recover(long replayFrom, RecordConsumer consumer) throws IOException {
+        ConcurrentSkipListMap<Long, Path> files = new ConcurrentSkipListMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                files.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+            }
+        }
+        Map.Entry<Long, Path> first = files.floorEntry(replayFrom);
+        long end = replayFrom;
+        Segment last = null;
+        CRC32C crc = new CRC32C();
+        boolean intact = true;
+        for (Map.Entry<Long, Path> entry : (first == null ? files : files.tailMap(first.getKey())).entrySet()) {
+            long base = entry.getKey();
+            if (!intact || last != null && base != last.end()) {
+                // Past a torn record, or after a gap: nothing here was ever acknowledged
+                Files.delete(entry.getValue());
+                continue;
+            }
+            Segment segment = map(entry.getValue(), base, segmentBytes);
+            int offset = (int) Math.max(0, end - base);
+            while (true) {
+                // Too little room left for even the marker: the segment is full
+                if (offset + 4 > segment.buffer.capacity()) break;
+                int length = segment.buffer.getInt(offset);
+                if (length == END_OF_SEGMENT) break;
+                if (length == 0) {
+                    intact = false;
+                    break;
+                }
+                if (length < 0 || offset + HEADER_BYTES + length > segment.buffer.capacity()) {
+                    intact = false;
+                    break;
+                }
+                ByteBuffer payload = segment.buffer.slice(offset + HEADER_BYTES, length).asReadOnlyBuffer();
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != segment.buffer.getInt(offset + 4)) {
+                    intact = false;
+                    break;
+                }
+                offset += HEADER_BYTES + length;
+                if (consumer != null) consumer.accept(payload.rewind(), base + offset);
+            }
+            // At the marker or a full segment the writer moved on to the next one
+            end = base + offset;
+            last = segment;
+        }
+        if (last == null) {
+            last = map(segmentPath(end), end, segmentBytes);
+        } else {
+            // Clear whatever a torn write left behind the last good record
+            MappedByteBuffer buffer = last.buffer;
+            int i = (int) (end - last.base);
+            for (; i < buffer.capacity() && (i & 7) != 0; i++) buffer.put(i, (byte) 0);
+            for (; i + 8 <= buffer.capacity(); i += 8) {
+                if (buffer.getLong(i) != 0) buffer.putLong(i, 0);
+            }
+            for (; i < buffer.capacity(); i++) buffer.put(i, (byte) 0);
+            // What was replayed may only have reached the page cache before a crash
+            last.buffer.force();
+        }
+        segments.put(last.base, last);
+        current = last;
+        appendPosition = end;
+        durablePosition = end;
+        forcedPosition = end;
+    }
+
+    // Copies the record into the log and returns the position just past it; not yet durable
+    public long append(byte[] record, int offset, int length) {
+        if (length <= 0 || length > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("record length " + length);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(record, offset, length);
+        int checksum = (int) crc.getValue();
+        synchronized (appendLock) {
+            if (closed) throw new IllegalStateException("log is closed");
+            Segment segment = current;
+            int at = (int) (appendPosition - segment.base);
+            if (at + HEADER_BYTES + length > segment.buffer.capacity()) {
+                segment = roll(segment);
+                at = 0;
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putInt(at + 4, checksum);
+            buffer.put(at + HEADER_BYTES, record, offset, length);
+            // Length last, so a record cut short by a crash reads as the end of the log
+            buffer.putInt(at, length);
+            long end = segment.base + at + HEADER_BYTES + length;
+            appendPosition = end;
+            return end;
+        }
+    }
+
+    public long appendDurably(byte[] record, int offset, int length) {
+        long position = append(record, offset, length);
+        awaitDurable(position);
+        return position;
+    }
+
+    // Blocks until everything before position has been forced to disk
+    public void awaitDurable(long position) {
+        if (durablePosition >= position) return;
+        synchronized (commitLock) {
+            while (committing && durablePosition < position) {
+                try {
+                    commitLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted waiting for the log", e);
+                }
+            }
+            if (durablePosition >= position) return;
+            committing = true;
+        }
+        try {
+            long target = appendPosition;
+            force(target);
+            durablePosition = target;
+        } finally {
+            synchronized (commitLock) {
+                committing = false;
+                commitLock.notifyAll();
+            }
+        }
+    }
+
+    private void force(long target) {
+        Long from = segments.floorKey(forcedPosition);
+        for (Segment segment : segments.subMap(from == null ? 0 : from, true, target, false).values()) {
+            long start = Math.max(forcedPosition, segment.base);
+            long stop = Math.min(target, segment.end());
+            if (stop > start) {
+                segment.buffer.force((int) (start - segment.base), (int) (stop - start));
+            }
+            if (segment.end() <= target && segments.higherKey(segment.base) != null) {
+                // Fully on disk; the mapping goes once nothing references it
+                segments.remove(segment.base);
+            }
+        }
+        forcedPosition = target;
+    }
+
+    // Called under appendLock. The marker goes in before the next segment exists, so it is forced
+    // along with the records before it, ahead of anything in the next segment.
+    private Segment roll(Segment full) {
+        int at = (int) (appendPosition - full.base);
+        if (at + 4 <= full.buffer.capacity()) full.buffer.putInt(at, END_OF_SEGMENT);
+        try {
+            Segment next = map(segmentPath(full.end()), full.end(), segmentBytes);
+            segments.put(next.base, next);
+            current = next;
+            appendPosition = next.base;
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Removes segments that end at or before position, e.g. once a snapshot covers them
+    public void deleteSegmentsBefore(long position) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            ConcurrentSkipListMap<Long, Path> files = new ConcurrentSkipListMap<>();
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                files.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+            }
+            // A segment can go when the next one starts at or before position
+            for (Map.Entry<Long, Path> entry : files.entrySet()) {
+                Long next = files.higherKey(entry.getKey());
+                if (next == null || next > position) break;
+                if (segments.containsKey(entry.getKey())) break;
+                Files.deleteIfExists(entry.getValue());
+            }
+        }
+    }
+
+    public long getAppendPosition() { return appendPosition; }
+    public long getDurablePosition() { return durablePosition; }
+
+    // Makes everything appended durable; later appends fail
+    @Override
+    public void close() {
+        long end;
+        synchronized (appendLock) {
+            if (closed) return;
+            closed = true;
+            end = appendPosition;
+        }
+        awaitDurable(end);
+    }
+
+    private Path segmentPath(long base) {
+        return dir.resolve(String.format("%020d", base) + SUFFIX);
+    }
+
+    // Existing segments keep their length; new (or empty) ones get size bytes.
+    // The mapping outlives the channel, so no file handle is held per segment.
+    private static Segment map(Path file, long base, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size() > 0 ? channel.size() : size;
+            return new Segment(base, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+        }
+    }
+}